@@ -0,0 +1,14 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once.benchmark;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * The benchmarks of {@link ReadBenchmark}, run by as many threads as there are available processors, all reading the
+ * same instances.
+ */
+@Threads(Threads.MAX)
+public class ContendedReadBenchmark extends ReadBenchmark {
+	/* Benchmark methods are inherited */
+}
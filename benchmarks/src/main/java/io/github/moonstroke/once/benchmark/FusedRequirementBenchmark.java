@@ -0,0 +1,109 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.moonstroke.once.Requirement;
+import io.github.moonstroke.once.StableField;
+
+/**
+ * Compare the check of the requirements of a field, fused into a single requirement, with a loop calling each
+ * requirement in turn.
+ *
+ * Both are measured after checking values against requirements of many distinct classes, as an application declaring
+ * many requirements would: the call site of the loop then dispatches to more classes than the JIT compiler inlines.
+ * The fused check is measured through a setter of a field that is already set, so that it also includes the cost of
+ * the setter itself.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FusedRequirementBenchmark {
+
+	/* Requirements of distinct classes: each lambda expression is compiled to a class of its own */
+	private static final List<Requirement<Object>> REQUIREMENTS = List.of(value -> {},
+	                                                                      value -> {},
+	                                                                      value -> {},
+	                                                                      value -> {},
+	                                                                      value -> {},
+	                                                                      value -> {},
+	                                                                      value -> {},
+	                                                                      value -> {});
+
+	/* The number of iterations checking every requirement before the measurement */
+	private static final int POLLUTION_ROUNDS = 20_000;
+
+	@Param({"2", "4", "8"})
+	public int count;
+
+	private final Object value = new Object();
+	private List<Requirement<Object>> requirements;
+	private StableField<Object> field;
+
+	@Setup
+	public void setUp() {
+		requirements = REQUIREMENTS.subList(0, count);
+		field = new StableField<>("field", toArray(requirements));
+		field.set(value);
+		/* Let the call sites see every requirement class, through sequences of every length */
+		List<StableField<Object>> others = new ArrayList<>();
+		for (int i = 0; i < REQUIREMENTS.size(); ++i) {
+			List<Requirement<Object>> rotated = new ArrayList<>(REQUIREMENTS);
+			rotated.addAll(REQUIREMENTS.subList(0, i));
+			rotated = rotated.subList(i, i + count);
+			StableField<Object> other = new StableField<>("other", toArray(rotated));
+			other.set(value);
+			others.add(other);
+		}
+		for (int i = 0; i < POLLUTION_ROUNDS; ++i) {
+			for (StableField<Object> other : others) {
+				other.trySet(value);
+			}
+			checkInLoop(REQUIREMENTS, value);
+		}
+	}
+
+	/* Copy the requirements into an array, for the variable arity constructor of the fields */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static Requirement<Object>[] toArray(List<Requirement<Object>> requirements) {
+		return requirements.toArray(new Requirement[0]);
+	}
+
+	/* The check formerly performed by StableField, kept out of the benchmark methods so that its call site is shared */
+	@CompilerControl(CompilerControl.Mode.DONT_INLINE)
+	private static void checkInLoop(List<Requirement<Object>> requirements, Object value) {
+		for (Requirement<Object> r : requirements) {
+			r.check(value);
+		}
+	}
+
+	@Benchmark
+	public void loop() {
+		checkInLoop(requirements, value);
+	}
+
+	@Benchmark
+	public boolean fused() {
+		/* Checks the value before failing */
+		return field.trySet(value);
+	}
+}
@@ -0,0 +1,86 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import io.github.moonstroke.once.StableField;
+
+/**
+ * Measure the cost of reading a set {@link StableField} through its {@linkplain StableField#getter() getter}, compared
+ * to a {@code static final} constant and to {@link StableField#get()}.
+ *
+ * The value is a string, whose length is returned, so that a value folded into a constant lets its length be folded
+ * too. Both getters are held in {@code static final} fields: one taken once the field is set, the other before. The
+ * field of the latter is only set at the start of the first measurement iteration, once the warmup has compiled the
+ * benchmark method against the unset field: that iteration includes the retarget of the getter and the
+ * deoptimization it causes, and the next ones the code compiled again against the constant.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GetterBenchmark {
+
+	private static final String CONSTANT = "value";
+	private static final StableField<String> FIELD = new StableField<>("field");
+	/* Static, and thus set once per fork */
+	private static final StableField<String> LATE_FIELD = new StableField<>("late field");
+	private static final MethodHandle LATE_GETTER = LATE_FIELD.getter();
+	private static final MethodHandle GETTER;
+
+	static {
+		FIELD.set(CONSTANT);
+		GETTER = FIELD.getter();
+	}
+
+	@Setup(Level.Iteration)
+	public void setLateField(IterationParams params) {
+		if (params.getType() == IterationType.MEASUREMENT) {
+			LATE_FIELD.trySet(CONSTANT);
+		}
+	}
+
+	@Benchmark
+	public int staticFinal() {
+		return CONSTANT.length();
+	}
+
+	@Benchmark
+	public int stableFieldGet() {
+		return FIELD.get().length();
+	}
+
+	@Benchmark
+	public int getter() throws Throwable {
+		return ((String) (Object) GETTER.invokeExact()).length();
+	}
+
+	@Benchmark
+	public int getterTakenBeforeSet() throws Throwable {
+		try {
+			return ((String) (Object) LATE_GETTER.invokeExact()).length();
+		} catch (NoSuchElementException e) {
+			/* During the warmup only */
+			return -1;
+		}
+	}
+}
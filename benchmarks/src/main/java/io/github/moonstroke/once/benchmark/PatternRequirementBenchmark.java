@@ -0,0 +1,67 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.moonstroke.once.Requirement;
+import io.github.moonstroke.once.Requirements;
+
+/**
+ * Compare the check of a value against a requirement of {@link Requirements#matches(String)} with the match of the
+ * same value by a matcher of the pattern. The simple patterns are checked by a scanner of their own, the last one
+ * by the pattern.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PatternRequirementBenchmark {
+
+	/* A value matching each pattern */
+	private static final Map<String, String> VALUES = Map.of("[A-Za-z0-9_]+", "some_identifier42",
+	                                                         "\\d+", "1234567890",
+	                                                         "ID-[0-9]{6}", "ID-123456",
+	                                                         "[A-Z]{3}-\\d{4}", "ABC-1234",
+	                                                         "(?:[a-z]+\\.)+[a-z]+", "www.example.org");
+
+	@Param({"[A-Za-z0-9_]+", "\\d+", "ID-[0-9]{6}", "[A-Z]{3}-\\d{4}", "(?:[a-z]+\\.)+[a-z]+"})
+	public String regex;
+
+	private Requirement<CharSequence> requirement;
+	private Pattern pattern;
+	private String value;
+
+	@Setup
+	public void setUp() {
+		requirement = Requirements.matches(regex);
+		pattern = Pattern.compile(regex);
+		value = VALUES.get(regex);
+	}
+
+	@Benchmark
+	public boolean requirement() {
+		return requirement.test(value);
+	}
+
+	@Benchmark
+	public boolean pattern() {
+		return pattern.matcher(value).matches();
+	}
+}
@@ -0,0 +1,94 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.moonstroke.once.StableField;
+
+/**
+ * Measure the cost of racing to set stable fields from several threads.
+ *
+ * All the threads walk the same sequence of unset fields, in the same order, and try to set each one: the first thread
+ * to reach a field sets it, and the others lose the race. The fields are renewed at each iteration; the sequence is
+ * long enough not to wrap around within one, on usual hardware.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class RaceBenchmark {
+
+	private static final int FIELDS_COUNT = 1 << 22;
+	private static final Object VALUE = new Object();
+
+	/**
+	 * The fields raced upon, shared by all threads.
+	 */
+	@State(Scope.Benchmark)
+	public static class Fields {
+
+		StableField<Object>[] stableFields;
+		AtomicReferenceArray<Object> references;
+
+		@Setup(Level.Iteration)
+		public void setUp() {
+			@SuppressWarnings({ "rawtypes", "unchecked" })
+			StableField<Object>[] fields = new StableField[FIELDS_COUNT];
+			stableFields = fields;
+			for (int i = 0; i < FIELDS_COUNT; ++i) {
+				stableFields[i] = new StableField<>("field");
+			}
+			references = new AtomicReferenceArray<>(FIELDS_COUNT);
+		}
+	}
+
+	/**
+	 * The position of a thread in the sequence of fields.
+	 */
+	@State(Scope.Thread)
+	public static class Cursor {
+
+		int index;
+
+		@Setup(Level.Iteration)
+		public void setUp() {
+			index = 0;
+		}
+
+		int next() {
+			return index++ & (FIELDS_COUNT - 1);
+		}
+	}
+
+	@Benchmark
+	public boolean atomicReferenceArrayCompareAndSet(Fields fields, Cursor cursor) {
+		return fields.references.compareAndSet(cursor.next(), null, VALUE);
+	}
+
+	@Benchmark
+	public boolean stableFieldTrySet(Fields fields, Cursor cursor) {
+		return fields.stableFields[cursor.next()].trySet(VALUE);
+	}
+
+	@Benchmark
+	public Object stableFieldOrElseSet(Fields fields, Cursor cursor) {
+		return fields.stableFields[cursor.next()].orElseSet(() -> VALUE);
+	}
+}
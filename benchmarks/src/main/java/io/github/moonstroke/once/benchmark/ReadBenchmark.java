@@ -0,0 +1,105 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.moonstroke.once.StableField;
+import io.github.moonstroke.once.StableInt;
+
+/**
+ * Measure the cost of reading a set {@link StableField}, compared to the usual ways of holding a value initialized
+ * once.
+ *
+ * The state is shared by all the benchmark threads; run with {@code -t} to measure reads from several threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadBenchmark {
+
+	private static final Object VALUE = new Object();
+
+	/* The initialization-on-demand holder idiom */
+	private static final class Holder {
+		static final Object VALUE = new Object();
+	}
+
+	private final Object finalField = VALUE;
+	private volatile Object volatileField = VALUE;
+	private final AtomicReference<Object> atomicReference = new AtomicReference<>(VALUE);
+	private final StableField<Object> stableField = new StableField<>("field");
+	private final StableField<Object> unsetStableField = new StableField<>("unset field");
+	private final StableField<Integer> boxedStableField = new StableField<>("boxed field");
+	private final StableInt stableInt = new StableInt("int field");
+
+	{
+		stableField.set(VALUE);
+		boxedStableField.set(1 << 20);
+		stableInt.set(1 << 20);
+	}
+
+	@Benchmark
+	public Object finalField() {
+		return finalField;
+	}
+
+	@Benchmark
+	public Object volatileField() {
+		return volatileField;
+	}
+
+	@Benchmark
+	public Object atomicReference() {
+		return atomicReference.get();
+	}
+
+	@Benchmark
+	public Object holderClass() {
+		return Holder.VALUE;
+	}
+
+	@Benchmark
+	public Object stableFieldGet() {
+		return stableField.get();
+	}
+
+	@Benchmark
+	public Object stableFieldGetDefault() {
+		return stableField.get(null);
+	}
+
+	@Benchmark
+	public Object unsetStableFieldGetDefault() {
+		return unsetStableField.get(VALUE);
+	}
+
+	@Benchmark
+	public int boxedStableFieldGet() {
+		return boxedStableField.get();
+	}
+
+	@Benchmark
+	public int stableIntGetAsInt() {
+		return stableInt.getAsInt();
+	}
+
+	@Benchmark
+	public int stableFieldHashCode() {
+		return stableField.hashCode();
+	}
+}
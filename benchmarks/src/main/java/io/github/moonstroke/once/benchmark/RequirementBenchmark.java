@@ -0,0 +1,86 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once.benchmark;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.moonstroke.once.Requirement;
+import io.github.moonstroke.once.Requirements;
+import io.github.moonstroke.once.StableField;
+
+/**
+ * Measure the cost of checking each of the requirement constants of {@link Requirements}, on an accepted value.
+ *
+ * The check is measured both alone and through a setter of a field that is already set, which checks the value before
+ * failing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequirementBenchmark {
+
+	/* A value accepted by each requirement constant */
+	private static final Map<String, Object> VALUES = Map.ofEntries(Map.entry("ALLOW_NULL", new Object()),
+	                                                                Map.entry("STRING_NOT_EMPTY", "value"),
+	                                                                Map.entry("STRING_NOT_BLANK", "     value"),
+	                                                                Map.entry("LIST_NOT_EMPTY", List.of(1)),
+	                                                                Map.entry("SET_NOT_EMPTY", Set.of(1)),
+	                                                                Map.entry("COLLECTION_NOT_EMPTY",
+	                                                                          Collections.singleton(1)),
+	                                                                Map.entry("MAP_NOT_EMPTY", Map.of(1, 1)),
+	                                                                Map.entry("CHAR_NOT_NUL", 'c'),
+	                                                                Map.entry("NOT_ZERO", 42),
+	                                                                Map.entry("FLOAT_NOT_NAN", 4.2F),
+	                                                                Map.entry("DOUBLE_NOT_NAN", 4.2),
+	                                                                Map.entry("FLOAT_FINITE", 4.2F),
+	                                                                Map.entry("DOUBLE_FINITE", 4.2),
+	                                                                Map.entry("NOT_NEGATIVE", 42L),
+	                                                                Map.entry("POSITIVE", 42L));
+
+	@Param({"ALLOW_NULL", "STRING_NOT_EMPTY", "STRING_NOT_BLANK", "LIST_NOT_EMPTY", "SET_NOT_EMPTY",
+	        "COLLECTION_NOT_EMPTY", "MAP_NOT_EMPTY", "CHAR_NOT_NUL", "NOT_ZERO", "FLOAT_NOT_NAN", "DOUBLE_NOT_NAN",
+	        "FLOAT_FINITE", "DOUBLE_FINITE", "NOT_NEGATIVE", "POSITIVE"})
+	public String requirementName;
+
+	private Requirement<Object> requirement;
+	private Object value;
+	private StableField<Object> field;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setUp() throws ReflectiveOperationException {
+		requirement = (Requirement<Object>) Requirements.class.getField(requirementName).get(null);
+		value = VALUES.get(requirementName);
+		field = new StableField<>("field", requirement);
+		field.set(value);
+	}
+
+	@Benchmark
+	public void check() {
+		requirement.check(value);
+	}
+
+	@Benchmark
+	public boolean trySetWhenSet() {
+		return field.trySet(value);
+	}
+}
@@ -0,0 +1,90 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.moonstroke.once.StableField;
+
+/**
+ * Measure the cost of setting a {@link StableField}, compared to the usual ways of publishing a value once.
+ *
+ * Since a stable field can only be set once, the benchmarks setting a value include the allocation of the container;
+ * the baselines allocate theirs likewise.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WriteBenchmark {
+
+	private static final Object VALUE = new Object();
+
+	/* A minimal container with a volatile member, to compare against */
+	private static final class VolatileHolder {
+		volatile Object value;
+	}
+
+	private final StableField<Object> setStableField = new StableField<>("field");
+
+	{
+		setStableField.set(VALUE);
+	}
+
+	@Benchmark
+	public Object volatileWrite() {
+		VolatileHolder holder = new VolatileHolder();
+		holder.value = VALUE;
+		return holder;
+	}
+
+	@Benchmark
+	public Object atomicReferenceCompareAndSet() {
+		AtomicReference<Object> reference = new AtomicReference<>();
+		reference.compareAndSet(null, VALUE);
+		return reference;
+	}
+
+	@Benchmark
+	public Object stableFieldSet() {
+		StableField<Object> field = new StableField<>("field");
+		field.set(VALUE);
+		return field;
+	}
+
+	@Benchmark
+	public Object stableFieldTrySet() {
+		StableField<Object> field = new StableField<>("field");
+		field.trySet(VALUE);
+		return field;
+	}
+
+	@Benchmark
+	public Object stableFieldOrElseSet() {
+		StableField<Object> field = new StableField<>("field");
+		return field.orElseSet(() -> VALUE);
+	}
+
+	@Benchmark
+	public boolean stableFieldTrySetWhenSet() {
+		return setStableField.trySet(VALUE);
+	}
+
+	@Benchmark
+	public Object stableFieldOrElseSetWhenSet() {
+		return setStableField.orElseSet(() -> VALUE);
+	}
+}
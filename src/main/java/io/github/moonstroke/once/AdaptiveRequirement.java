@@ -0,0 +1,179 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The conjunction of several requirements, checked in an order that adapts to the values checked, so that a value that
+ * does not meet them is rejected as early as possible.
+ *
+ * A sample of the checks measures the cost of each requirement and how often it rejects the value, in striped
+ * counters that threads update without contending. From time to time, one of the sampled checks sorts the
+ * requirements by increasing ratio of their average cost to their rejection rate, which minimizes the expected cost of
+ * the checks when the requirements reject independently. The averages are smoothed over successive reorderings, so
+ * that the order follows a change in the values checked without swinging on a few unusual ones.
+ *
+ * Requirements that are never reached keep their relative order; so do requirements of equal rank.
+ *
+ * @param <T> The type of the values checked
+ */
+final class AdaptiveRequirement<T> implements Requirement<T> {
+
+	/* One check out of this number is measured */
+	private static final int SAMPLE_PERIOD = 64;
+	/* One measured check out of this number reorders the requirements */
+	private static final int REORDER_PERIOD = 16;
+	/* The weight of the latest measures in the smoothed averages */
+	private static final double SMOOTHING = 0.25;
+	/* The rejection rate assumed for the requirements that never reject, so that they are sorted by cost */
+	private static final double MIN_REJECTION_RATE = 1e-9;
+
+	private static final Comparator<Statistics> BY_RANK = Comparator.comparingDouble(s -> s.rank);
+
+	/* The statistics of each requirement, in declaration order */
+	private final Statistics[] statistics;
+	/* The same statistics, in the order in which the requirements are checked. Replaced as a whole on reordering */
+	private volatile Statistics[] order;
+	/* Held by the thread reordering the requirements; others skip reordering instead of waiting */
+	private final AtomicBoolean reordering = new AtomicBoolean();
+
+
+	/**
+	 * Create the adaptive conjunction of the given requirements, initially checked in the given order.
+	 *
+	 * @param requirements The requirements, none of which is {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	AdaptiveRequirement(Requirement<?>[] requirements) {
+		statistics = new Statistics[requirements.length];
+		for (int i = 0; i < requirements.length; ++i) {
+			statistics[i] = new Statistics((Requirement<Object>) requirements[i]);
+		}
+		order = statistics.clone();
+	}
+
+	@Override
+	public void check(T value) {
+		Statistics[] current = order;
+		if (ThreadLocalRandom.current().nextInt(SAMPLE_PERIOD) != 0) {
+			for (Statistics s : current) {
+				s.requirement.check(value);
+			}
+			return;
+		}
+		try {
+			for (Statistics s : current) {
+				long start = System.nanoTime();
+				try {
+					s.requirement.check(value);
+				} catch (IllegalArgumentException e) {
+					s.record(System.nanoTime() - start, false);
+					throw e;
+				}
+				/* Any other exception is a failure of the requirement, not a rejection: it is not sampled */
+				s.record(System.nanoTime() - start, true);
+			}
+		} finally {
+			maybeReorder();
+		}
+	}
+
+	@Override
+	public boolean test(T value) {
+		Statistics[] current = order;
+		if (ThreadLocalRandom.current().nextInt(SAMPLE_PERIOD) != 0) {
+			for (Statistics s : current) {
+				if (!s.requirement.test(value)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		try {
+			for (Statistics s : current) {
+				long start = System.nanoTime();
+				boolean met = s.requirement.test(value);
+				s.record(System.nanoTime() - start, met);
+				if (!met) {
+					return false;
+				}
+			}
+			return true;
+		} finally {
+			maybeReorder();
+		}
+	}
+
+	private void maybeReorder() {
+		if (ThreadLocalRandom.current().nextInt(REORDER_PERIOD) == 0 && reordering.compareAndSet(false, true)) {
+			try {
+				reorder();
+			} finally {
+				reordering.set(false);
+			}
+		}
+	}
+
+	/* Fold the measures made since the last reordering into the averages, and sort the requirements accordingly */
+	private void reorder() {
+		for (Statistics s : statistics) {
+			s.update();
+		}
+		Statistics[] sorted = statistics.clone();
+		/* The sort is stable, which keeps the declaration order of the requirements of equal rank */
+		Arrays.sort(sorted, BY_RANK);
+		order = sorted;
+	}
+
+	/* The measures of a requirement. The counters are updated by any checking thread; the averages only by the thread
+	 * reordering the requirements */
+	private static final class Statistics {
+
+		final Requirement<Object> requirement;
+		final LongAdder evaluations = new LongAdder();
+		final LongAdder rejections = new LongAdder();
+		final LongAdder nanos = new LongAdder();
+		double rejectionRate;
+		double cost;
+		boolean measured;
+		/* The sort key: the expected cost of the requirement per rejection. Unmeasured requirements come last */
+		double rank = Double.MAX_VALUE;
+
+		Statistics(Requirement<Object> requirement) {
+			this.requirement = requirement;
+		}
+
+		void record(long elapsed, boolean met) {
+			evaluations.increment();
+			nanos.add(elapsed);
+			if (!met) {
+				rejections.increment();
+			}
+		}
+
+		void update() {
+			long n = evaluations.sumThenReset();
+			long r = rejections.sumThenReset();
+			long t = nanos.sumThenReset();
+			if (n == 0) {
+				return;
+			}
+			double latestRate = (double) r / n;
+			double latestCost = (double) t / n;
+			if (measured) {
+				rejectionRate += SMOOTHING * (latestRate - rejectionRate);
+				cost += SMOOTHING * (latestCost - cost);
+			} else {
+				rejectionRate = latestRate;
+				cost = latestCost;
+				measured = true;
+			}
+			rank = cost / Math.max(rejectionRate, MIN_REJECTION_RATE);
+		}
+	}
+}
@@ -0,0 +1,64 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.util.Arrays;
+
+/**
+ * The conjunction of several requirements, checked in order. Containers declared with such a requirement hold its
+ * operands instead, so that they can be simplified along with the other requirements of the container.
+ *
+ * @param <T> The type of the values checked
+ */
+final class AllOf<T> implements Requirement<T> {
+
+	private final Requirement<?>[] requirements;
+
+
+	/**
+	 * Create the conjunction of the given requirements.
+	 *
+	 * @param requirements The requirements, none of which is {@code null}. The array must not be modified afterwards
+	 */
+	AllOf(Requirement<?>[] requirements) {
+		this.requirements = requirements;
+	}
+
+	/**
+	 * Return the operands of the conjunction. The array must not be modified.
+	 *
+	 * @return the requirements combined by this one
+	 */
+	Requirement<?>[] requirements() {
+		return requirements;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void check(T value) {
+		for (Requirement<?> r : requirements) {
+			((Requirement<Object>) r).check(value);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean test(T value) {
+		for (Requirement<?> r : requirements) {
+			if (!((Requirement<Object>) r).test(value)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(requirements);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof AllOf && Arrays.equals(requirements, ((AllOf<?>) o).requirements);
+	}
+}
@@ -0,0 +1,89 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The computation of a value by a thread, which the other threads needing the value wait for.
+ *
+ * Like the threads waiting for a {@link StableField}, the waiting threads are parked on a stack of their own, and
+ * unparked directly when the computation is released: either because it has ended, or because a setter has published
+ * a value in the meantime, which makes the computed value useless to them. A released computation lets no thread
+ * wait anymore.
+ *
+ * An instance is used for a single computation, and dropped once released: it only holds the threads waiting for it,
+ * so that no waiting state is kept by the value containers outside of a computation.
+ */
+final class Computation {
+
+	/* Replaces the stack of waiters once the computation is released, so that no thread waits after that */
+	private static final Waiter RELEASED = new Waiter(null);
+
+	private static final VarHandle WAITERS;
+
+	static {
+		try {
+			WAITERS = MethodHandles.lookup().findVarHandle(Computation.class, "waiters", Waiter.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	/* The thread running the computation. Compared against the current thread, to detect a re-entry */
+	final Thread owner = Thread.currentThread();
+	/* The top of the stack of the threads parked until the computation is released, or RELEASED once it is */
+	private volatile Waiter waiters;
+
+
+	/**
+	 * Wait until the computation is released. Interrupts are deferred until then.
+	 *
+	 * @param blocker The object whose value is computed, reported by monitoring tools
+	 */
+	void await(Object blocker) {
+		Waiter waiter = new Waiter(Thread.currentThread());
+		Waiter top;
+		do {
+			top = waiters;
+			if (top == RELEASED) {
+				return;
+			}
+			waiter.next = top;
+		} while (!WAITERS.compareAndSet(this, top, waiter));
+		boolean interrupted = false;
+		while (waiters != RELEASED) {
+			LockSupport.park(blocker);
+			interrupted |= Thread.interrupted();
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Wake up the threads waiting for the computation, and let no other thread wait for it. Releasing a computation
+	 * more than once has no further effect.
+	 */
+	void release() {
+		Waiter top = (Waiter) WAITERS.getAndSet(this, RELEASED);
+		if (top != RELEASED) {
+			for (Waiter w = top; w != null; w = w.next) {
+				LockSupport.unpark(w.thread);
+			}
+		}
+	}
+
+	/* An entry of the stack of waiters. Its link is only written before the entry is pushed */
+	private static final class Waiter {
+
+		final Thread thread;
+		Waiter next;
+
+		Waiter(Thread thread) {
+			this.thread = thread;
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The detection of the cycles in the computations of {@link StableField#orElseSet}.
+ *
+ * Each thread keeps the chain of the fields it is computing, innermost last, so that a supplier that needs the value
+ * of a field it is already computing, directly or through other fields, is reported with the whole chain instead of
+ * recursing or waiting forever.
+ *
+ * Optionally, the threads waiting for the computation of a field by another thread are also recorded in a wait-for
+ * graph, which is walked before each wait: a thread about to wait, through a chain of waiting threads, for the end
+ * of a computation it is running itself, fails instead of waiting. When several threads close a cycle at the same
+ * time, at least one of them detects it. This detection is enabled by setting the system property
+ * {@value #DETECT_DEADLOCKS_PROPERTY} to {@code true}; the property is read before each wait, which is the only
+ * moment the detection costs anything.
+ *
+ * None of this is involved in reading a field already set.
+ */
+final class ComputationTracker {
+
+	/** The system property enabling the detection of the cycles between threads */
+	static final String DETECT_DEADLOCKS_PROPERTY = "io.github.moonstroke.once.detectDeadlocks";
+
+	/* The fields computed by each thread, outermost first */
+	private static final ThreadLocal<Deque<StableField<?>>> COMPUTING = ThreadLocal.withInitial(ArrayDeque::new);
+	/* The wait-for graph: the field whose computation each waiting thread waits for */
+	private static final Map<Thread, StableField<?>> WAITING = new ConcurrentHashMap<>();
+
+
+	private ComputationTracker() {}
+
+	/**
+	 * Record that the current thread starts computing the given field.
+	 *
+	 * @param field The field computed
+	 */
+	static void enter(StableField<?> field) {
+		COMPUTING.get().addLast(field);
+	}
+
+	/**
+	 * Record that the current thread ends the computation of its innermost field.
+	 */
+	static void exit() {
+		COMPUTING.get().removeLast();
+	}
+
+	/**
+	 * Describe the re-entry of the current thread in the computation of a field that it is already computing.
+	 *
+	 * @param field The field computed again
+	 *
+	 * @return an exception naming the fields of the cycle, from the given one back to itself
+	 */
+	static IllegalStateException reentry(StableField<?> field) {
+		StringJoiner cycle = new StringJoiner(" -> ", "cycle in the computation of " + field.name() + ": ", "");
+		boolean inCycle = false;
+		for (StableField<?> f : COMPUTING.get()) {
+			inCycle |= f == field;
+			if (inCycle) {
+				cycle.add(f.name());
+			}
+		}
+		cycle.add(field.name());
+		return new IllegalStateException(cycle.toString());
+	}
+
+	/**
+	 * Record that the current thread is about to wait for the computation of the given field by another thread, and
+	 * check that this does not close a cycle of waiting threads. Does nothing unless the detection is enabled.
+	 *
+	 * Every call must be followed by a call to {@link #afterWait()}, unless it throws.
+	 *
+	 * @param field The field waited for
+	 *
+	 * @throws IllegalStateException if the wait would never end
+	 */
+	static void beforeWait(StableField<?> field) {
+		if (!Boolean.getBoolean(DETECT_DEADLOCKS_PROPERTY)) {
+			return;
+		}
+		Thread current = Thread.currentThread();
+		WAITING.put(current, field);
+		StringJoiner cycle = new StringJoiner(", which waits for ", "deadlock: " + current.getName() + " waits for ",
+		                                      "");
+		StableField<?> waited = field;
+		/* Each waiting thread is visited at most once, unless the walk is in a cycle that the current thread is not
+		 * in */
+		for (int steps = WAITING.size(); steps >= 0; --steps) {
+			Thread owner = waited.computingThread();
+			if (owner == null) {
+				return;
+			}
+			cycle.add(waited.name() + ", computed by " + owner.getName());
+			if (owner == current) {
+				WAITING.remove(current);
+				throw new IllegalStateException(cycle.toString());
+			}
+			waited = WAITING.get(owner);
+			if (waited == null) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Record that the current thread no longer waits.
+	 */
+	static void afterWait() {
+		/* Whether the detection was enabled before the wait or not */
+		WAITING.remove(Thread.currentThread());
+	}
+}
@@ -0,0 +1,136 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.util.Objects;
+import java.util.function.DoublePredicate;
+
+/**
+ * An additional requirement that a double-precision floating-point number must meet when it is being set, checked
+ * without boxing.
+ *
+ * This is the {@code double}-specialized counterpart of {@link Requirement}.
+ *
+ * The interface defines the primitive counterparts of the numeric requirements of {@link Requirements}, and adapters
+ * from and to requirements on boxed values. The requirements it defines also apply to {@code float} values, which
+ * widen exactly to {@code double}.
+ */
+@FunctionalInterface
+public interface DoubleRequirement {
+
+	/**
+	 * Perform the check that this requirement represents.
+	 *
+	 * @param value The value to check
+	 *
+	 * @throws IllegalArgumentException if the value does not meet the requirement
+	 */
+	void check(double value) throws IllegalArgumentException;
+
+	/**
+	 * Require that a value be nonzero.
+	 */
+	public static final DoubleRequirement NOT_ZERO = fromPredicate(v -> v != 0, "value cannot be zero");
+
+	/**
+	 * Require that a value be non-negative (i.e. positive or zero).
+	 */
+	public static final DoubleRequirement NOT_NEGATIVE = fromPredicate(v -> v >= 0, "value must not be negative");
+
+	/**
+	 * Require that a value be positive (not negative, nor zero). This requirement is a shortcut for specifying both
+	 * {@link #NOT_NEGATIVE} and {@link #NOT_ZERO}.
+	 */
+	public static final DoubleRequirement POSITIVE = fromPredicate(v -> v > 0, "value must be positive");
+
+	/**
+	 * Require that a value be an actual number (not NaN).
+	 */
+	public static final DoubleRequirement NOT_NAN = fromPredicate(d -> !Double.isNaN(d), "value cannot be NaN");
+
+	/**
+	 * Require that a value be a finite number.
+	 */
+	public static final DoubleRequirement FINITE = fromPredicate(Double::isFinite, "value must not be an infinite");
+
+
+	/**
+	 * Adapt this requirement to check boxed values.
+	 *
+	 * @return A requirement instance checking the unboxed value against this requirement
+	 */
+	default Requirement<Double> boxed() {
+		return this::check;
+	}
+
+	/**
+	 * Adapt a requirement on boxed values to check primitive values. The adapted requirement boxes each value it
+	 * checks.
+	 *
+	 * @param requirement The requirement to adapt
+	 *
+	 * @return A requirement instance checking the boxed value against the given requirement
+	 *
+	 * @throws NullPointerException if requirement is {@code null}
+	 */
+	public static DoubleRequirement fromRequirement(Requirement<? super Double> requirement) {
+		Objects.requireNonNull(requirement);
+		return requirement::check;
+	}
+
+
+	/**
+	 * Wrap a boolean predicate into a requirement instance.
+	 *
+	 * @param predicate The boolean predicate to wrap
+	 *
+	 * @return A requirement instance performing the check represented by the given predicate
+	 *
+	 * @throws NullPointerException if predicate is {@code null}
+	 */
+	public static DoubleRequirement fromPredicate(DoublePredicate predicate) {
+		return fromPredicate(predicate, "requirement not met");
+	}
+
+	/**
+	 * Wrap a boolean predicate into a requirement instance, specifying a custom error message.
+	 *
+	 * @param predicate The boolean predicate to wrap
+	 * @param message   The error message to throw if the requirement is not met
+	 *
+	 * @return A requirement instance performing the check represented by the given predicate
+	 *
+	 * @throws NullPointerException     if predicate or message is {@code null}
+	 * @throws IllegalArgumentException if message is empty
+	 */
+	public static DoubleRequirement fromPredicate(DoublePredicate predicate, String message) {
+		Objects.requireNonNull(predicate);
+		Objects.requireNonNull(message);
+		if (message.isEmpty()) {
+			throw new IllegalArgumentException("cannot throw an empty message");
+		}
+		return value -> {
+			if (!predicate.test(value)) {
+				throw new IllegalArgumentException(message);
+			}
+		};
+	}
+
+	/**
+	 * Require that a value be in a specified range.
+	 *
+	 * @param min The lower boundary of the range
+	 * @param max The upper boundary of the range
+	 *
+	 * @return A requirement instance accepting only values inside the range described by the given boundaries,
+	 *         included
+	 *
+	 * @throws IllegalArgumentException if min is greater than max
+	 */
+	public static DoubleRequirement inRange(double min, double max) {
+		if (min > max) {
+			throw new IllegalArgumentException("invalid range: " + min + " > " + max);
+		}
+		return fromPredicate(v -> min <= v && v <= max, "value must be between " + min + " and " + max + " inclusive");
+	}
+}
@@ -0,0 +1,174 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A requirement that each element of a collection, or each key or value of a map, meet a given requirement.
+ *
+ * The elements are checked in iteration order. Above a threshold, they are instead copied into an array whose slices
+ * are scanned in parallel on the common fork-join pool; the tasks share the lowest index of a rejected element found
+ * so far, and stop scanning past it. The element at that index, which is the first rejected one in iteration order,
+ * is then checked again to report the exception of the requirement: the failure reported does not depend on the
+ * scheduling of the tasks. The slices are scanned with the same method of the requirement as the sequential path
+ * uses, check or test, so that both paths accept the same values even if the two methods of the requirement
+ * disagree.
+ *
+ * Null elements, which requirements never receive, are rejected the same way in both cases.
+ *
+ * @param <C> The type of the values checked: collections or maps
+ */
+final class ElementsRequirement<C> implements Requirement<C> {
+
+	/* The least number of elements tested by a single task */
+	private static final int MIN_SLICE_SIZE = 1024;
+	/* The number of slices per worker thread, so that a slow slice does not keep the others idle */
+	private static final int SLICES_PER_THREAD = 4;
+
+	private final Function<? super C, ? extends Collection<?>> elements;
+	private final Requirement<Object> requirement;
+	private final int parallelThreshold;
+	/* The name of the elements in the messages: element, key or value */
+	private final String label;
+
+
+	/**
+	 * Create a requirement on the elements extracted from the values checked.
+	 *
+	 * @param elements          The extraction of the elements of a value
+	 * @param requirement       The requirement that each element must meet
+	 * @param parallelThreshold The number of elements from which they are checked in parallel
+	 * @param label             The name of the elements, in the messages
+	 *
+	 * @throws NullPointerException     if requirement is {@code null}
+	 * @throws IllegalArgumentException if parallelThreshold is negative
+	 */
+	@SuppressWarnings("unchecked")
+	ElementsRequirement(Function<? super C, ? extends Collection<?>> elements, Requirement<?> requirement,
+	                    int parallelThreshold, String label) {
+		if (parallelThreshold < 0) {
+			throw new IllegalArgumentException("the parallel threshold cannot be negative");
+		}
+		this.elements = elements;
+		this.requirement = (Requirement<Object>) Objects.requireNonNull(requirement);
+		this.parallelThreshold = parallelThreshold;
+		this.label = label;
+	}
+
+	@Override
+	public void check(C value) {
+		Collection<?> collection = elements.apply(value);
+		if (collection.size() < parallelThreshold) {
+			int index = 0;
+			for (Object element : collection) {
+				check(element, index++);
+			}
+			return;
+		}
+		Object[] array = collection.toArray();
+		int index = firstRejected(array, this::passesCheck);
+		if (index < array.length) {
+			check(array[index], index);
+			/* Only reached if the check of the requirement is not consistent with itself */
+			throw new IllegalArgumentException(label + " at index " + index + " is rejected");
+		}
+	}
+
+	@Override
+	public boolean test(C value) {
+		Collection<?> collection = elements.apply(value);
+		if (collection.size() < parallelThreshold) {
+			for (Object element : collection) {
+				if (!accepts(element)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		Object[] array = collection.toArray();
+		return firstRejected(array, this::accepts) == array.length;
+	}
+
+	private boolean accepts(Object element) {
+		return element != null && requirement.test(element);
+	}
+
+	private boolean passesCheck(Object element) {
+		if (element == null) {
+			return false;
+		}
+		try {
+			requirement.check(element);
+			return true;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	private void check(Object element, int index) {
+		if (element == null) {
+			throw new IllegalArgumentException(label + " at index " + index + " is null");
+		}
+		try {
+			requirement.check(element);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException(label + " at index " + index + ": " + e.getMessage(), e);
+		}
+	}
+
+	/* Return the index of the first element of the array rejected by the given method of the requirement, or the
+	 * array length if none */
+	private int firstRejected(Object[] array, Predicate<Object> accepted) {
+		AtomicInteger first = new AtomicInteger(array.length);
+		int parallelism = ForkJoinPool.getCommonPoolParallelism();
+		int sliceSize = Math.max(MIN_SLICE_SIZE, array.length / (SLICES_PER_THREAD * parallelism));
+		ForkJoinPool.commonPool().invoke(new Scan(array, 0, array.length, sliceSize, accepted, first));
+		return first.get();
+	}
+
+	/* The scan of a range of elements, split in halves down to the slice size */
+	private final class Scan extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Object[] array;
+		private final int from;
+		private final int to;
+		private final int sliceSize;
+		private final Predicate<Object> accepted;
+		private final AtomicInteger first;
+
+		Scan(Object[] array, int from, int to, int sliceSize, Predicate<Object> accepted, AtomicInteger first) {
+			this.array = array;
+			this.from = from;
+			this.to = to;
+			this.sliceSize = sliceSize;
+			this.accepted = accepted;
+			this.first = first;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > sliceSize) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new Scan(array, from, middle, sliceSize, accepted, first),
+				          new Scan(array, middle, to, sliceSize, accepted, first));
+				return;
+			}
+			/* The elements past a rejected one cannot be the first rejected */
+			for (int i = from; i < to && i < first.get(); ++i) {
+				if (!accepted.test(array[i])) {
+					first.accumulateAndGet(i, Math::min);
+					return;
+				}
+			}
+		}
+	}
+}
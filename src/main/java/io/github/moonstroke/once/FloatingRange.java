@@ -0,0 +1,99 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+/**
+ * A requirement that a floating-point number of a given type be in a range, described by its bounds so that it can be
+ * combined with others. NaN is never in the range.
+ *
+ * @param <N> The type of the numbers checked
+ */
+final class FloatingRange<N extends Number> implements Requirement<N> {
+
+	private final Class<N> type;
+	private final double min;
+	private final double max;
+
+
+	/**
+	 * Create a range requirement of given bounds.
+	 *
+	 * @param type The type of the numbers checked, either {@code Float} or {@code Double}
+	 * @param min  The lower boundary of the range, included
+	 * @param max  The upper boundary of the range, included
+	 *
+	 * @throws IllegalArgumentException if min is greater than max
+	 */
+	FloatingRange(Class<N> type, double min, double max) {
+		if (min > max) {
+			throw new IllegalArgumentException("invalid range: " + format(type, min) + " > " + format(type, max));
+		}
+		this.type = type;
+		this.min = min;
+		this.max = max;
+	}
+
+	/* Format a bound as a number of the given type, so that a float bound is not written with the digits of its
+	 * double conversion */
+	private static String format(Class<?> type, double bound) {
+		return type == Float.class ? Float.toString((float) bound) : Double.toString(bound);
+	}
+
+	Class<N> type() {
+		return type;
+	}
+
+	double min() {
+		return min;
+	}
+
+	double max() {
+		return max;
+	}
+
+	/**
+	 * Return a range requirement of the same type, with the given bounds.
+	 *
+	 * @param min The lower boundary of the range, included
+	 * @param max The upper boundary of the range, included
+	 *
+	 * @return A requirement instance on the same type as this one
+	 *
+	 * @throws IllegalArgumentException if min is greater than max
+	 */
+	FloatingRange<N> withBounds(double min, double max) {
+		return new FloatingRange<>(type, min, max);
+	}
+
+	@Override
+	public void check(N value) {
+		if (!test(value)) {
+			throw new IllegalArgumentException(toString());
+		}
+	}
+
+	@Override
+	public boolean test(N value) {
+		double v = value.doubleValue();
+		return min <= v && v <= max;
+	}
+
+	@Override
+	public String toString() {
+		return "value must be between " + format(type, min) + " and " + format(type, max) + " inclusive";
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * type.hashCode() + Double.hashCode(min)) + Double.hashCode(max);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof FloatingRange)) {
+			return false;
+		}
+		FloatingRange<?> other = (FloatingRange<?>) o;
+		return type == other.type && Double.compare(min, other.min) == 0 && Double.compare(max, other.max) == 0;
+	}
+}
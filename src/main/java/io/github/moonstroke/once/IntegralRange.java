@@ -0,0 +1,94 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+/**
+ * A requirement that an integral number of a given type be in a range, described by its bounds so that it can be
+ * combined with others.
+ *
+ * @param <N> The type of the numbers checked
+ */
+final class IntegralRange<N extends Number> implements Requirement<N> {
+
+	private final Class<N> type;
+	private final long min;
+	private final long max;
+
+
+	/**
+	 * Create a range requirement of given bounds.
+	 *
+	 * @param type The type of the numbers checked, one of {@code Byte}, {@code Short}, {@code Integer} and
+	 *             {@code Long}
+	 * @param min  The lower boundary of the range, included
+	 * @param max  The upper boundary of the range, included
+	 *
+	 * @throws IllegalArgumentException if min is greater than max
+	 */
+	IntegralRange(Class<N> type, long min, long max) {
+		if (min > max) {
+			throw new IllegalArgumentException("invalid range: " + min + " > " + max);
+		}
+		this.type = type;
+		this.min = min;
+		this.max = max;
+	}
+
+	Class<N> type() {
+		return type;
+	}
+
+	long min() {
+		return min;
+	}
+
+	long max() {
+		return max;
+	}
+
+	/**
+	 * Return a range requirement of the same type, with the given bounds.
+	 *
+	 * @param min The lower boundary of the range, included
+	 * @param max The upper boundary of the range, included
+	 *
+	 * @return A requirement instance on the same type as this one
+	 *
+	 * @throws IllegalArgumentException if min is greater than max
+	 */
+	IntegralRange<N> withBounds(long min, long max) {
+		return new IntegralRange<>(type, min, max);
+	}
+
+	@Override
+	public void check(N value) {
+		if (!test(value)) {
+			throw new IllegalArgumentException(toString());
+		}
+	}
+
+	@Override
+	public boolean test(N value) {
+		long v = value.longValue();
+		return min <= v && v <= max;
+	}
+
+	@Override
+	public String toString() {
+		return "value must be between " + min + " and " + max + " inclusive";
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * type.hashCode() + Long.hashCode(min)) + Long.hashCode(max);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof IntegralRange)) {
+			return false;
+		}
+		IntegralRange<?> other = (IntegralRange<?>) o;
+		return type == other.type && min == other.min && max == other.max;
+	}
+}
@@ -0,0 +1,124 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.util.Objects;
+import java.util.function.LongPredicate;
+
+/**
+ * An additional requirement that a long integer must meet when it is being set, checked without boxing.
+ *
+ * This is the {@code long}-specialized counterpart of {@link Requirement}.
+ *
+ * The interface defines the primitive counterparts of the numeric requirements of {@link Requirements}, and adapters
+ * from and to requirements on boxed values.
+ */
+@FunctionalInterface
+public interface LongRequirement {
+
+	/**
+	 * Perform the check that this requirement represents.
+	 *
+	 * @param value The value to check
+	 *
+	 * @throws IllegalArgumentException if the value does not meet the requirement
+	 */
+	void check(long value) throws IllegalArgumentException;
+
+	/**
+	 * Require that a value be nonzero.
+	 */
+	public static final LongRequirement NOT_ZERO = fromPredicate(v -> v != 0, "value cannot be zero");
+
+	/**
+	 * Require that a value be non-negative (i.e. positive or zero).
+	 */
+	public static final LongRequirement NOT_NEGATIVE = fromPredicate(v -> v >= 0, "value must not be negative");
+
+	/**
+	 * Require that a value be positive (not negative, nor zero). This requirement is a shortcut for specifying both
+	 * {@link #NOT_NEGATIVE} and {@link #NOT_ZERO}.
+	 */
+	public static final LongRequirement POSITIVE = fromPredicate(v -> v > 0, "value must be positive");
+
+
+	/**
+	 * Adapt this requirement to check boxed values.
+	 *
+	 * @return A requirement instance checking the unboxed value against this requirement
+	 */
+	default Requirement<Long> boxed() {
+		return this::check;
+	}
+
+	/**
+	 * Adapt a requirement on boxed values to check primitive values. The adapted requirement boxes each value it
+	 * checks.
+	 *
+	 * @param requirement The requirement to adapt
+	 *
+	 * @return A requirement instance checking the boxed value against the given requirement
+	 *
+	 * @throws NullPointerException if requirement is {@code null}
+	 */
+	public static LongRequirement fromRequirement(Requirement<? super Long> requirement) {
+		Objects.requireNonNull(requirement);
+		return requirement::check;
+	}
+
+
+	/**
+	 * Wrap a boolean predicate into a requirement instance.
+	 *
+	 * @param predicate The boolean predicate to wrap
+	 *
+	 * @return A requirement instance performing the check represented by the given predicate
+	 *
+	 * @throws NullPointerException if predicate is {@code null}
+	 */
+	public static LongRequirement fromPredicate(LongPredicate predicate) {
+		return fromPredicate(predicate, "requirement not met");
+	}
+
+	/**
+	 * Wrap a boolean predicate into a requirement instance, specifying a custom error message.
+	 *
+	 * @param predicate The boolean predicate to wrap
+	 * @param message   The error message to throw if the requirement is not met
+	 *
+	 * @return A requirement instance performing the check represented by the given predicate
+	 *
+	 * @throws NullPointerException     if predicate or message is {@code null}
+	 * @throws IllegalArgumentException if message is empty
+	 */
+	public static LongRequirement fromPredicate(LongPredicate predicate, String message) {
+		Objects.requireNonNull(predicate);
+		Objects.requireNonNull(message);
+		if (message.isEmpty()) {
+			throw new IllegalArgumentException("cannot throw an empty message");
+		}
+		return value -> {
+			if (!predicate.test(value)) {
+				throw new IllegalArgumentException(message);
+			}
+		};
+	}
+
+	/**
+	 * Require that a value be in a specified range.
+	 *
+	 * @param min The lower boundary of the range
+	 * @param max The upper boundary of the range
+	 *
+	 * @return A requirement instance accepting only values inside the range described by the given boundaries,
+	 *         included
+	 *
+	 * @throws IllegalArgumentException if min is greater than max
+	 */
+	public static LongRequirement inRange(long min, long max) {
+		if (min > max) {
+			throw new IllegalArgumentException("invalid range: " + min + " > " + max);
+		}
+		return fromPredicate(v -> min <= v && v <= max, "value must be between " + min + " and " + max + " inclusive");
+	}
+}
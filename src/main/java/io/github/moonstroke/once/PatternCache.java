@@ -0,0 +1,113 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * A bounded, concurrent cache of compiled regular expressions, by source string.
+ *
+ * Lookups are lock-free. When the cache exceeds its capacity, entries are evicted by the clock algorithm, which
+ * approximates least-recently-used eviction: each lookup marks the entry found as referenced, and a hand sweeps the
+ * entries in circle, clearing the marks it meets and evicting the first unmarked entry. An entry looked up again
+ * before the hand comes back to it survives.
+ */
+final class PatternCache {
+
+	private final int capacity;
+	private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	/* The position of the clock hand, only used by evictions */
+	private Iterator<Entry> hand;
+
+
+	/**
+	 * Create an empty cache.
+	 *
+	 * @param capacity The maximum number of patterns kept
+	 */
+	PatternCache(int capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Retrieve the compiled form of the given regular expression, compiling it if it is not cached.
+	 *
+	 * @param regex The regular expression
+	 *
+	 * @return the pattern compiled from regex
+	 *
+	 * @throws java.util.regex.PatternSyntaxException if regex does not represent a valid regular expression
+	 */
+	Pattern get(String regex) {
+		Entry entry = entries.get(regex);
+		if (entry != null) {
+			entry.referenced = true;
+			hits.increment();
+			return entry.pattern;
+		}
+		misses.increment();
+		/* Compiled outside of the map, so that a slow compilation does not block the other lookups. Concurrent misses
+		 * may compile the same expression twice, in which case only one result is kept */
+		Pattern pattern = Pattern.compile(regex);
+		entry = entries.putIfAbsent(regex, new Entry(pattern));
+		if (entry != null) {
+			return entry.pattern;
+		}
+		if (entries.size() > capacity) {
+			evict();
+		}
+		return pattern;
+	}
+
+	/* Remove entries until the capacity is no longer exceeded. Evictions are serialized, so that concurrent insertions
+	 * do not evict more entries than needed */
+	private synchronized void evict() {
+		while (entries.size() > capacity) {
+			if (hand == null || !hand.hasNext()) {
+				/* The iterators of the map tolerate concurrent updates: the hand may keep its position across them */
+				hand = entries.values().iterator();
+			}
+			Entry entry = hand.next();
+			if (entry.referenced) {
+				entry.referenced = false;
+			} else {
+				hand.remove();
+			}
+		}
+	}
+
+	/**
+	 * Return the number of lookups that found their pattern in the cache.
+	 *
+	 * @return the number of cache hits
+	 */
+	long hitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Return the number of lookups that compiled their pattern.
+	 *
+	 * @return the number of cache misses
+	 */
+	long missCount() {
+		return misses.sum();
+	}
+
+	private static final class Entry {
+
+		final Pattern pattern;
+		/* Set by lookups, cleared by evictions. Races only delay an eviction */
+		volatile boolean referenced;
+
+		Entry(Pattern pattern) {
+			this.pattern = pattern;
+		}
+	}
+}
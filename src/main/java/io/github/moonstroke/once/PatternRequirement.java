@@ -0,0 +1,76 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A requirement that a character sequence match a regular expression.
+ *
+ * The patterns of a simple form, such as {@code [A-Za-z0-9_]+} or {@code [A-Z]{3}-\d{4}}, are checked by a
+ * {@link PatternScanner} in a single pass over the sequence. Otherwise, a matcher is kept between checks, so that a
+ * check does not allocate one, unless another thread is using it at the same time.
+ */
+final class PatternRequirement implements Requirement<CharSequence> {
+
+	private final Pattern pattern;
+	/* The single-pass equivalent of the pattern, or null if it is not of a simple form */
+	private final PatternScanner scanner;
+	/* A matcher available for reuse, or null if it is in use. Reset on empty input when released, so that it does not
+	 * retain the last sequence checked */
+	private final AtomicReference<Matcher> idleMatcher = new AtomicReference<>();
+
+
+	PatternRequirement(Pattern pattern) {
+		this.pattern = pattern;
+		scanner = PatternScanner.compile(pattern);
+	}
+
+	@Override
+	public void check(CharSequence value) {
+		if (!test(value)) {
+			throw new IllegalArgumentException(toString());
+		}
+	}
+
+	@Override
+	public boolean test(CharSequence value) {
+		if (scanner != null) {
+			int result = scanner.match(value);
+			if (result != PatternScanner.UNDECIDED) {
+				return result == PatternScanner.MATCH;
+			}
+		}
+		Matcher matcher = idleMatcher.getAndSet(null);
+		if (matcher == null) {
+			matcher = pattern.matcher(value);
+		} else {
+			matcher.reset(value);
+		}
+		boolean matches = matcher.matches();
+		matcher.reset("");
+		idleMatcher.set(matcher);
+		return matches;
+	}
+
+	@Override
+	public String toString() {
+		return "value must match the pattern " + pattern;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * pattern.pattern().hashCode() + pattern.flags();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof PatternRequirement)) {
+			return false;
+		}
+		Pattern other = ((PatternRequirement) o).pattern;
+		return pattern.pattern().equals(other.pattern()) && pattern.flags() == other.flags();
+	}
+}
@@ -0,0 +1,446 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A single-pass matcher for the regular expressions of a simple form: a sequence of literal characters, character
+ * classes and the dot, each optionally quantified, such as {@code [A-Za-z0-9_]+}, {@code \d+}, {@code ID-[0-9]{6}} or
+ * {@code [A-Z]{3}-\d{4}}.
+ *
+ * Each element of the sequence consumes as many characters as it can, without ever backtracking. This is only
+ * equivalent to the regular expression when giving a character back to a previous element can never help: the
+ * expression is therefore only accepted if each element of variable length is either the last one, or followed by an
+ * element that requires at least one character and accepts none of the characters it accepts. Other expressions, as
+ * well as any group, alternation, anchor, back-reference, possessive quantifier or flag, are left to {@link Pattern}.
+ *
+ * The elements match code points, while the scanner reads chars: it gives up on the inputs that contain surrogates.
+ */
+final class PatternScanner {
+
+	/** The result of {@link #match(CharSequence)} when the input matches */
+	static final int MATCH = 1;
+	/** The result of {@link #match(CharSequence)} when the input does not match */
+	static final int NO_MATCH = 0;
+	/** The result of {@link #match(CharSequence)} when the input must be matched by the pattern instead */
+	static final int UNDECIDED = -1;
+
+	private static final int UNBOUNDED = Integer.MAX_VALUE;
+
+	private static final CharSet DIGITS = CharSet.range('0', '9');
+	private static final CharSet WORD = DIGITS.union(CharSet.range('a', 'z')).union(CharSet.range('A', 'Z'))
+	                                          .union(CharSet.range('_', '_'));
+	private static final CharSet SPACES = CharSet.range('\t', '\r').union(CharSet.range(' ', ' '));
+	/* The dot does not match the line terminators, unless in DOTALL mode */
+	private static final CharSet DOT = CharSet.range('\n', '\n').union(CharSet.range('\r', '\r'))
+	                                          .union(CharSet.range('\u0085', '\u0085'))
+	                                          .union(CharSet.range('\u2028', '\u2029')).complement();
+
+	private final CharSet[] sets;
+	private final int[] mins;
+	private final int[] maxs;
+
+
+	private PatternScanner(CharSet[] sets, int[] mins, int[] maxs) {
+		this.sets = sets;
+		this.mins = mins;
+		this.maxs = maxs;
+	}
+
+	/**
+	 * Compile a scanner equivalent to the given pattern, if it has a simple form.
+	 *
+	 * @param pattern The pattern
+	 *
+	 * @return a scanner matching the same inputs as the pattern, or {@code null} if the pattern does not have a form
+	 *         supported by the scanners
+	 */
+	static PatternScanner compile(Pattern pattern) {
+		if (pattern.flags() != 0) {
+			return null;
+		}
+		return new Parser(pattern.pattern()).parse();
+	}
+
+	/**
+	 * Indicate whether the whole input matches the pattern.
+	 *
+	 * @param input The character sequence to match
+	 *
+	 * @return {@link #MATCH}, {@link #NO_MATCH}, or {@link #UNDECIDED} if the input contains surrogates
+	 */
+	int match(CharSequence input) {
+		int length = input.length();
+		int pos = 0;
+		for (int i = 0; i < sets.length; ++i) {
+			CharSet set = sets[i];
+			int max = maxs[i];
+			int count = 0;
+			while (count < max && pos < length) {
+				char c = input.charAt(pos);
+				if (Character.isSurrogate(c)) {
+					return UNDECIDED;
+				}
+				if (!set.contains(c)) {
+					break;
+				}
+				++pos;
+				++count;
+			}
+			if (count < mins[i]) {
+				return NO_MATCH;
+			}
+		}
+		return pos == length ? MATCH : NO_MATCH;
+	}
+
+	/* The parser of the source of a pattern into the elements of a scanner */
+	private static final class Parser {
+
+		private final String source;
+		private int pos;
+		private final List<CharSet> sets = new ArrayList<>();
+		private final List<int[]> bounds = new ArrayList<>();
+
+		Parser(String source) {
+			this.source = source;
+		}
+
+		/* Return null as soon as the source turns out not to be supported */
+		PatternScanner parse() {
+			while (pos < source.length()) {
+				CharSet set = parseElement();
+				if (set == null) {
+					return null;
+				}
+				int[] quantifier = parseQuantifier();
+				if (quantifier == null) {
+					return null;
+				}
+				sets.add(set);
+				bounds.add(quantifier);
+			}
+			int count = sets.size();
+			for (int i = 0; i < count - 1; ++i) {
+				boolean variable = bounds.get(i)[0] != bounds.get(i)[1];
+				if (variable && (bounds.get(i + 1)[0] == 0 || sets.get(i).intersects(sets.get(i + 1)))) {
+					/* A backtracking could be needed */
+					return null;
+				}
+			}
+			int[] mins = new int[count];
+			int[] maxs = new int[count];
+			for (int i = 0; i < count; ++i) {
+				mins[i] = bounds.get(i)[0];
+				maxs[i] = bounds.get(i)[1];
+			}
+			return new PatternScanner(sets.toArray(new CharSet[0]), mins, maxs);
+		}
+
+		private CharSet parseElement() {
+			char c = source.charAt(pos++);
+			switch (c) {
+			case '[':
+				return parseClass();
+			case '.':
+				return DOT;
+			case '\\':
+				return pos < source.length() ? parseEscape(false) : null;
+			case '(':
+			case ')':
+			case '|':
+			case '^':
+			case '$':
+			case '*':
+			case '+':
+			case '?':
+			case '{':
+				return null;
+			default:
+				return Character.isSurrogate(c) ? null : CharSet.range(c, c);
+			}
+		}
+
+		/* Parse the escape sequence after a backslash, in or out of a character class */
+		private CharSet parseEscape(boolean inClass) {
+			char c = source.charAt(pos++);
+			switch (c) {
+			case 'd':
+				return DIGITS;
+			case 'D':
+				return DIGITS.complement();
+			case 'w':
+				return WORD;
+			case 'W':
+				return WORD.complement();
+			case 's':
+				return SPACES;
+			case 'S':
+				return SPACES.complement();
+			case 't':
+				return CharSet.range('\t', '\t');
+			case 'n':
+				return CharSet.range('\n', '\n');
+			case 'r':
+				return CharSet.range('\r', '\r');
+			case 'f':
+				return CharSet.range('\f', '\f');
+			default:
+				/* Other letters and digits are special, unlike the other characters that can be escaped */
+				if (c < 128 && !Character.isLetterOrDigit(c)) {
+					return CharSet.range(c, c);
+				}
+				return null;
+			}
+		}
+
+		/* Parse a character class, whose opening bracket has been read */
+		private CharSet parseClass() {
+			boolean negated = pos < source.length() && source.charAt(pos) == '^';
+			if (negated) {
+				++pos;
+			}
+			if (pos < source.length() && source.charAt(pos) == ']') {
+				/* Not a literal in all the regular expression dialects: leave it to Pattern */
+				return null;
+			}
+			CharSet set = CharSet.EMPTY;
+			while (pos < source.length()) {
+				char c = source.charAt(pos++);
+				if (c == ']') {
+					return negated ? set.complement() : set;
+				}
+				if (c == '[' || c == '&' || Character.isSurrogate(c)) {
+					/* Union or intersection of classes */
+					return null;
+				}
+				CharSet element;
+				char low = c;
+				if (c == '\\') {
+					if (pos == source.length()) {
+						return null;
+					}
+					element = parseEscape(true);
+					if (element == null) {
+						return null;
+					}
+					if (!element.isSingleChar()) {
+						set = set.union(element);
+						continue;
+					}
+					low = element.singleChar();
+				}
+				if (pos + 1 < source.length() && source.charAt(pos) == '-' && source.charAt(pos + 1) != ']') {
+					++pos;
+					char high = source.charAt(pos++);
+					if (high == '\\' || high == '[' || Character.isSurrogate(high) || high < low) {
+						return null;
+					}
+					set = set.union(CharSet.range(low, high));
+				} else {
+					set = set.union(CharSet.range(low, low));
+				}
+			}
+			/* Unterminated class */
+			return null;
+		}
+
+		/* Parse the quantifier of the element just parsed, returning its bounds, {1, 1} if there is none, or null if
+		 * it is not supported */
+		private int[] parseQuantifier() {
+			if (pos == source.length()) {
+				return new int[] {1, 1};
+			}
+			int[] quantifier;
+			switch (source.charAt(pos)) {
+			case '*':
+				++pos;
+				quantifier = new int[] {0, UNBOUNDED};
+				break;
+			case '+':
+				++pos;
+				quantifier = new int[] {1, UNBOUNDED};
+				break;
+			case '?':
+				++pos;
+				quantifier = new int[] {0, 1};
+				break;
+			case '{':
+				++pos;
+				quantifier = parseBounds();
+				if (quantifier == null) {
+					return null;
+				}
+				break;
+			default:
+				return new int[] {1, 1};
+			}
+			if (pos < source.length()) {
+				char c = source.charAt(pos);
+				if (c == '?') {
+					/* A reluctant quantifier matches the same whole inputs as a greedy one */
+					++pos;
+				} else if (c == '+') {
+					/* A possessive quantifier does not */
+					return null;
+				}
+			}
+			return quantifier;
+		}
+
+		/* Parse the bounds of a {n}, {n,} or {n,m} quantifier, whose opening brace has been read */
+		private int[] parseBounds() {
+			int min = parseNumber();
+			if (min < 0 || pos == source.length()) {
+				return null;
+			}
+			int max = min;
+			if (source.charAt(pos) == ',') {
+				++pos;
+				if (pos < source.length() && source.charAt(pos) == '}') {
+					max = UNBOUNDED;
+				} else {
+					max = parseNumber();
+					if (max < min) {
+						return null;
+					}
+				}
+			}
+			if (pos == source.length() || source.charAt(pos) != '}') {
+				return null;
+			}
+			++pos;
+			return new int[] {min, max};
+		}
+
+		/* Parse a decimal number, returning -1 if there is none or if it is too large */
+		private int parseNumber() {
+			int start = pos;
+			long value = 0;
+			while (pos < source.length() && source.charAt(pos) >= '0' && source.charAt(pos) <= '9') {
+				value = 10 * value + source.charAt(pos++) - '0';
+				if (value >= UNBOUNDED) {
+					return -1;
+				}
+			}
+			return pos == start ? -1 : (int) value;
+		}
+	}
+
+	/* An immutable set of chars, as sorted, disjoint and non-adjacent ranges. The ASCII chars are also held in a bit
+	 * mask, for the common case */
+	private static final class CharSet {
+
+		static final CharSet EMPTY = new CharSet(new char[0]);
+
+		/* The bounds of the ranges, included: ranges[2 * i] to ranges[2 * i + 1] */
+		private final char[] ranges;
+		private final long low;
+		private final long high;
+
+		private CharSet(char[] ranges) {
+			this.ranges = ranges;
+			long l = 0;
+			long h = 0;
+			for (int i = 0; i < ranges.length; i += 2) {
+				for (int c = ranges[i]; c <= ranges[i + 1] && c < 128; ++c) {
+					if (c < 64) {
+						l |= 1L << c;
+					} else {
+						h |= 1L << (c - 64);
+					}
+				}
+			}
+			low = l;
+			high = h;
+		}
+
+		static CharSet range(char first, char last) {
+			return new CharSet(new char[] {first, last});
+		}
+
+		boolean contains(char c) {
+			if (c < 64) {
+				return (low & 1L << c) != 0;
+			}
+			if (c < 128) {
+				return (high & 1L << (c - 64)) != 0;
+			}
+			int i = Arrays.binarySearch(ranges, c);
+			/* Found: c is a bound. Otherwise, c is inside a range if it is inserted after the start of a range */
+			return i >= 0 || (-i - 1) % 2 == 1;
+		}
+
+		boolean isSingleChar() {
+			return ranges.length == 2 && ranges[0] == ranges[1];
+		}
+
+		char singleChar() {
+			return ranges[0];
+		}
+
+		CharSet union(CharSet other) {
+			char[] merged = new char[ranges.length + other.ranges.length];
+			int n = 0;
+			int i = 0;
+			int j = 0;
+			while (i < ranges.length || j < other.ranges.length) {
+				char first;
+				char last;
+				if (j == other.ranges.length || i < ranges.length && ranges[i] <= other.ranges[j]) {
+					first = ranges[i];
+					last = ranges[i + 1];
+					i += 2;
+				} else {
+					first = other.ranges[j];
+					last = other.ranges[j + 1];
+					j += 2;
+				}
+				if (n > 0 && first <= merged[n - 1] + 1) {
+					merged[n - 1] = (char) Math.max(merged[n - 1], last);
+				} else {
+					merged[n++] = first;
+					merged[n++] = last;
+				}
+			}
+			return new CharSet(Arrays.copyOf(merged, n));
+		}
+
+		CharSet complement() {
+			char[] complement = new char[ranges.length + 2];
+			int n = 0;
+			int next = Character.MIN_VALUE;
+			for (int i = 0; i < ranges.length; i += 2) {
+				if (ranges[i] > next) {
+					complement[n++] = (char) next;
+					complement[n++] = (char) (ranges[i] - 1);
+				}
+				next = ranges[i + 1] + 1;
+			}
+			if (next <= Character.MAX_VALUE) {
+				complement[n++] = (char) next;
+				complement[n++] = Character.MAX_VALUE;
+			}
+			return new CharSet(Arrays.copyOf(complement, n));
+		}
+
+		boolean intersects(CharSet other) {
+			int i = 0;
+			int j = 0;
+			while (i < ranges.length && j < other.ranges.length) {
+				if (ranges[i + 1] < other.ranges[j]) {
+					i += 2;
+				} else if (other.ranges[j + 1] < ranges[i]) {
+					j += 2;
+				} else {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
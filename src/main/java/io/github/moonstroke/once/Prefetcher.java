@@ -0,0 +1,188 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * The eager computation, in the background, of stable fields otherwise computed on first access.
+ *
+ * Each field is registered with the supplier that its readers pass to {@link StableField#orElseSet(Supplier)}, and
+ * computed with the same method once the prefetch is started, in the order of registration. A reader that needs a
+ * field before its prefetch is done does not compute it a second time: if the prefetch is computing the field, the
+ * reader waits for the value; if it has not started yet, the reader computes the field itself and the prefetch skips
+ * it. Either way, the supplier of a field is called once, unless it fails.
+ *
+ * By default, the fields are computed one after the other by a daemon thread of minimal priority, which ends once
+ * they are all computed, so as to leave the processors to the requests being served.
+ *
+ * A prefetcher is thread-safe: a field registered while the prefetch is being started is either part of it, or
+ * rejected.
+ */
+public class Prefetcher {
+
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+	/* The executor given at construction, or null for a thread of the prefetch itself */
+	private final Executor executor;
+	/* Guarded by the instance, along with the started flag: the prefetch only runs a copy, taken when started */
+	private final List<Prefetch<?>> prefetches = new ArrayList<>();
+	private boolean started;
+
+
+	/**
+	 * Create a prefetcher computing the fields in a background thread of minimal priority.
+	 */
+	public Prefetcher() {
+		executor = null;
+	}
+
+	/**
+	 * Create a prefetcher computing the fields on the given executor.
+	 *
+	 * @param executor The executor computing the fields, each in a task of its own
+	 *
+	 * @throws NullPointerException if executor is {@code null}
+	 */
+	public Prefetcher(Executor executor) {
+		this.executor = Objects.requireNonNull(executor);
+	}
+
+	/**
+	 * Register a field to compute.
+	 *
+	 * @param <T>      The type of the field
+	 * @param field    The field to compute
+	 * @param supplier The function computing the value of the field, as passed by its readers to
+	 *                 {@link StableField#orElseSet(Supplier)}
+	 *
+	 * @return this prefetcher
+	 *
+	 * @throws NullPointerException  if any parameter is {@code null}
+	 * @throws IllegalStateException if the prefetch has been started
+	 */
+	public synchronized <T> Prefetcher add(StableField<T> field, Supplier<? extends T> supplier) {
+		Objects.requireNonNull(field);
+		Objects.requireNonNull(supplier);
+		if (started) {
+			throw new IllegalStateException("the prefetch has already been started");
+		}
+		prefetches.add(new Prefetch<>(field, supplier));
+		return this;
+	}
+
+	/**
+	 * Start computing the registered fields, in the background.
+	 *
+	 * The future returned is completed once every field is set, or has failed to be computed. A field whose supplier
+	 * fails is left unset, so that its next reader computes it again; the future is then completed exceptionally
+	 * with an {@link IllegalStateException}, to which the failures are attached as suppressed exceptions, in the order
+	 * of registration.
+	 *
+	 * @return a future completed when the prefetch ends
+	 *
+	 * @throws IllegalStateException if the prefetch has already been started
+	 */
+	public CompletableFuture<Void> start() {
+		Prefetch<?>[] registered;
+		synchronized (this) {
+			if (started) {
+				throw new IllegalStateException("the prefetch has already been started");
+			}
+			started = true;
+			registered = prefetches.toArray(new Prefetch<?>[0]);
+		}
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		int count = registered.length;
+		AtomicReferenceArray<RuntimeException> failures = new AtomicReferenceArray<>(count);
+		AtomicInteger remaining = new AtomicInteger(count);
+		if (count == 0) {
+			result.complete(null);
+			return result;
+		}
+		ExecutorService thread = executor == null ? Executors.newSingleThreadExecutor(Prefetcher::newThread) : null;
+		Executor target = executor == null ? thread : executor;
+		for (int i = 0; i < count; ++i) {
+			int index = i;
+			Prefetch<?> prefetch = registered[i];
+			Runnable task = () -> {
+				try {
+					prefetch.run();
+				} catch (RuntimeException e) {
+					failures.set(index, e);
+				} finally {
+					if (remaining.decrementAndGet() == 0) {
+						complete(result, failures);
+					}
+				}
+			};
+			try {
+				target.execute(task);
+			} catch (RejectedExecutionException e) {
+				failures.set(index, e);
+				if (remaining.decrementAndGet() == 0) {
+					complete(result, failures);
+				}
+			}
+		}
+		if (thread != null) {
+			/* The tasks submitted are still run, after which the thread ends */
+			thread.shutdown();
+		}
+		return result;
+	}
+
+	private static Thread newThread(Runnable task) {
+		Thread thread = new Thread(task, "once-prefetch-" + THREAD_COUNT.incrementAndGet());
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		return thread;
+	}
+
+	private static void complete(CompletableFuture<Void> result, AtomicReferenceArray<RuntimeException> failures) {
+		IllegalStateException failure = null;
+		for (int i = 0; i < failures.length(); ++i) {
+			RuntimeException e = failures.get(i);
+			if (e != null) {
+				if (failure == null) {
+					failure = new IllegalStateException("the prefetch failed");
+				}
+				failure.addSuppressed(e);
+			}
+		}
+		if (failure == null) {
+			result.complete(null);
+		} else {
+			result.completeExceptionally(failure);
+		}
+	}
+
+	/* A registered field and its supplier */
+	private static final class Prefetch<T> {
+
+		final StableField<T> field;
+		final Supplier<? extends T> supplier;
+
+		Prefetch(StableField<T> field, Supplier<? extends T> supplier) {
+			this.field = field;
+			this.supplier = supplier;
+		}
+
+		void run() {
+			/* Set by a reader in the meantime: nothing left to do */
+			if (!field.isSet()) {
+				field.orElseSet(supplier);
+			}
+		}
+	}
+}
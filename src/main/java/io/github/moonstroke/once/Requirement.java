@@ -1,6 +1,8 @@
 package io.github.moonstroke.once;
 
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.StringJoiner;
 import java.util.function.Predicate;
 
 /**
@@ -20,6 +22,52 @@ public interface Requirement<T> {
 	 */
 	void check(T value) throws IllegalArgumentException;
 
+	/**
+	 * Indicate whether the given value meets this requirement, without throwing an exception if it does not.
+	 *
+	 * The default implementation calls {@link #check(Object)} and catches the exception it throws. Requirements created
+	 * by {@link #fromPredicate(Predicate, String)} and its overloads override it to only evaluate their predicate, so
+	 * that a rejection costs no more than an acceptance.
+	 *
+	 * @param value The value to check, never {@code null}
+	 *
+	 * @return {@code true} if the value meets the requirement
+	 */
+	default boolean test(T value) {
+		try {
+			check(value);
+			return true;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Combine this requirement with another one, that must both be met.
+	 *
+	 * @param other The other requirement, checked after this one
+	 *
+	 * @return A requirement instance equivalent to {@link #allOf(Requirement...) allOf(this, other)}
+	 *
+	 * @throws NullPointerException     if other is {@code null}
+	 * @throws IllegalArgumentException if the two requirements cannot both be met by any value
+	 */
+	default Requirement<T> and(Requirement<? super T> other) {
+		return allOf(this, other);
+	}
+
+	/**
+	 * Combine this requirement with another one, either of which must be met.
+	 *
+	 * @param other The other requirement, checked only if this one is not met
+	 *
+	 * @return A requirement instance equivalent to {@link #anyOf(Requirement...) anyOf(this, other)}
+	 *
+	 * @throws NullPointerException if other is {@code null}
+	 */
+	default Requirement<T> or(Requirement<? super T> other) {
+		return anyOf(this, other);
+	}
 
 	/**
 	 * Wrap a boolean predicate into a requirement instance.
@@ -48,14 +96,156 @@ public interface Requirement<T> {
 	 * @throws IllegalArgumentException if message is empty
 	 */
 	public static <U> Requirement<U> fromPredicate(Predicate<U> predicate, String message) {
+		return fromPredicate(predicate, message, true);
+	}
+
+	/**
+	 * Wrap a boolean predicate into a requirement instance, specifying a custom error message and whether the
+	 * exceptions thrown record their stack trace.
+	 *
+	 * Filling in the stack trace is the main cost of throwing an exception. A requirement that rejects many values, for
+	 * instance when validating untrusted input, can therefore throw exceptions without stack trace, whose cost is
+	 * limited to their allocation.
+	 *
+	 * @param <U>                The type of the value checked
+	 * @param predicate          The boolean predicate to wrap
+	 * @param message            The error message to throw if the requirement is not met
+	 * @param writableStackTrace Whether the exceptions thrown record their stack trace
+	 *
+	 * @return A requirement instance performing the check represented by the given predicate
+	 *
+	 * @throws NullPointerException     if predicate or message is {@code null}
+	 * @throws IllegalArgumentException if message is empty
+	 */
+	public static <U> Requirement<U> fromPredicate(Predicate<U> predicate, String message,
+	                                               boolean writableStackTrace) {
 		Objects.requireNonNull(predicate);
 		Objects.requireNonNull(message);
 		if (message.isEmpty()) {
 			throw new IllegalArgumentException("cannot throw an empty message");
 		}
-		return value -> {
-			if (!predicate.test(value)) {
-				throw new IllegalArgumentException(message);
+		return new Requirement<>() {
+
+			@Override
+			public void check(U value) {
+				if (!predicate.test(value)) {
+					throw writableStackTrace ? new IllegalArgumentException(message)
+					                         : new StacklessIllegalArgumentException(message);
+				}
+			}
+
+			@Override
+			public boolean test(U value) {
+				return predicate.test(value);
+			}
+		};
+	}
+
+	/**
+	 * Combine requirements that must all be met, in the given order.
+	 *
+	 * The requirements are simplified: among the built-in requirements of {@link Requirements}, the numeric ranges of
+	 * the same type are intersected, the sign requirements are folded together and into the ranges, and the
+	 * requirements implied by others are dropped, as are duplicates. A value rejected by the result may therefore be
+	 * reported with the message of a simplified requirement, rather than of the first given requirement that it does
+	 * not meet. Containers apply the same simplification to the requirements they are declared with.
+	 *
+	 * If the requirements include {@link Requirements#ADAPTIVE_ORDER}, the others are checked in an adaptive order
+	 * instead of the given one.
+	 *
+	 * @param <U>          The type of the value checked
+	 * @param requirements The requirements to combine
+	 *
+	 * @return A requirement instance met by the values that meet all the given requirements
+	 *
+	 * @throws NullPointerException     if requirements or any requirement is {@code null}
+	 * @throws IllegalArgumentException if the requirements cannot all be met by any value
+	 */
+	@SafeVarargs
+	@SuppressWarnings("unchecked")
+	public static <U> Requirement<U> allOf(Requirement<? super U>... requirements) {
+		Requirement<?>[] simplified = RequirementSimplifier.simplify(requirements);
+		if (simplified.length == 1) {
+			return (Requirement<U>) simplified[0];
+		}
+		if (Arrays.asList(requirements).contains(Requirements.ADAPTIVE_ORDER)) {
+			return new AdaptiveRequirement<>(simplified);
+		}
+		return new AllOf<>(simplified);
+	}
+
+	/**
+	 * Combine requirements at least one of which must be met. They are checked in the given order, until one is met.
+	 *
+	 * @param <U>          The type of the value checked
+	 * @param requirements The requirements to combine
+	 *
+	 * @return A requirement instance met by the values that meet any of the given requirements
+	 *
+	 * @throws NullPointerException     if requirements or any requirement is {@code null}
+	 * @throws IllegalArgumentException if no requirement is given
+	 */
+	@SafeVarargs
+	public static <U> Requirement<U> anyOf(Requirement<? super U>... requirements) {
+		if (requirements.length == 0) {
+			throw new IllegalArgumentException("cannot combine no requirement");
+		}
+		Requirement<? super U>[] alternatives = requirements.clone();
+		for (Requirement<? super U> r : alternatives) {
+			Objects.requireNonNull(r);
+		}
+		return new Requirement<>() {
+
+			@Override
+			public void check(U value) {
+				StringJoiner messages = new StringJoiner(", or ", "value must meet one of the requirements: ", "");
+				for (Requirement<? super U> r : alternatives) {
+					try {
+						r.check(value);
+						return;
+					} catch (IllegalArgumentException e) {
+						messages.add(String.valueOf(e.getMessage()));
+					}
+				}
+				throw new IllegalArgumentException(messages.toString());
+			}
+
+			@Override
+			public boolean test(U value) {
+				for (Requirement<? super U> r : alternatives) {
+					if (r.test(value)) {
+						return true;
+					}
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Negate a requirement.
+	 *
+	 * @param <U>         The type of the value checked
+	 * @param requirement The requirement to negate
+	 *
+	 * @return A requirement instance met by the values that do not meet the given requirement
+	 *
+	 * @throws NullPointerException if requirement is {@code null}
+	 */
+	public static <U> Requirement<U> not(Requirement<? super U> requirement) {
+		Objects.requireNonNull(requirement);
+		return new Requirement<>() {
+
+			@Override
+			public void check(U value) {
+				if (requirement.test(value)) {
+					throw new IllegalArgumentException("value must not meet the negated requirement");
+				}
+			}
+
+			@Override
+			public boolean test(U value) {
+				return !requirement.test(value);
 			}
 		};
 	}
@@ -0,0 +1,406 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The compiler of a sequence of requirements into a single one.
+ *
+ * Checking the requirements in a loop makes a single call site dispatch to every requirement class of the
+ * application: such a site quickly becomes megamorphic, and the JIT compiler then neither inlines the checks nor
+ * avoids the virtual dispatch. The requirements are therefore fused into an instance of a class generated for their
+ * sequence of classes, whose check and test methods call each requirement from a call site of their own. Each of
+ * these sites only ever sees a single class, and can be inlined; only the call to the fused requirement itself
+ * remains polymorphic.
+ *
+ * The generated classes are shared by all the sequences of requirements of the same classes, so their number is
+ * bounded by the code of the application, not by the number of requirement instances. It is also capped, in case the
+ * requirement classes themselves are generated: past the cap, or for too many requirements, the requirements are
+ * checked in a loop.
+ *
+ * Neither the generated classes nor their cache keep the requirement classes reachable: the cache is rooted in the
+ * first class of each sequence, through a {@link ClassValue}, and refers to the next ones weakly; each generated class
+ * is defined by a class loader of its own, so that it is unloaded once its instances and its cache entry are
+ * collected. A requirement class, and its class loader, can therefore be unloaded however many requirements of its
+ * class are fused.
+ */
+final class RequirementFuser {
+
+	/* The maximum number of generated classes */
+	private static final int MAX_FUSED_CLASSES = 256;
+	/* The maximum number of requirements fused, so that the branches of the test method fit their 16-bit offsets */
+	private static final int MAX_FUSED_COUNT = 1024;
+
+	private static final String PACKAGE = RequirementFuser.class.getPackageName().replace('.', '/');
+	private static final String REQUIREMENT = Requirement.class.getName().replace('.', '/');
+	private static final String REQUIREMENT_DESCRIPTOR = "L" + REQUIREMENT + ";";
+
+	/* The number of classes generated so far, never more than the cap */
+	private static final AtomicInteger GENERATED = new AtomicInteger();
+	/* The roots of the cache of the generated classes, by first class of the sequences */
+	private static final ClassValue<Node> ROOTS = new ClassValue<>() {
+
+		@Override
+		protected Node computeValue(Class<?> type) {
+			return new Node();
+		}
+	};
+
+	/* Checks nothing, for an empty sequence */
+	private static final Requirement<Object> NOTHING = value -> {};
+
+
+	private RequirementFuser() {}
+
+	/**
+	 * Fuse the given requirements into a single one, checking them in the given order.
+	 *
+	 * @param requirements The requirements, none of which is {@code null}. The array must not be modified afterwards
+	 *
+	 * @return A requirement equivalent to checking each of the given requirements in turn
+	 */
+	@SuppressWarnings("unchecked")
+	static Requirement<Object> fuse(Requirement<?>[] requirements) {
+		if (requirements.length == 0) {
+			return NOTHING;
+		}
+		if (requirements.length == 1) {
+			/* Fusing would only add a call */
+			return (Requirement<Object>) requirements[0];
+		}
+		Class<?>[] classes = new Class<?>[requirements.length];
+		for (int i = 0; i < requirements.length; ++i) {
+			classes[i] = requirements[i].getClass();
+		}
+		MethodHandle constructor = requirements.length > MAX_FUSED_COUNT ? null : getConstructor(classes);
+		if (constructor == null) {
+			return new Requirement<>() {
+
+				@Override
+				public void check(Object value) {
+					for (Requirement<?> r : requirements) {
+						((Requirement<Object>) r).check(value);
+					}
+				}
+
+				@Override
+				public boolean test(Object value) {
+					for (Requirement<?> r : requirements) {
+						if (!((Requirement<Object>) r).test(value)) {
+							return false;
+						}
+					}
+					return true;
+				}
+			};
+		}
+		try {
+			return (Requirement<Object>) constructor.invoke(requirements);
+		} catch (Throwable t) {
+			/* The constructor only assigns fields */
+			throw new AssertionError(t);
+		}
+	}
+
+	/* Retrieve the constructor of the class generated for the given sequence of classes, generating it if needed.
+	 * Return null if the cap on generated classes is reached. The class is generated without any lock held: of two
+	 * threads generating it concurrently, the first to store it wins, and the class of the other is discarded */
+	private static MethodHandle getConstructor(Class<?>[] classes) {
+		Node node = ROOTS.get(classes[0]);
+		for (int i = 1; i < classes.length; ++i) {
+			node = node.child(classes[i]);
+		}
+		MethodHandle constructor = node.constructor();
+		if (constructor != null) {
+			return constructor;
+		}
+		int index = GENERATED.getAndUpdate(n -> n < MAX_FUSED_CLASSES ? n + 1 : n);
+		if (index == MAX_FUSED_CLASSES) {
+			return null;
+		}
+		String name = PACKAGE + "/FusedRequirement$" + index;
+		try {
+			Class<?> fused = new FusedClassLoader().define(name.replace('/', '.'), generate(name, classes.length));
+			/* The class is public, in the unnamed module of its loader, which exports it to everyone */
+			constructor = MethodHandles.publicLookup()
+			                           .findConstructor(fused, MethodType.methodType(void.class, Requirement[].class));
+		} catch (ReflectiveOperationException | IOException e) {
+			throw new AssertionError(e);
+		}
+		return node.setConstructor(constructor);
+	}
+
+	/* Generate the bytes of the class file of a requirement holding the given count of requirements, in members r0 to
+	 * rN, that it checks or tests in order:
+	 *
+	 *     public final class FusedRequirement$K implements Requirement {
+	 *         private final Requirement r0;
+	 *         ...
+	 *         public FusedRequirement$K(Requirement[] requirements) {
+	 *             r0 = requirements[0];
+	 *             ...
+	 *         }
+	 *         public void check(Object value) {
+	 *             r0.check(value);
+	 *             ...
+	 *         }
+	 *         public boolean test(Object value) {
+	 *             return r0.test(value) && ...;
+	 *         }
+	 *     }
+	 *
+	 * All the branches of the test method target the same instruction, so that it needs a single stack map frame; the
+	 * other methods do not branch. All the constants are added to the pool before it is written */
+	private static byte[] generate(String name, int count) throws IOException {
+		ConstantPool pool = new ConstantPool();
+		int thisClass = pool.classRef(name);
+		int superClass = pool.classRef("java/lang/Object");
+		int requirementClass = pool.classRef(REQUIREMENT);
+		int objectInit = pool.memberRef(10, "java/lang/Object", "<init>", "()V");
+		int check = pool.memberRef(11, REQUIREMENT, "check", "(Ljava/lang/Object;)V");
+		int test = pool.memberRef(11, REQUIREMENT, "test", "(Ljava/lang/Object;)Z");
+		int code = pool.utf8("Code");
+		int stackMapTable = pool.utf8("StackMapTable");
+		int initName = pool.utf8("<init>");
+		int initDescriptor = pool.utf8("([" + REQUIREMENT_DESCRIPTOR + ")V");
+		int checkName = pool.utf8("check");
+		int checkDescriptor = pool.utf8("(Ljava/lang/Object;)V");
+		int testName = pool.utf8("test");
+		int testDescriptor = pool.utf8("(Ljava/lang/Object;)Z");
+		int fieldDescriptor = pool.utf8(REQUIREMENT_DESCRIPTOR);
+		int[] fieldNames = new int[count];
+		int[] fields = new int[count];
+		for (int i = 0; i < count; ++i) {
+			fieldNames[i] = pool.utf8("r" + i);
+			fields[i] = pool.memberRef(9, name, "r" + i, REQUIREMENT_DESCRIPTOR);
+		}
+
+		ByteArrayOutputStream init = new ByteArrayOutputStream();
+		init.write(0x2A); /* aload_0 */
+		writeInstruction(init, 0xB7, objectInit); /* invokespecial Object.<init> */
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		ByteArrayOutputStream predicate = new ByteArrayOutputStream();
+		/* Each test is 13 bytes long, and is followed by the 2 bytes returning true */
+		int rejection = 13 * count + 2;
+		for (int i = 0; i < count; ++i) {
+			init.write(0x2A); /* aload_0 */
+			init.write(0x2B); /* aload_1 */
+			writeIntConstant(init, i);
+			init.write(0x32); /* aaload */
+			writeInstruction(init, 0xB5, fields[i]); /* putfield ri */
+
+			body.write(0x2A); /* aload_0 */
+			writeInstruction(body, 0xB4, fields[i]); /* getfield ri */
+			body.write(0x2B); /* aload_1 */
+			writeInstruction(body, 0xB9, check); /* invokeinterface Requirement.check */
+			body.write(2); /* argument slots, receiver included */
+			body.write(0);
+
+			predicate.write(0x2A); /* aload_0 */
+			writeInstruction(predicate, 0xB4, fields[i]); /* getfield ri */
+			predicate.write(0x2B); /* aload_1 */
+			writeInstruction(predicate, 0xB9, test); /* invokeinterface Requirement.test */
+			predicate.write(2); /* argument slots, receiver included */
+			predicate.write(0);
+			writeInstruction(predicate, 0x99, rejection - predicate.size()); /* ifeq rejection */
+		}
+		init.write(0xB1); /* return */
+		body.write(0xB1); /* return */
+		predicate.write(0x04); /* iconst_1 */
+		predicate.write(0xAC); /* ireturn */
+		predicate.write(0x03); /* iconst_0 */
+		predicate.write(0xAC); /* ireturn */
+		/* The frame at the rejection is the same as at the entry of the method: the parameters, and an empty stack */
+		ByteArrayOutputStream frames = new ByteArrayOutputStream();
+		frames.write(0);
+		frames.write(1); /* number of entries */
+		if (rejection < 64) {
+			frames.write(rejection); /* same_frame */
+		} else {
+			writeInstruction(frames, 251, rejection); /* same_frame_extended */
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(0xCAFEBABE);
+		out.writeShort(0); /* minor version */
+		out.writeShort(55); /* major version: Java 11 */
+		pool.writeTo(out);
+		out.writeShort(0x0031); /* ACC_PUBLIC | ACC_FINAL | ACC_SUPER */
+		out.writeShort(thisClass);
+		out.writeShort(superClass);
+		out.writeShort(1); /* interfaces */
+		out.writeShort(requirementClass);
+		out.writeShort(count); /* fields */
+		for (int i = 0; i < count; ++i) {
+			out.writeShort(0x0012); /* ACC_PRIVATE | ACC_FINAL */
+			out.writeShort(fieldNames[i]);
+			out.writeShort(fieldDescriptor);
+			out.writeShort(0); /* attributes */
+		}
+		out.writeShort(3); /* methods */
+		writeMethod(out, 0x0001, initName, initDescriptor, code, 3, init, 0, null);
+		writeMethod(out, 0x0001, checkName, checkDescriptor, code, 2, body, 0, null);
+		writeMethod(out, 0x0001, testName, testDescriptor, code, 2, predicate, stackMapTable, frames);
+		out.writeShort(0); /* attributes */
+		return bytes.toByteArray();
+	}
+
+	private static void writeInstruction(ByteArrayOutputStream code, int opcode, int index) {
+		code.write(opcode);
+		code.write(index >> 8);
+		code.write(index);
+	}
+
+	private static void writeIntConstant(ByteArrayOutputStream code, int value) {
+		if (value <= 5) {
+			code.write(0x03 + value); /* iconst_<value> */
+		} else if (value <= Byte.MAX_VALUE) {
+			code.write(0x10); /* bipush */
+			code.write(value);
+		} else {
+			code.write(0x11); /* sipush */
+			code.write(value >> 8);
+			code.write(value);
+		}
+	}
+
+	/* Write a method taking a single parameter besides the receiver, with the given code and stack map frames, if
+	 * any */
+	private static void writeMethod(DataOutputStream out, int access, int name, int descriptor, int codeAttribute,
+	                                int maxStack, ByteArrayOutputStream code, int stackMapTableAttribute,
+	                                ByteArrayOutputStream frames) throws IOException {
+		int attributesLength = frames == null ? 0 : 6 + frames.size();
+		out.writeShort(access);
+		out.writeShort(name);
+		out.writeShort(descriptor);
+		out.writeShort(1); /* attributes */
+		out.writeShort(codeAttribute);
+		out.writeInt(12 + code.size() + attributesLength);
+		out.writeShort(maxStack);
+		out.writeShort(2); /* max locals */
+		out.writeInt(code.size());
+		code.writeTo(out);
+		out.writeShort(0); /* exception table */
+		if (frames == null) {
+			out.writeShort(0); /* attributes */
+		} else {
+			out.writeShort(1); /* attributes */
+			out.writeShort(stackMapTableAttribute);
+			out.writeInt(frames.size());
+			frames.writeTo(out);
+		}
+	}
+
+	/* A node of the cache of the generated classes, for a sequence of requirement classes: holds the constructor of
+	 * the class generated for the sequence, and the nodes of the sequences extending it by one class */
+	private static final class Node {
+
+		/* Weak keys, so that a node never keeps the classes of the next requirements reachable. Guarded by the node */
+		private final Map<Class<?>, Node> children = new WeakHashMap<>();
+		/* Guarded by the node */
+		private MethodHandle constructor;
+
+		synchronized Node child(Class<?> type) {
+			return children.computeIfAbsent(type, t -> new Node());
+		}
+
+		synchronized MethodHandle constructor() {
+			return constructor;
+		}
+
+		/* Store the constructor, unless one has been already, and return the stored one */
+		synchronized MethodHandle setConstructor(MethodHandle candidate) {
+			if (constructor == null) {
+				constructor = candidate;
+			}
+			return constructor;
+		}
+	}
+
+	/* The class loader of a single generated class, so that the class can be unloaded on its own. It delegates to the
+	 * loader of the library the resolution of the classes referenced by the generated code */
+	private static final class FusedClassLoader extends ClassLoader {
+
+		FusedClassLoader() {
+			super(RequirementFuser.class.getClassLoader());
+		}
+
+		Class<?> define(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+	/* The constant pool of a class file under construction. Each constant is only added once */
+	private static final class ConstantPool {
+
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		private final DataOutputStream out = new DataOutputStream(bytes);
+		private final Map<String, Integer> indices = new HashMap<>();
+		private int count = 1;
+
+		int utf8(String value) throws IOException {
+			Integer index = indices.get("utf8 " + value);
+			if (index == null) {
+				index = count++;
+				out.writeByte(1);
+				out.writeUTF(value);
+				indices.put("utf8 " + value, index);
+			}
+			return index;
+		}
+
+		int classRef(String name) throws IOException {
+			int nameIndex = utf8(name);
+			Integer index = indices.get("class " + name);
+			if (index == null) {
+				index = count++;
+				out.writeByte(7);
+				out.writeShort(nameIndex);
+				indices.put("class " + name, index);
+			}
+			return index;
+		}
+
+		/* Add a reference to a field (tag 9), method (tag 10) or interface method (tag 11) */
+		int memberRef(int tag, String owner, String name, String descriptor) throws IOException {
+			int ownerIndex = classRef(owner);
+			int nameIndex = utf8(name);
+			int descriptorIndex = utf8(descriptor);
+			String key = name + ":" + descriptor;
+			Integer nameAndType = indices.get("nat " + key);
+			if (nameAndType == null) {
+				nameAndType = count++;
+				out.writeByte(12);
+				out.writeShort(nameIndex);
+				out.writeShort(descriptorIndex);
+				indices.put("nat " + key, nameAndType);
+			}
+			Integer index = indices.get(tag + " " + owner + "." + key);
+			if (index == null) {
+				index = count++;
+				out.writeByte(tag);
+				out.writeShort(ownerIndex);
+				out.writeShort(nameAndType);
+				indices.put(tag + " " + owner + "." + key, index);
+			}
+			return index;
+		}
+
+		void writeTo(DataOutputStream dest) throws IOException {
+			out.flush();
+			dest.writeShort(count);
+			bytes.writeTo(dest);
+		}
+	}
+}
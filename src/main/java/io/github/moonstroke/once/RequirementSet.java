@@ -0,0 +1,202 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An immutable sequence of requirements, along with whether they allow {@code null} and whether they are checked in
+ * an {@linkplain AdaptiveRequirement adaptive order}.
+ *
+ * Instances are interned: all the containers declared with the same requirements, in the same order, share the same
+ * instance. The instances for no requirement are constants, whose retrieval costs no allocation.
+ */
+final class RequirementSet {
+
+	private static final Requirement<?>[] NO_REQUIREMENTS = {};
+
+	/**
+	 * The set of no requirements.
+	 */
+	static final RequirementSet NONE = new RequirementSet(NO_REQUIREMENTS, false, false);
+
+	/**
+	 * The set of no requirements, besides {@link Requirements#ALLOW_NULL}.
+	 */
+	static final RequirementSet NULLABLE = new RequirementSet(NO_REQUIREMENTS, true, false);
+
+	/* The interned instances, referenced weakly so that an instance no longer used by any container can be collected,
+	 * along with the requirements it references. The entries of the collected instances are removed on the next
+	 * interning, through the queue */
+	private static final ConcurrentMap<Ref, Ref> INTERNED = new ConcurrentHashMap<>();
+	private static final ReferenceQueue<RequirementSet> COLLECTED = new ReferenceQueue<>();
+
+	private final Requirement<?>[] requirements;
+	private final boolean allowNull;
+	private final boolean adaptive;
+	private final int hash;
+	/* The requirements fused into a single one, generated only for the interned instances */
+	private Requirement<Object> checker;
+
+
+	private RequirementSet(Requirement<?>[] requirements, boolean allowNull, boolean adaptive) {
+		this.requirements = requirements;
+		this.allowNull = allowNull;
+		this.adaptive = adaptive;
+		hash = 31 * (31 * Arrays.hashCode(requirements) + Boolean.hashCode(allowNull)) + Boolean.hashCode(adaptive);
+		if (requirements.length == 0) {
+			checker = RequirementFuser.fuse(requirements);
+		}
+	}
+
+	/**
+	 * Retrieve the interned set of the given requirements.
+	 *
+	 * The requirements are {@linkplain RequirementSimplifier simplified} first. {@link Requirements#ALLOW_NULL} is not
+	 * stored with the other requirements, but sets the {@link #allowsNull()} flag; neither is
+	 * {@link Requirements#ADAPTIVE_ORDER}, which makes the check adaptive.
+	 *
+	 * @param requirements The requirements, none of which is {@code null}
+	 *
+	 * @return The unique instance holding the given requirements
+	 *
+	 * @throws IllegalArgumentException if the requirements cannot all be met by any value
+	 */
+	static RequirementSet of(Requirement<?>[] requirements) {
+		if (requirements.length == 0) {
+			return NONE;
+		}
+		boolean allowNull = false;
+		boolean adaptive = false;
+		for (Requirement<?> r : requirements) {
+			if (r == Requirements.ALLOW_NULL) {
+				allowNull = true;
+			} else if (r == Requirements.ADAPTIVE_ORDER) {
+				adaptive = true;
+			}
+		}
+		Requirement<?>[] stored = RequirementSimplifier.simplify(requirements);
+		if (stored.length == 0) {
+			return allowNull ? NULLABLE : NONE;
+		}
+		/* There is nothing to reorder in a single requirement */
+		return intern(new RequirementSet(stored, allowNull, adaptive && stored.length > 1));
+	}
+
+	/* Retrieve the interned instance equal to the candidate, or intern the candidate. No lock is held: the checker of
+	 * the candidate is built beforehand, and discarded along with it if another thread interns an equal instance
+	 * first */
+	private static RequirementSet intern(RequirementSet candidate) {
+		expungeCollected();
+		Ref found = INTERNED.get(new Ref(candidate, null));
+		RequirementSet interned = found == null ? null : found.get();
+		if (interned != null) {
+			return interned;
+		}
+		/* Written before the instance is handed to any container, whose final member then publishes it */
+		candidate.checker = candidate.adaptive ? new AdaptiveRequirement<>(candidate.requirements)
+		                                       : RequirementFuser.fuse(candidate.requirements);
+		Ref ref = new Ref(candidate, COLLECTED);
+		for (;;) {
+			found = INTERNED.putIfAbsent(ref, ref);
+			if (found == null) {
+				return candidate;
+			}
+			interned = found.get();
+			if (interned != null) {
+				return interned;
+			}
+			/* Collected, but not removed yet */
+			INTERNED.remove(found, found);
+		}
+	}
+
+	private static void expungeCollected() {
+		Object ref;
+		while ((ref = COLLECTED.poll()) != null) {
+			INTERNED.remove(ref, ref);
+		}
+	}
+
+	/**
+	 * Indicate whether the requirements include {@link Requirements#ALLOW_NULL}.
+	 *
+	 * @return {@code true} if {@code null} is an acceptable value
+	 */
+	boolean allowsNull() {
+		return allowNull;
+	}
+
+	/**
+	 * Check the given value against all the requirements, in declaration order.
+	 *
+	 * The requirements are {@linkplain RequirementFuser fused} into a single one, so that the check costs a single
+	 * dispatch, however many requirements there are, unless they are checked in an adaptive order.
+	 *
+	 * @param value The value to check, never {@code null}
+	 *
+	 * @throws IllegalArgumentException if the value does not meet a requirement
+	 */
+	void check(Object value) {
+		checker.check(value);
+	}
+
+	/**
+	 * Indicate whether the given value meets all the requirements, without throwing an exception if it does not.
+	 *
+	 * @param value The value to check, never {@code null}
+	 *
+	 * @return {@code true} if the value meets every requirement
+	 */
+	boolean test(Object value) {
+		return checker.test(value);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof RequirementSet)) {
+			return false;
+		}
+		RequirementSet other = (RequirementSet) o;
+		return allowNull == other.allowNull && adaptive == other.adaptive
+		       && Arrays.equals(requirements, other.requirements);
+	}
+
+	/* A weak reference to an interned instance, comparing as its referent while it has not been collected, and only
+	 * to itself afterwards */
+	private static final class Ref extends WeakReference<RequirementSet> {
+
+		private final int hash;
+
+		Ref(RequirementSet set, ReferenceQueue<RequirementSet> queue) {
+			super(set, queue);
+			hash = set.hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (o == this) {
+				return true;
+			}
+			if (!(o instanceof Ref)) {
+				return false;
+			}
+			RequirementSet set = get();
+			return set != null && set.equals(((Ref) o).get());
+		}
+	}
+}
@@ -0,0 +1,199 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The simplification of a sequence of requirements into an equivalent, shorter one.
+ *
+ * The built-in requirements of {@link Requirements} on numbers describe the values they accept, which allows
+ * combining them: the ranges of a same type are intersected, the sign requirements are folded into a single one, and
+ * into the ranges when these already imply them. Besides, {@link Requirements#STRING_NOT_EMPTY} is implied by
+ * {@link Requirements#STRING_NOT_BLANK}, the conjunctions are expanded into their operands, and duplicate requirements
+ * are dropped. The other requirements are kept as they are, and the order of the requirements is preserved: each
+ * requirement resulting from a combination takes the place of the first of the requirements it replaces.
+ */
+final class RequirementSimplifier {
+
+	/* The signs accepted when there is no sign requirement */
+	private static final int ANY_SIGN = SignRequirement.NEGATIVE | SignRequirement.ZERO | SignRequirement.POSITIVE;
+
+
+	private RequirementSimplifier() {}
+
+	/**
+	 * Simplify the given requirements. {@link Requirements#ALLOW_NULL} and {@link Requirements#ADAPTIVE_ORDER}, which
+	 * check nothing, are dropped.
+	 *
+	 * @param requirements The requirements to simplify
+	 *
+	 * @return A new array holding requirements equivalent to the given ones
+	 *
+	 * @throws NullPointerException     if any requirement is {@code null}
+	 * @throws IllegalArgumentException if the requirements cannot all be met by any value
+	 */
+	static Requirement<?>[] simplify(Requirement<?>[] requirements) {
+		Set<Requirement<?>> flattened = new LinkedHashSet<>();
+		flatten(requirements, flattened);
+
+		int signs = ANY_SIGN;
+		SignRequirement firstSign = null;
+		Map<Class<?>, IntegralRange<?>> integralRanges = new HashMap<>();
+		Map<Class<?>, FloatingRange<?>> floatingRanges = new HashMap<>();
+		for (Requirement<?> r : flattened) {
+			if (r instanceof SignRequirement) {
+				SignRequirement sign = (SignRequirement) r;
+				signs &= sign.accepted();
+				if (firstSign == null) {
+					firstSign = sign;
+				}
+			} else if (r instanceof IntegralRange) {
+				IntegralRange<?> range = (IntegralRange<?>) r;
+				integralRanges.merge(range.type(), range, RequirementSimplifier::intersect);
+			} else if (r instanceof FloatingRange) {
+				FloatingRange<?> range = (FloatingRange<?>) r;
+				floatingRanges.merge(range.type(), range, RequirementSimplifier::intersect);
+			}
+		}
+		boolean signImplied = firstSign == null;
+		if (firstSign != null) {
+			SignRequirement sign = signRequirement(signs);
+			for (Map.Entry<Class<?>, IntegralRange<?>> entry : integralRanges.entrySet()) {
+				IntegralRange<?> range = restrict(entry.getValue(), sign);
+				signImplied |= implies(range, sign);
+				entry.setValue(range);
+			}
+			for (Map.Entry<Class<?>, FloatingRange<?>> entry : floatingRanges.entrySet()) {
+				FloatingRange<?> range = restrict(entry.getValue(), sign);
+				signImplied |= implies(range, sign);
+				entry.setValue(range);
+			}
+		}
+
+		boolean notBlank = flattened.contains(Requirements.STRING_NOT_BLANK);
+		List<Requirement<?>> simplified = new ArrayList<>(flattened.size());
+		for (Requirement<?> r : flattened) {
+			if (r instanceof SignRequirement) {
+				if (r == firstSign && !signImplied) {
+					simplified.add(signRequirement(signs));
+				}
+			} else if (r instanceof IntegralRange) {
+				Requirement<?> range = integralRanges.remove(((IntegralRange<?>) r).type());
+				if (range != null) {
+					simplified.add(range);
+				}
+			} else if (r instanceof FloatingRange) {
+				Requirement<?> range = floatingRanges.remove(((FloatingRange<?>) r).type());
+				if (range != null) {
+					simplified.add(range);
+				}
+			} else if (r != Requirements.STRING_NOT_EMPTY || !notBlank) {
+				simplified.add(r);
+			}
+		}
+		return simplified.toArray(new Requirement<?>[0]);
+	}
+
+	/* Add the given requirements to the set, expanding the conjunctions and dropping the markers */
+	private static void flatten(Requirement<?>[] requirements, Set<Requirement<?>> flattened) {
+		for (Requirement<?> r : requirements) {
+			Objects.requireNonNull(r);
+			if (r instanceof AllOf) {
+				flatten(((AllOf<?>) r).requirements(), flattened);
+			} else if (r != Requirements.ALLOW_NULL && r != Requirements.ADAPTIVE_ORDER) {
+				flattened.add(r);
+			}
+		}
+	}
+
+	private static IllegalArgumentException unsatisfiable(Requirement<?> r1, Requirement<?> r2) {
+		return new IllegalArgumentException("requirements cannot all be met: " + r1 + " and " + r2);
+	}
+
+	/* Retrieve the constant accepting the given signs */
+	private static SignRequirement signRequirement(int signs) {
+		for (Requirement<Number> r : List.of(Requirements.NOT_ZERO, Requirements.NOT_NEGATIVE, Requirements.POSITIVE)) {
+			if (((SignRequirement) r).accepted() == signs) {
+				return (SignRequirement) r;
+			}
+		}
+		/* Unreachable: all the combinations of the constants accept positive numbers */
+		throw new AssertionError(signs);
+	}
+
+	private static IntegralRange<?> intersect(IntegralRange<?> r1, IntegralRange<?> r2) {
+		long min = Math.max(r1.min(), r2.min());
+		long max = Math.min(r1.max(), r2.max());
+		if (min > max) {
+			throw unsatisfiable(r1, r2);
+		}
+		return r1.withBounds(min, max);
+	}
+
+	private static FloatingRange<?> intersect(FloatingRange<?> r1, FloatingRange<?> r2) {
+		double min = Math.max(r1.min(), r2.min());
+		double max = Math.min(r1.max(), r2.max());
+		if (min > max) {
+			throw unsatisfiable(r1, r2);
+		}
+		return r1.withBounds(min, max);
+	}
+
+	/* Restrict the range to the numbers of the signs accepted by the requirement */
+	private static IntegralRange<?> restrict(IntegralRange<?> range, SignRequirement sign) {
+		long min = range.min();
+		long max = range.max();
+		if (!sign.accepts(SignRequirement.NEGATIVE)) {
+			min = Math.max(min, 0);
+		}
+		if (!sign.accepts(SignRequirement.POSITIVE)) {
+			max = Math.min(max, 0);
+		}
+		if (!sign.accepts(SignRequirement.ZERO)) {
+			if (min == 0) {
+				min = 1;
+			}
+			if (max == 0) {
+				max = -1;
+			}
+		}
+		if (min > max) {
+			throw unsatisfiable(range, sign);
+		}
+		return range.withBounds(min, max);
+	}
+
+	/* Restrict the range to the numbers of the signs accepted by the requirement. Zero cannot be excluded from the
+	 * bounds, which are included */
+	private static FloatingRange<?> restrict(FloatingRange<?> range, SignRequirement sign) {
+		double min = range.min();
+		double max = range.max();
+		if (!sign.accepts(SignRequirement.NEGATIVE)) {
+			min = Math.max(min, 0);
+		}
+		if (!sign.accepts(SignRequirement.POSITIVE)) {
+			max = Math.min(max, 0);
+		}
+		if (min > max || !sign.accepts(SignRequirement.ZERO) && min == 0 && max == 0) {
+			throw unsatisfiable(range, sign);
+		}
+		return range.withBounds(min, max);
+	}
+
+	/* Indicate whether all the numbers of the restricted range meet the sign requirement */
+	private static boolean implies(IntegralRange<?> range, SignRequirement sign) {
+		return sign.accepts(SignRequirement.ZERO) || range.min() > 0 || range.max() < 0;
+	}
+
+	/* Indicate whether all the numbers of the restricted range meet the sign requirement. NaN is in no range */
+	private static boolean implies(FloatingRange<?> range, SignRequirement sign) {
+		return sign.accepts(SignRequirement.ZERO) || range.min() > 0 || range.max() < 0;
+	}
+}
@@ -5,6 +5,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -30,6 +32,26 @@ public class Requirements {
 		/* Nothing to do; it is the presence of the object itself that matters */
 	};
 
+	/**
+	 * A special requirement instance that alters the default behavior of the containers by checking their other
+	 * requirements in an adaptive order, instead of the declaration order.
+	 *
+	 * The containers given this requirement measure, on a sample of the values checked, the cost of each requirement
+	 * and how often it rejects the value, and periodically reorder the requirements so that a value that does not meet
+	 * them is rejected as early as possible. The measures are shared by all the containers declared with the same
+	 * requirements. A value that does not meet several requirements may then be reported with the message of any of
+	 * them: the declaration order, which is the default, must be kept when the message matters.
+	 *
+	 * The measures cost little, but the adaptive check forgoes the fusion of the requirements into a single call: this
+	 * mode pays off for requirements whose costs or rejection rates differ widely, such as a cheap check that rejects
+	 * most invalid values declared after an expensive pattern or collection scan.
+	 *
+	 * Passed to {@link Requirement#allOf(Requirement...)}, this requirement makes the combination adaptive.
+	 */
+	public static final Requirement<Object> ADAPTIVE_ORDER = o -> {
+		/* Nothing to do; it is the presence of the object itself that matters */
+	};
+
 	/**
 	 * Require a string to be non-empty.
 	 */
@@ -43,6 +65,13 @@ public class Requirements {
 	                                                                                     "value cannot be a blank string");
 
 
+	/**
+	 * The maximum number of compiled patterns cached by {@link #matches(String)}.
+	 */
+	public static final int PATTERN_CACHE_CAPACITY = 256;
+
+	private static final PatternCache PATTERNS = new PatternCache(PATTERN_CACHE_CAPACITY);
+
 	/**
 	 * Require that a string match the given pattern.
 	 *
@@ -54,12 +83,16 @@ public class Requirements {
 	 */
 	public static Requirement<CharSequence> matches(Pattern pattern) {
 		Objects.requireNonNull(pattern);
-		return Requirement.fromPredicate(s -> pattern.matcher(s).matches(), "value must match the pattern " + pattern);
+		return new PatternRequirement(pattern);
 	}
 
 	/**
 	 * Require that a string match the given pattern.
 	 *
+	 * The compiled form of the regular expression is cached, so that requirements created repeatedly for the same
+	 * expression, for instance from a configuration, do not compile it again. The cache holds at most
+	 * {@value #PATTERN_CACHE_CAPACITY} patterns, evicting the least recently used ones first.
+	 *
 	 * @param regex The regular expression to match
 	 *
 	 * @return A requirement instance accepting only strings matching the given regular expression
@@ -69,8 +102,27 @@ public class Requirements {
 	 */
 	public static Requirement<CharSequence> matches(String regex) {
 		Objects.requireNonNull(regex);
-		Pattern pattern = Pattern.compile(regex);
-		return Requirement.fromPredicate(s -> pattern.matcher(s).matches(), "value must match the pattern " + regex);
+		return new PatternRequirement(PATTERNS.get(regex));
+	}
+
+	/**
+	 * Return the number of calls to {@link #matches(String)} whose regular expression was found in the cache of
+	 * compiled patterns.
+	 *
+	 * @return the number of cache hits since the class was initialized
+	 */
+	public static long getPatternCacheHitCount() {
+		return PATTERNS.hitCount();
+	}
+
+	/**
+	 * Return the number of calls to {@link #matches(String)} that compiled their regular expression, because it was
+	 * not found in the cache of compiled patterns. Invalid expressions are counted.
+	 *
+	 * @return the number of cache misses since the class was initialized
+	 */
+	public static long getPatternCacheMissCount() {
+		return PATTERNS.missCount();
 	}
 
 
@@ -99,6 +151,170 @@ public class Requirements {
 	                                    ?>> MAP_NOT_EMPTY = Requirement.fromPredicate(map -> !map.isEmpty(),
 	                                                                                  "value cannot be an empty map");
 
+	/**
+	 * The default number of elements from which the requirements on each element of a collection or map check them in
+	 * parallel.
+	 */
+	public static final int PARALLEL_THRESHOLD = 8192;
+
+	/**
+	 * Require that each element of a collection meet the given requirement.
+	 *
+	 * The elements are checked in iteration order; from {@value #PARALLEL_THRESHOLD} elements on, they are checked in
+	 * parallel on the common {@link ForkJoinPool}. Either way, a collection with several invalid elements is reported
+	 * with the first of them, in iteration order: the message of the requirement is prefixed with its index. Null
+	 * elements, which requirements do not accept, are rejected.
+	 *
+	 * @param <E>         The type of the elements
+	 * @param requirement The requirement that each element must meet
+	 *
+	 * @return A requirement instance accepting only collections whose elements all meet the given requirement
+	 *
+	 * @throws NullPointerException if requirement is {@code null}
+	 */
+	public static <E> Requirement<Collection<? extends E>> eachElement(Requirement<? super E> requirement) {
+		return eachElement(requirement, PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Require that each element of a collection meet the given requirement, checking the elements in parallel from
+	 * the given number of elements on.
+	 *
+	 * The parallel check pays off for numerous elements or costly requirements; it requires the requirement to be
+	 * safe to call concurrently.
+	 *
+	 * @param <E>               The type of the elements
+	 * @param requirement       The requirement that each element must meet
+	 * @param parallelThreshold The number of elements from which they are checked in parallel
+	 *
+	 * @return A requirement instance accepting only collections whose elements all meet the given requirement
+	 *
+	 * @throws NullPointerException     if requirement is {@code null}
+	 * @throws IllegalArgumentException if parallelThreshold is negative
+	 *
+	 * @see #eachElement(Requirement)
+	 */
+	public static <E> Requirement<Collection<? extends E>> eachElement(Requirement<? super E> requirement,
+	                                                                    int parallelThreshold) {
+		return new ElementsRequirement<>(Function.identity(), requirement, parallelThreshold, "element");
+	}
+
+	/**
+	 * Require that each key of a map meet the given requirement.
+	 *
+	 * The keys are checked like the elements of {@link #eachElement(Requirement)}, in the iteration order of the map.
+	 *
+	 * @param <K>         The type of the keys
+	 * @param requirement The requirement that each key must meet
+	 *
+	 * @return A requirement instance accepting only maps whose keys all meet the given requirement
+	 *
+	 * @throws NullPointerException if requirement is {@code null}
+	 */
+	public static <K> Requirement<Map<? extends K, ?>> eachKey(Requirement<? super K> requirement) {
+		return eachKey(requirement, PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Require that each key of a map meet the given requirement, checking the keys in parallel from the given number
+	 * of entries on.
+	 *
+	 * @param <K>               The type of the keys
+	 * @param requirement       The requirement that each key must meet
+	 * @param parallelThreshold The number of entries from which the keys are checked in parallel
+	 *
+	 * @return A requirement instance accepting only maps whose keys all meet the given requirement
+	 *
+	 * @throws NullPointerException     if requirement is {@code null}
+	 * @throws IllegalArgumentException if parallelThreshold is negative
+	 *
+	 * @see #eachElement(Requirement, int)
+	 */
+	public static <K> Requirement<Map<? extends K, ?>> eachKey(Requirement<? super K> requirement,
+	                                                            int parallelThreshold) {
+		return new ElementsRequirement<>(Map::keySet, requirement, parallelThreshold, "key");
+	}
+
+	/**
+	 * Require that each value of a map meet the given requirement.
+	 *
+	 * The values are checked like the elements of {@link #eachElement(Requirement)}, in the iteration order of the
+	 * map.
+	 *
+	 * @param <V>         The type of the values
+	 * @param requirement The requirement that each value must meet
+	 *
+	 * @return A requirement instance accepting only maps whose values all meet the given requirement
+	 *
+	 * @throws NullPointerException if requirement is {@code null}
+	 */
+	public static <V> Requirement<Map<?, ? extends V>> eachValue(Requirement<? super V> requirement) {
+		return eachValue(requirement, PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Require that each value of a map meet the given requirement, checking the values in parallel from the given
+	 * number of entries on.
+	 *
+	 * @param <V>               The type of the values
+	 * @param requirement       The requirement that each value must meet
+	 * @param parallelThreshold The number of entries from which the values are checked in parallel
+	 *
+	 * @return A requirement instance accepting only maps whose values all meet the given requirement
+	 *
+	 * @throws NullPointerException     if requirement is {@code null}
+	 * @throws IllegalArgumentException if parallelThreshold is negative
+	 *
+	 * @see #eachElement(Requirement, int)
+	 */
+	public static <V> Requirement<Map<?, ? extends V>> eachValue(Requirement<? super V> requirement,
+	                                                              int parallelThreshold) {
+		return new ElementsRequirement<>(Map::values, requirement, parallelThreshold, "value");
+	}
+
+	/**
+	 * Require that the size of a collection be in a specified range.
+	 *
+	 * @param min The lower boundary of the range
+	 * @param max The upper boundary of the range
+	 *
+	 * @return A requirement instance accepting only collections whose size is inside the range described by the given
+	 *         boundaries, included
+	 *
+	 * @throws IllegalArgumentException if min is negative or greater than max
+	 */
+	public static Requirement<Collection<?>> sizeInRange(int min, int max) {
+		checkSizeBounds(min, max);
+		return Requirement.fromPredicate(coll -> coll.size() >= min && coll.size() <= max,
+		                                 "size must be between " + min + " and " + max + " inclusive");
+	}
+
+	/**
+	 * Require that the size of a map be in a specified range.
+	 *
+	 * @param min The lower boundary of the range
+	 * @param max The upper boundary of the range
+	 *
+	 * @return A requirement instance accepting only maps whose size is inside the range described by the given
+	 *         boundaries, included
+	 *
+	 * @throws IllegalArgumentException if min is negative or greater than max
+	 */
+	public static Requirement<Map<?, ?>> mapSizeInRange(int min, int max) {
+		checkSizeBounds(min, max);
+		return Requirement.fromPredicate(map -> map.size() >= min && map.size() <= max,
+		                                 "size must be between " + min + " and " + max + " inclusive");
+	}
+
+	private static void checkSizeBounds(int min, int max) {
+		if (min < 0) {
+			throw new IllegalArgumentException("a size cannot be negative");
+		}
+		if (min > max) {
+			throw new IllegalArgumentException("invalid range: " + min + " > " + max);
+		}
+	}
+
 	/**
 	 * Require that a character be nonzero.
 	 */
@@ -107,9 +323,13 @@ public class Requirements {
 
 	/**
 	 * Require that a number be nonzero.
+	 *
+	 * For checks of primitive values, without boxing, see {@link IntRequirement#NOT_ZERO},
+	 * {@link LongRequirement#NOT_ZERO} and {@link DoubleRequirement#NOT_ZERO}.
 	 */
-	public static final Requirement<Number> NOT_ZERO = Requirement.fromPredicate(n -> n.doubleValue() != 0D,
-	                                                                             "value cannot be zero");
+	public static final Requirement<Number> NOT_ZERO = new SignRequirement(SignRequirement.NEGATIVE
+	                                                                       | SignRequirement.POSITIVE,
+	                                                                       "value cannot be zero");
 
 	/**
 	 * Require that a floating-point number be an actual number (not NaN).
@@ -137,22 +357,23 @@ public class Requirements {
 
 	/**
 	 * Require that a number be non-negative (i.e. positive or zero).
+	 *
+	 * For checks of primitive values, without boxing, see {@link IntRequirement#NOT_NEGATIVE},
+	 * {@link LongRequirement#NOT_NEGATIVE} and {@link DoubleRequirement#NOT_NEGATIVE}.
 	 */
-	public static final Requirement<Number> NOT_NEGATIVE = Requirement.fromPredicate(n -> n.doubleValue() >= 0,
-	                                                                                 "value must not be negative");
+	public static final Requirement<Number> NOT_NEGATIVE = new SignRequirement(SignRequirement.ZERO
+	                                                                           | SignRequirement.POSITIVE,
+	                                                                           "value must not be negative");
 
 	/**
 	 * Require that a number be positive (not negative, nor zero). This requirement is a shortcut for specifying both
 	 * {@link #NOT_NEGATIVE} and {@link #NOT_ZERO}.
+	 *
+	 * For checks of primitive values, without boxing, see {@link IntRequirement#POSITIVE},
+	 * {@link LongRequirement#POSITIVE} and {@link DoubleRequirement#POSITIVE}.
 	 */
-	public static final Requirement<Number> POSITIVE = Requirement.fromPredicate(n -> n.doubleValue() > 0,
-	                                                                             "value must be positive");
-
-
-	/* Compose an error message for the numeric range of given bounds */
-	private static <T extends Number> String getOutOfRangeErrorMessage(T min, T max) {
-		return "value must be between " + min + " and " + max + " inclusive";
-	}
+	public static final Requirement<Number> POSITIVE = new SignRequirement(SignRequirement.POSITIVE,
+	                                                                       "value must be positive");
 
 	/**
 	 * Require that a byte value be in a specified range.
@@ -165,10 +386,7 @@ public class Requirements {
 	 * @throws IllegalArgumentException if min is greater than max
 	 */
 	public static Requirement<Byte> inRange(byte min, byte max) {
-		if (min > max) {
-			throw new IllegalArgumentException("invalid range: " + min + " > " + max);
-		}
-		return Requirement.fromPredicate(b -> min <= b && b <= max, getOutOfRangeErrorMessage(min, max));
+		return new IntegralRange<>(Byte.class, min, max);
 	}
 
 	/**
@@ -182,10 +400,7 @@ public class Requirements {
 	 * @throws IllegalArgumentException if min is greater than max
 	 */
 	public static Requirement<Short> inRange(short min, short max) {
-		if (min > max) {
-			throw new IllegalArgumentException("invalid range: " + min + " > " + max);
-		}
-		return Requirement.fromPredicate(s -> min <= s && s <= max, getOutOfRangeErrorMessage(min, max));
+		return new IntegralRange<>(Short.class, min, max);
 	}
 
 	/**
@@ -199,10 +414,7 @@ public class Requirements {
 	 * @throws IllegalArgumentException if min is greater than max
 	 */
 	public static Requirement<Integer> inRange(int min, int max) {
-		if (min > max) {
-			throw new IllegalArgumentException("invalid range: " + min + " > " + max);
-		}
-		return Requirement.fromPredicate(i -> min <= i && i <= max, getOutOfRangeErrorMessage(min, max));
+		return new IntegralRange<>(Integer.class, min, max);
 	}
 
 	/**
@@ -216,10 +428,7 @@ public class Requirements {
 	 * @throws IllegalArgumentException if min is greater than max
 	 */
 	public static Requirement<Long> inRange(long min, long max) {
-		if (min > max) {
-			throw new IllegalArgumentException("invalid range: " + min + " > " + max);
-		}
-		return Requirement.fromPredicate(l -> min <= l && l <= max, getOutOfRangeErrorMessage(min, max));
+		return new IntegralRange<>(Long.class, min, max);
 	}
 
 	/**
@@ -233,10 +442,7 @@ public class Requirements {
 	 * @throws IllegalArgumentException if min is greater than max
 	 */
 	public static Requirement<Float> inRange(float min, float max) {
-		if (min > max) {
-			throw new IllegalArgumentException("invalid range: " + min + " > " + max);
-		}
-		return Requirement.fromPredicate(f -> min <= f && f <= max, getOutOfRangeErrorMessage(min, max));
+		return new FloatingRange<>(Float.class, min, max);
 	}
 
 	/**
@@ -251,9 +457,6 @@ public class Requirements {
 	 * @throws IllegalArgumentException if min is greater than max
 	 */
 	public static Requirement<Double> inRange(double min, double max) {
-		if (min > max) {
-			throw new IllegalArgumentException("invalid range: " + min + " > " + max);
-		}
-		return Requirement.fromPredicate(d -> min <= d && d <= max, getOutOfRangeErrorMessage(min, max));
+		return new FloatingRange<>(Double.class, min, max);
 	}
 }
@@ -0,0 +1,86 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * A requirement on the sign of a number, described by the signs it accepts so that it can be combined with others.
+ *
+ * NaN is accepted only by the requirements accepting negative numbers, which matches the comparison of its sign, NaN,
+ * with zero in the original definitions: {@code NaN != 0} holds, while {@code NaN >= 0} and {@code NaN > 0} do not.
+ */
+final class SignRequirement implements Requirement<Number> {
+
+	/* The bits of the accepted signs */
+	static final int NEGATIVE = 1;
+	static final int ZERO = 2;
+	static final int POSITIVE = 4;
+
+	private final int accepted;
+	private final String message;
+
+
+	SignRequirement(int accepted, String message) {
+		this.accepted = accepted;
+		this.message = message;
+	}
+
+	/* The sign of a number, as returned by Math.signum: computed exactly for the standard integral and
+	 * arbitrary-precision types, whose conversion to double can round a nonzero value to zero, and from the double
+	 * value otherwise (NaN included) */
+	private static double signum(Number n) {
+		if (n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte) {
+			return Long.signum(n.longValue());
+		}
+		if (n instanceof BigInteger) {
+			return ((BigInteger) n).signum();
+		}
+		if (n instanceof BigDecimal) {
+			return ((BigDecimal) n).signum();
+		}
+		return Math.signum(n.doubleValue());
+	}
+
+	/**
+	 * Return the signs accepted by this requirement.
+	 *
+	 * @return a combination of the bits {@link #NEGATIVE}, {@link #ZERO} and {@link #POSITIVE}
+	 */
+	int accepted() {
+		return accepted;
+	}
+
+	/**
+	 * Indicate whether this requirement accepts the given sign.
+	 *
+	 * @param sign One of the bits {@link #NEGATIVE}, {@link #ZERO} and {@link #POSITIVE}
+	 *
+	 * @return {@code true} if the numbers of that sign are accepted
+	 */
+	boolean accepts(int sign) {
+		return (accepted & sign) != 0;
+	}
+
+	@Override
+	public void check(Number value) {
+		if (!test(value)) {
+			throw new IllegalArgumentException(message);
+		}
+	}
+
+	@Override
+	public boolean test(Number value) {
+		double s = signum(value);
+		if (s < 0 || Double.isNaN(s)) {
+			return accepts(NEGATIVE);
+		}
+		return accepts(s == 0 ? ZERO : POSITIVE);
+	}
+
+	@Override
+	public String toString() {
+		return message;
+	}
+}
@@ -0,0 +1,165 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A special container for a single {@code boolean} value, allowing only a single initialization.
+ *
+ * This is the {@code boolean}-specialized counterpart of {@link StableField}: the value is neither boxed when set nor
+ * unboxed when read. Since a boolean can only take two values, this class does not accept requirements.
+ */
+public class StableBoolean extends StablePrimitive {
+
+	/* Written only by the thread that gained the right to, and published by the state */
+	private boolean value;
+
+
+	/**
+	 * Create a field of given name that can only be set once.
+	 *
+	 * @param name The name of the field
+	 *
+	 * @throws NullPointerException     if name is {@code null}
+	 * @throws IllegalArgumentException if name is empty
+	 */
+	public StableBoolean(String name) {
+		super(name);
+	}
+
+	/**
+	 * Initialize the instance's value, or fail if has already been set.
+	 *
+	 * @param value The value to set
+	 *
+	 * @throws IllegalStateException if the value has already been initialized, or if called from the supplier of
+	 *                               {@link #orElseSet(BooleanSupplier)}
+	 */
+	public void set(boolean value) {
+		acquireOrFail();
+		this.value = value;
+		publish();
+	}
+
+	/**
+	 * Initialize the instance's value and return whether the operation succeeded.
+	 *
+	 * @param value The value to set
+	 *
+	 * @return {@code true} if the value was actually set, {@code false} if it was already set, or if called from the
+	 *         supplier of {@link #orElseSet(BooleanSupplier)}
+	 */
+	public boolean trySet(boolean value) {
+		if (!acquireForSet()) {
+			return false;
+		}
+		this.value = value;
+		publish();
+		return true;
+	}
+
+	/**
+	 * Retrieve the instance's value, computing and setting it first if it has not been set.
+	 *
+	 * The supplier is called at most once per successful initialization: threads calling this method while the value
+	 * is being computed wait for the computation to end, and then return the value computed. A setter called meanwhile
+	 * is not blocked: its value is set, and the value computed is then discarded.
+	 *
+	 * If the supplier throws an exception, the exception is propagated to the caller and the instance is left unset; a
+	 * later call will invoke its supplier again.
+	 *
+	 * @param supplier The function computing the value to set, called only if the value is not set
+	 *
+	 * @return the value set, either beforehand or by this call
+	 *
+	 * @throws NullPointerException  if supplier is {@code null}
+	 * @throws IllegalStateException if the supplier calls this method, or a setter, on the same instance
+	 */
+	public boolean orElseSet(BooleanSupplier supplier) {
+		Objects.requireNonNull(supplier);
+		if (!acquireForComputation()) {
+			return value;
+		}
+		try {
+			boolean value = supplier.getAsBoolean();
+			if (!acquireComputed()) {
+				/* A setter won against the computation */
+				return this.value;
+			}
+			this.value = value;
+			publish();
+			return value;
+		} finally {
+			endComputation();
+		}
+	}
+
+	/**
+	 * Retrieve the instance's value, or fail if it has not been set.
+	 *
+	 * @return the value set
+	 *
+	 * @throws NoSuchElementException if the value was not initialized
+	 */
+	public boolean getAsBoolean() {
+		if (!isSet()) {
+			throw new NoSuchElementException(name + " has not been set");
+		}
+		return value;
+	}
+
+	/**
+	 * Retrieve the instance's value, or return the provided default if unset.
+	 *
+	 * @param defaultValue The default value
+	 *
+	 * @return the value set, or the default one if unset
+	 */
+	public boolean getAsBoolean(boolean defaultValue) {
+		return isSet() ? value : defaultValue;
+	}
+
+	/**
+	 * Return a numeric sum of the object's state, comprising its name and value.
+	 *
+	 * @return a hash of the instance's name and value members
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * (31 + name.hashCode()) + (isSet() ? Boolean.hashCode(value) : 0);
+	}
+
+	/**
+	 * Indicate whether the given object is equal to this instance.
+	 *
+	 * The two objects are equal if the other object is a {@code StableBoolean} instance of the same name, and either
+	 * both values are unset, or both are set to the same value.
+	 *
+	 * @param o The object to compare
+	 *
+	 * @return {@code true} if the two objects compare equal
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof StableBoolean)) {
+			return false;
+		}
+		StableBoolean other = (StableBoolean) o;
+		if (!name.equals(other.name)) {
+			return false;
+		}
+		boolean set = isSet();
+		if (set != other.isSet()) {
+			return false;
+		}
+		return !set || value == other.value;
+	}
+
+	@Override
+	String valueToString() {
+		return Boolean.toString(value);
+	}
+}
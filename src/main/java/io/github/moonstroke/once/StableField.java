@@ -2,24 +2,73 @@
  * SPDX-License-Identifier: MIT */
 package io.github.moonstroke.once;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * A special container for a single value, allowing only a single initialization.
  */
 public class StableField<T> {
 
+	/* Stands for a null value that has been set, the null reference itself meaning that the value is unset. This way
+	 * the default value of the field is the unset state, even if the instance is not safely published */
+	private static final Object NULL = new Object();
+
+	/* Replaces the stack of waiters once the value is published, so that no thread waits after that */
+	private static final Waiter RELEASED = new Waiter(null, null);
+
+	private static final VarHandle VALUE;
+	private static final VarHandle INITIALIZER;
+	private static final VarHandle WAITERS;
+	/* The get() method, target of the getters of unset instances */
+	private static final MethodHandle GET;
+
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			VALUE = lookup.findVarHandle(StableField.class, "value", Object.class);
+			INITIALIZER = lookup.findVarHandle(StableField.class, "initializer", Thread.class);
+			WAITERS = lookup.findVarHandle(StableField.class, "waiters", Waiter.class);
+			GET = lookup.findVirtual(StableField.class, "get", MethodType.methodType(Object.class));
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
 	/* The name of the field. Used in error messages and toString representation */
 	private final String name;
-	private volatile boolean set;
-	private volatile T value;
-	private final Object lock = new Object();
-	private final List<Requirement<? super T>> requirements;
-	private final boolean allowNull;
+	/* The value set, NULL if set to null, or null if unset. This single member holds the whole state of the instance:
+	 * it is only ever written once, by a CAS from null, and read with acquire semantics, which is enough to see the
+	 * value as it was when published */
+	private Object value;
+	/* The thread computing the value in orElseSet, if any. Only compared against the current thread, which can never
+	 * see itself here unless it is actually computing the value */
+	private volatile Thread initializer;
+	/* The top of the stack of the threads parked until the value is published, or the end of its computation, and of
+	 * the actions to run on publication. Replaced by RELEASED when the value is published */
+	private volatile Waiter waiters;
+	/* Shared with all the instances declared with the same requirements */
+	private final RequirementSet requirements;
 
 
 	/**
@@ -29,7 +78,7 @@ public class StableField<T> {
 	 * @param requirements The requirements that the value must meet before being set
 	 *
 	 * @throws NullPointerException     if any parameter is {@code null}
-	 * @throws IllegalArgumentException if name is empty
+	 * @throws IllegalArgumentException if name is empty, or the requirements cannot all be met by any value
 	 */
 	@SafeVarargs
 	public StableField(String name, Requirement<? super T>... requirements) {
@@ -40,56 +89,66 @@ public class StableField<T> {
 			throw new IllegalArgumentException("Cannot have an empty name");
 		}
 		this.name = name;
-		List<Requirement<? super T>> reqs = Arrays.asList(requirements);
-		if (reqs.contains(null)) {
-			throw new NullPointerException(name + "cannot have a null requirement");
-		}
-		allowNull = reqs.contains(Requirements.ALLOW_NULL);
-		this.requirements = new ArrayList<>(reqs);
-		if (allowNull) {
-			/* We don't need to store this requirement */
-			this.requirements.remove(Requirements.ALLOW_NULL);
+		for (Requirement<? super T> r : requirements) {
+			if (r == null) {
+				throw new NullPointerException(name + "cannot have a null requirement");
+			}
 		}
+		this.requirements = RequirementSet.of(requirements);
 	}
 
 	/* Ensure that the given value is eligible for being contained by this instance. Does not check whether this
 	 * instance already contains a value. */
 	private void checkValueToSet(T value) {
 		if (value == null) {
-			if (!allowNull) {
+			if (!requirements.allowsNull()) {
 				throw new NullPointerException(name + "cannot bet set to null");
 			}
 			/* Do not iterate over requirements: they do not apply to a null value */
 		} else if (value == this) {
 			throw new IllegalArgumentException(name + "cannot be set to itself");
 		} else {
-			for (Requirement<? super T> r : requirements) {
-				r.check(value);
-			}
+			requirements.check(value);
 		}
 	}
 
+	/**
+	 * Indicate whether the given value is eligible for being set, i.e. whether it meets the requirements of this
+	 * instance. Whether a value has already been set is not taken into account.
+	 *
+	 * Unlike the setters, this method does not throw an exception when the value is rejected. Requirements created
+	 * from a predicate only evaluate it, which makes this method suitable for validating large volumes of input.
+	 *
+	 * @param value The value to check
+	 *
+	 * @return {@code true} if the value could be passed to {@link #set(Object)} without causing an
+	 *         {@link IllegalArgumentException} or a {@link NullPointerException}
+	 */
+	public boolean isAcceptable(T value) {
+		if (value == null) {
+			return requirements.allowsNull();
+		}
+		return value != this && requirements.test(value);
+	}
+
 	/**
 	 * Initialize the instance's value, or fail if has already been set.
 	 *
 	 * @param value The value to set
 	 *
-	 * @throws IllegalStateException    if the value has already been initialized
+	 * @throws IllegalStateException    if the value has already been initialized, or if called from the supplier of
+	 *                                  {@link #orElseSet(Supplier)} on the same instance
 	 * @throws IllegalArgumentException if value is {@code this}
 =	 * @throws NullPointerException     if value is {@code null} and this instance does not
 	 *                                  {@linkplain Requirements#ALLOW_NULL allow nulls}
 =	 */
 	public void set(T value) {
 		checkValueToSet(value);
-		if (set) {
-			throw new IllegalStateException(name + " is already set");
+		if (initializer == Thread.currentThread()) {
+			throw new IllegalStateException(name + " is being computed");
 		}
-		synchronized (lock) {
-			if (set) {
-				throw new IllegalStateException(name + " is already set");
-			}
-			this.value = value;
-			set = true;
+		if (!publish(value)) {
+			throw new IllegalStateException(name + " is already set");
 		}
 	}
 
@@ -98,7 +157,8 @@ public class StableField<T> {
 	 *
 	 * @param value The value to set
 	 *
-	 * @return {@code true} if the value was actually set, {@code false} if it was already set
+	 * @return {@code true} if the value was actually set, {@code false} if it was already set, or if called from the
+	 *         supplier of {@link #orElseSet(Supplier)} on the same instance
 	 *
 	 * @throws IllegalArgumentException if value is {@code this}
 =	 * @throws NullPointerException     if value is {@code null} and this instance does not
@@ -106,17 +166,531 @@ public class StableField<T> {
 =	 */
 	public boolean trySet(T value) {
 		checkValueToSet(value);
-		if (set) {
-			return false;
+		return initializer != Thread.currentThread() && publish(value);
+	}
+
+	/* Store the value and make it visible to other threads, if no other value has been. The value is read before the
+	 * CAS so that losers fail without requesting the ownership of the cache line */
+	private boolean publish(T value) {
+		if (VALUE.getAcquire(this) == null && VALUE.compareAndSet(this, null, value == null ? NULL : value)) {
+			release((Waiter) WAITERS.getAndSet(this, RELEASED));
+			return true;
+		}
+		return false;
+	}
+
+	/* Read the raw content of the value member: null if unset, NULL if set to null */
+	private Object peek() {
+		return VALUE.getAcquire(this);
+	}
+
+	/* Convert a raw, non-null content of the value member to the value set */
+	@SuppressWarnings("unchecked")
+	private static <T> T unwrap(Object value) {
+		return value == NULL ? null : (T) value;
+	}
+
+	/**
+	 * Retrieve the instance's value, computing and setting it first if it has not been set.
+	 *
+	 * The supplier is called at most once per successful initialization: threads calling this method while the value
+	 * is being computed wait for the computation to end, and then return the value computed. The computed value must
+	 * meet the same requirements as a value passed to {@link #set(Object)}. If a setter succeeds while the value is
+	 * being computed, the computed value is discarded and the one set is returned instead.
+	 *
+	 * If the supplier throws an exception, or returns a value that does not meet the requirements, the exception is
+	 * propagated to the caller and the instance is left unset; a later call will invoke its supplier again.
+	 *
+	 * The supplier must not access this instance's setters or call this method on the same instance, even through the
+	 * suppliers of other fields: such a cycle is reported by an exception naming the fields computed in it. A cycle
+	 * between threads, each waiting for a field computed by the next one, is reported likewise if the system property
+	 * {@code io.github.moonstroke.once.detectDeadlocks} is set to {@code true}; otherwise, the threads wait forever.
+	 *
+	 * @param supplier The function computing the value to set, called only if the value is not set
+	 *
+	 * @return the value set, either beforehand or by this call
+	 *
+	 * @throws NullPointerException     if supplier is {@code null}, or if it returns {@code null} and this instance
+	 *                                  does not {@linkplain Requirements#ALLOW_NULL allow nulls}
+	 * @throws IllegalArgumentException if the supplier returns {@code this}, or a value that does not meet a
+	 *                                  requirement
+	 * @throws IllegalStateException    if the supplier calls this method on the same instance, directly or not, or if
+	 *                                  the detection of cycles between threads is enabled and waiting for the
+	 *                                  computation would close one
+	 */
+	public T orElseSet(Supplier<? extends T> supplier) {
+		Objects.requireNonNull(supplier);
+		Thread current = Thread.currentThread();
+		for (;;) {
+			Object v = peek();
+			if (v != null) {
+				return unwrap(v);
+			}
+			Thread owner = initializer;
+			if (owner == null) {
+				if (INITIALIZER.compareAndSet(this, null, current)) {
+					ComputationTracker.enter(this);
+					try {
+						return compute(supplier);
+					} finally {
+						ComputationTracker.exit();
+						initializer = null;
+						wakeUpWaiters();
+					}
+				}
+			} else if (owner == current) {
+				throw ComputationTracker.reentry(this);
+			} else {
+				ComputationTracker.beforeWait(this);
+				try {
+					awaitComputation();
+				} finally {
+					ComputationTracker.afterWait();
+				}
+			}
+		}
+	}
+
+	/* Call the supplier and publish its result, unless a value has been set in the meantime. Must only be called by
+	 * the thread that won the initializer member. In case of a race with a setter, the value that won is returned */
+	private T compute(Supplier<? extends T> supplier) {
+		Object v = peek();
+		if (v == null) {
+			T value = supplier.get();
+			checkValueToSet(value);
+			if (publish(value)) {
+				return value;
+			}
+			v = peek();
+		}
+		return unwrap(v);
+	}
+
+	/* Wait for the end of the pending computation. Interrupts are deferred until then */
+	private void awaitComputation() {
+		Waiter waiter = null;
+		boolean interrupted = false;
+		while (initializer != null && peek() == null) {
+			if (waiter == null) {
+				waiter = new Waiter(Thread.currentThread(), null);
+				if (!push(waiter)) {
+					break;
+				}
+				/* Check again, now that the thread is visible to the one ending the computation */
+				continue;
+			}
+			LockSupport.park(this);
+			interrupted |= Thread.interrupted();
 		}
-		synchronized (lock) {
-			if (set) {
+		if (waiter != null) {
+			waiter.thread = null;
+			removeCancelled();
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/* Push an entry onto the stack, unless the value has been published, in which case return false. The cancelled
+	 * entries, of the threads that gave up and of the actions unregistered, are dropped from the top of the stack on
+	 * the way */
+	private boolean push(Waiter waiter) {
+		for (;;) {
+			Waiter top = waiters;
+			if (top == RELEASED) {
 				return false;
 			}
-			this.value = value;
-			set = true;
+			Waiter next = top;
+			while (next != null && next.isCancelled()) {
+				next = next.next;
+			}
+			waiter.next = next;
+			if (WAITERS.compareAndSet(this, top, waiter)) {
+				return true;
+			}
+		}
+	}
+
+	/* Unlink the cancelled entries from the whole stack, unless the value has been published. The links are only
+	 * rewritten to skip cancelled entries, so that a concurrent traversal misses none of the others; a race with
+	 * another removal restarts the traversal */
+	private void removeCancelled() {
+		retry:
+		for (;;) {
+			Waiter top = waiters;
+			if (top == RELEASED) {
+				return;
+			}
+			Waiter pred = null;
+			for (Waiter w = top; w != null; w = w.next) {
+				if (!w.isCancelled()) {
+					pred = w;
+				} else if (pred != null) {
+					pred.next = w.next;
+					if (pred.isCancelled()) {
+						continue retry;
+					}
+				} else if (!WAITERS.compareAndSet(this, w, w.next)) {
+					continue retry;
+				}
+			}
+			return;
+		}
+	}
+
+	/* Wake up the threads waiting for the end of a computation that did not publish a value. Their entries are left
+	 * on the stack, for those that keep waiting for the value */
+	private void wakeUpWaiters() {
+		Waiter top = waiters;
+		if (top != RELEASED) {
+			for (Waiter w = top; w != null; w = w.next) {
+				Thread thread = w.thread;
+				if (thread != null) {
+					LockSupport.unpark(thread);
+				}
+			}
+		}
+	}
+
+	/* Wake up the waiting threads and run the actions registered, in the order of their registration, once the value
+	 * is published. The stack, detached from the instance, is not modified: a concurrent removal of cancelled entries
+	 * may still be rewriting its links */
+	private void release(Waiter top) {
+		List<Waiter> entries = new ArrayList<>();
+		for (Waiter w = top; w != null; w = w.next) {
+			entries.add(w);
+		}
+		for (int i = entries.size() - 1; i >= 0; --i) {
+			Waiter w = entries.get(i);
+			Thread thread = w.thread;
+			if (thread != null) {
+				LockSupport.unpark(thread);
+			} else {
+				Consumer<Object> action = w.claim();
+				if (action != null) {
+					runAction(action);
+				}
+			}
+		}
+	}
+
+	/* Run an action registered before the value was set. Its exception is reported to the handler of the current
+	 * thread, so that it affects neither the setter nor the other actions */
+	private void runAction(Consumer<Object> action) {
+		try {
+			action.accept(unwrap(peek()));
+		} catch (RuntimeException e) {
+			Thread current = Thread.currentThread();
+			current.getUncaughtExceptionHandler().uncaughtException(current, e);
 		}
-		return true;
+	}
+
+	/**
+	 * Retrieve the instance's value, waiting for it to be set if needed.
+	 *
+	 * Once the value is set, this method costs no more than {@link #get()}. Until then, the calling thread is parked
+	 * without holding any lock, which does not pin a virtual thread to its carrier.
+	 *
+	 * @return the value set
+	 *
+	 * @throws InterruptedException  if the current thread is interrupted while waiting
+	 * @throws IllegalStateException if called from the supplier of {@link #orElseSet(Supplier)} on the same instance
+	 */
+	public T await() throws InterruptedException {
+		Object v = peek();
+		if (v == null) {
+			v = awaitValue(false, 0L);
+		}
+		return unwrap(v);
+	}
+
+	/**
+	 * Retrieve the instance's value, waiting at most the given duration for it to be set if needed.
+	 *
+	 * @param timeout The maximum duration to wait
+	 *
+	 * @return the value set
+	 *
+	 * @throws NullPointerException  if timeout is {@code null}
+	 * @throws InterruptedException  if the current thread is interrupted while waiting
+	 * @throws TimeoutException      if the value is still unset after the given duration
+	 * @throws IllegalStateException if called from the supplier of {@link #orElseSet(Supplier)} on the same instance
+	 */
+	public T await(Duration timeout) throws InterruptedException, TimeoutException {
+		Objects.requireNonNull(timeout);
+		Object v = peek();
+		if (v == null) {
+			v = awaitValue(true, saturatedNanos(timeout));
+			if (v == null) {
+				throw new TimeoutException(name + " has not been set in " + timeout);
+			}
+		}
+		return unwrap(v);
+	}
+
+	private static long saturatedNanos(Duration duration) {
+		try {
+			return duration.toNanos();
+		} catch (ArithmeticException e) {
+			return duration.isNegative() ? Long.MIN_VALUE : Long.MAX_VALUE;
+		}
+	}
+
+	/* Park until the value is published and return its raw content, or null on timeout. The remaining time is kept
+	 * relative, as an absolute deadline would overflow for extreme durations */
+	private Object awaitValue(boolean timed, long nanos) throws InterruptedException {
+		if (initializer == Thread.currentThread()) {
+			throw ComputationTracker.reentry(this);
+		}
+		if (timed && nanos <= 0L) {
+			return peek();
+		}
+		long last = timed ? System.nanoTime() : 0L;
+		Waiter waiter = new Waiter(Thread.currentThread(), null);
+		if (!push(waiter)) {
+			return peek();
+		}
+		try {
+			for (;;) {
+				Object v = peek();
+				if (v != null) {
+					return v;
+				}
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+				if (timed) {
+					if (nanos <= 0L) {
+						return null;
+					}
+					LockSupport.parkNanos(this, nanos);
+					long now = System.nanoTime();
+					nanos -= now - last;
+					last = now;
+				} else {
+					LockSupport.park(this);
+				}
+			}
+		} finally {
+			waiter.thread = null;
+			removeCancelled();
+		}
+	}
+
+	/**
+	 * Register an action to run with the value, once set.
+	 *
+	 * If the value is already set, the action is run immediately by the calling thread. Otherwise, it is run by the
+	 * thread that sets the value, right after publishing it, the actions being run in the order of their registration;
+	 * an exception thrown by the action is then reported to the {@linkplain Thread.UncaughtExceptionHandler handler}
+	 * of that thread, and does not affect the setter. The registration does not use any lock.
+	 *
+	 * The action should be short: a long computation is better submitted to an executor.
+	 *
+	 * @param action The action to run with the value
+	 *
+	 * @throws NullPointerException if action is {@code null}
+	 */
+	public void onSet(Consumer<? super T> action) {
+		Objects.requireNonNull(action);
+		if (pushAction(action) == null) {
+			action.accept(unwrap(peek()));
+		}
+	}
+
+	/**
+	 * Register an action to run with the value, once set, like {@link #onSet(Consumer)}, and return the means to
+	 * unregister it. The entry of an unregistered action is removed from the instance, so that neither the action nor
+	 * what it refers to remain reachable from it.
+	 *
+	 * @param action The action to run with the value
+	 *
+	 * @return a task unregistering the action, which does nothing if the action has already been run
+	 */
+	Runnable register(Consumer<? super T> action) {
+		Waiter waiter = pushAction(action);
+		if (waiter == null) {
+			action.accept(unwrap(peek()));
+			return () -> {};
+		}
+		return () -> removeAction(waiter);
+	}
+
+	/* Push the entry of an action to run on publication, and return it, or null if the value is already set */
+	@SuppressWarnings("unchecked")
+	private Waiter pushAction(Consumer<? super T> action) {
+		if (peek() != null) {
+			return null;
+		}
+		Waiter waiter = new Waiter(null, (Consumer<Object>) action);
+		return push(waiter) ? waiter : null;
+	}
+
+	/* Cancel the entry of an action, and remove it from the stack */
+	private void removeAction(Waiter waiter) {
+		waiter.claim();
+		removeCancelled();
+	}
+
+	/* Register the completion of the future with the value, and return the entry of the completion, or null if the
+	 * future has been completed at once. The entry is removed once the future is completed or cancelled */
+	private Waiter completeOnSet(CompletableFuture<T> future) {
+		Waiter waiter = pushAction(future::complete);
+		if (waiter == null) {
+			future.complete(unwrap(peek()));
+		} else {
+			future.whenComplete((value, failure) -> removeAction(waiter));
+		}
+		return waiter;
+	}
+
+	/**
+	 * Return a future completed with the value, once set.
+	 *
+	 * Each call returns a new future, which its caller alone can complete or cancel without affecting this instance.
+	 * No future is held by the instance otherwise: a future completed or cancelled before the value is set is no
+	 * longer referenced by the instance.
+	 *
+	 * @return a future of the value, already completed if the value is set
+	 */
+	public CompletableFuture<T> toCompletableFuture() {
+		Object v = peek();
+		if (v != null) {
+			return CompletableFuture.completedFuture(unwrap(v));
+		}
+		CompletableFuture<T> future = new CompletableFuture<>();
+		completeOnSet(future);
+		return future;
+	}
+
+	/**
+	 * Return a publisher of the value, once set.
+	 *
+	 * Each subscriber receives the value once it is set and has been requested, and is then completed. A value set to
+	 * {@code null}, which publishers cannot emit, completes the subscribers without any item.
+	 *
+	 * @return a publisher emitting the value, then completing
+	 */
+	public Flow.Publisher<T> toPublisher() {
+		return new StableFieldPublisher<>(this);
+	}
+
+	/**
+	 * Return a method handle retrieving the value, that the JIT compiler can fold into a constant once it is set.
+	 *
+	 * The handle takes no argument and returns an {@link Object}: it is called with
+	 * {@code (Object) getter.invokeExact()}, then cast to the type of the value. Until the value is set, it behaves
+	 * like {@link #get()} and fails with a {@link NoSuchElementException}; once set, it returns the value. The handle
+	 * of a set instance is a constant; that of an unset one is the dynamic invoker of a {@link MutableCallSite}, whose
+	 * target is replaced by the constant value on publication, the code compiled against the former target being
+	 * deoptimized at this single transition.
+	 *
+	 * The value is only folded into the code calling the handle if the handle is itself a constant to the JIT compiler,
+	 * that is held in a {@code static final} field. Each call returns a new handle, to be kept by the caller; the
+	 * instance only refers weakly to the call site of the handle, which is collected with it if dropped before the
+	 * value is set.
+	 *
+	 * @return a method handle of type {@code ()Object} returning the value
+	 */
+	public MethodHandle getter() {
+		Object v = peek();
+		if (v != null) {
+			return MethodHandles.constant(Object.class, unwrap(v));
+		}
+		MutableCallSite site = new MutableCallSite(GET.bindTo(this));
+		onSet(new Retarget(site));
+		return site.dynamicInvoker();
+	}
+
+	/**
+	 * Set the instance's value from the first of several suppliers to produce a valid one, calling them in parallel on
+	 * the given executor.
+	 *
+	 * Each supplier is submitted to the executor, and its result is passed to {@link #trySet(Object)}: the first
+	 * result that meets the requirements is set, and the later ones are ignored. The suppliers not started yet when the
+	 * value is set are not called at all; those already running are left to complete, their result being discarded.
+	 * This hedges the latency of redundant sources, such as a primary and a replica, at the cost of the extra calls.
+	 *
+	 * The future returned is completed with the value, once set, be it by a supplier or by another setter. It is
+	 * completed exceptionally with an {@link IllegalStateException} only if every supplier fails, by throwing an
+	 * exception, returning a value that does not meet the requirements, or being rejected by the executor, and the
+	 * instance is still unset; the failures are attached to it as suppressed exceptions, in the order of the suppliers.
+	 * The completion of the future once every supplier has failed races with the publication of a value by another
+	 * setter: whichever comes first decides the outcome of the future, the value being set regardless.
+	 *
+	 * @param executor  The executor running the suppliers
+	 * @param suppliers The suppliers of the value, in order of preference
+	 *
+	 * @return a future of the value set
+	 *
+	 * @throws NullPointerException     if executor, suppliers or any supplier is {@code null}
+	 * @throws IllegalArgumentException if no supplier is given
+	 */
+	public CompletableFuture<T> setFromFirst(Executor executor, Collection<? extends Supplier<? extends T>> suppliers) {
+		Objects.requireNonNull(executor);
+		List<Supplier<? extends T>> candidates = List.copyOf(suppliers);
+		if (candidates.isEmpty()) {
+			throw new IllegalArgumentException("cannot set " + name + " from no supplier");
+		}
+		CompletableFuture<T> future = new CompletableFuture<>();
+		Waiter completion = completeOnSet(future);
+		if (completion == null) {
+			return future;
+		}
+		int count = candidates.size();
+		AtomicReferenceArray<RuntimeException> failures = new AtomicReferenceArray<>(count);
+		AtomicInteger remaining = new AtomicInteger(count);
+		for (int i = 0; i < count; ++i) {
+			int index = i;
+			Supplier<? extends T> supplier = candidates.get(i);
+			Runnable task = () -> {
+				try {
+					if (peek() == null) {
+						trySet(supplier.get());
+					}
+				} catch (RuntimeException e) {
+					failures.set(index, e);
+				} finally {
+					if (remaining.decrementAndGet() == 0) {
+						failIfUnset(future, completion, failures);
+					}
+				}
+			};
+			try {
+				executor.execute(task);
+			} catch (RejectedExecutionException e) {
+				failures.set(index, e);
+				if (remaining.decrementAndGet() == 0) {
+					failIfUnset(future, completion, failures);
+				}
+			}
+		}
+		return future;
+	}
+
+	/* Complete the future with the failures of the suppliers, unless a value has been set. Called once every supplier
+	 * has finished: if the value is still unset, none of them produced a valid one. The completion is claimed from the
+	 * publication first, so that the future is completed by a single path: if the publication claimed it, the future
+	 * is or will be completed with the value; otherwise the value is checked after the claim, and a value published
+	 * later no longer completes the future */
+	private void failIfUnset(CompletableFuture<T> future, Waiter completion,
+	                         AtomicReferenceArray<RuntimeException> failures) {
+		if (completion.claim() == null) {
+			return;
+		}
+		Object v = peek();
+		if (v != null) {
+			future.complete(unwrap(v));
+			return;
+		}
+		IllegalStateException e = new IllegalStateException(name + " could not be set by any supplier");
+		for (int i = 0; i < failures.length(); ++i) {
+			RuntimeException failure = failures.get(i);
+			if (failure != null) {
+				e.addSuppressed(failure);
+			}
+		}
+		future.completeExceptionally(e);
 	}
 
 	/**
@@ -127,10 +701,11 @@ public class StableField<T> {
 	 * @throws NoSuchElementException if the value was not initialized
 	 */
 	public T get() {
-		if (!set) {
+		Object v = peek();
+		if (v == null) {
 			throw new NoSuchElementException(name + " has not been set");
 		}
-		return value;
+		return unwrap(v);
 	}
 
 	/**
@@ -141,7 +716,23 @@ public class StableField<T> {
 	 * @return the value set, or the default one if unset
 	 */
 	public T get(T defaultValue) {
-		return set ? value : defaultValue;
+		Object v = peek();
+		return v == null ? defaultValue : unwrap(v);
+	}
+
+	/* The name of the field, for the messages of the other classes of the package */
+	String name() {
+		return name;
+	}
+
+	/* The thread computing the value in orElseSet, if any, for the other classes of the package */
+	Thread computingThread() {
+		return initializer;
+	}
+
+	/* Indicate whether the value is set, for the other classes of the package */
+	boolean isSet() {
+		return peek() != null;
 	}
 
 	/**
@@ -151,7 +742,7 @@ public class StableField<T> {
 	 */
 	@Override
 	public int hashCode() {
-		return Objects.hash(name, value);
+		return Objects.hash(name, get(null));
 	}
 
 	/**
@@ -179,7 +770,7 @@ public class StableField<T> {
 			return false;
 		}
 		StableField<?> other = (StableField<?>) o;
-		return name.equals(other.name) && Objects.equals(value, ((StableField<?>) o).value);
+		return name.equals(other.name) && Objects.equals(get(null), ((StableField<?>) o).get(null));
 	}
 
 	/**
@@ -197,12 +788,75 @@ public class StableField<T> {
 		sb.append('"');
 		sb.append(' ');
 		sb.append('(');
-		if (!set) {
+		Object v = peek();
+		if (v == null) {
 			sb.append("not set");
 		} else {
-			sb.append(value.toString());
+			Object value = unwrap(v);
+			sb.append(value);
 		}
 		sb.append(')');
 		return sb.toString();
 	}
+
+	/* An entry of the stack of waiters: either a parked thread, cleared when it stops waiting, or an action to run
+	 * on publication, cleared when unregistered. An entry whose action retargets a call site already collected is
+	 * cancelled as well */
+	private static final class Waiter {
+
+		private static final VarHandle ACTION;
+
+		static {
+			try {
+				ACTION = MethodHandles.lookup().findVarHandle(Waiter.class, "action", Consumer.class);
+			} catch (ReflectiveOperationException e) {
+				throw new ExceptionInInitializerError(e);
+			}
+		}
+
+		volatile Thread thread;
+		volatile Consumer<Object> action;
+		volatile Waiter next;
+
+		Waiter(Thread thread, Consumer<Object> action) {
+			this.thread = thread;
+			this.action = action;
+		}
+
+		/* Take the action out of the entry, so that it is run, or dropped, only once. Return null if the action has
+		 * already been taken */
+		Consumer<Object> claim() {
+			Consumer<Object> a = action;
+			return a != null && ACTION.compareAndSet(this, a, null) ? a : null;
+		}
+
+		boolean isCancelled() {
+			if (thread != null) {
+				return false;
+			}
+			Consumer<Object> a = action;
+			return a == null || (a instanceof Retarget && ((Retarget) a).site.get() == null);
+		}
+	}
+
+	/* The action replacing the target of the call site of a getter by the constant value, on publication */
+	private static final class Retarget implements Consumer<Object> {
+
+		/* Weak, so that the call site of a dropped getter can be collected before the value is set */
+		final WeakReference<MutableCallSite> site;
+
+		Retarget(MutableCallSite site) {
+			this.site = new WeakReference<>(site);
+		}
+
+		@Override
+		public void accept(Object value) {
+			MutableCallSite s = site.get();
+			if (s != null) {
+				s.setTarget(MethodHandles.constant(Object.class, value));
+				/* The former target still returns the value: this only spares its callers the extra reads */
+				MutableCallSite.syncAll(new MutableCallSite[] { s });
+			}
+		}
+	}
 }
@@ -0,0 +1,142 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+
+/**
+ * A publisher of the value of a {@link StableField}, emitting it once set, then completing.
+ *
+ * Each subscription waits for two events, in any order: the request of an item by the subscriber, and the publication
+ * of the value, notified through {@link StableField#onSet}. Each event sets a bit of the subscription state with a
+ * CAS; the thread that completes the state emits the value, exactly once, without any lock.
+ *
+ * @param <T> The type of the value
+ */
+final class StableFieldPublisher<T> implements Flow.Publisher<T> {
+
+	private final StableField<T> field;
+
+
+	StableFieldPublisher(StableField<T> field) {
+		this.field = field;
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super T> subscriber) {
+		Objects.requireNonNull(subscriber);
+		Subscription<T> subscription = new Subscription<>(subscriber);
+		subscriber.onSubscribe(subscription);
+		subscription.registered(field.register(subscription::valueSet));
+	}
+
+	private static final class Subscription<T> implements Flow.Subscription {
+
+		private static final int REQUESTED = 1;
+		private static final int SET = 2;
+		/* The subscriber has been signaled its termination, or has cancelled the subscription */
+		private static final int DONE = 4;
+
+		private static final VarHandle STATE;
+
+		static {
+			try {
+				STATE = MethodHandles.lookup().findVarHandle(Subscription.class, "state", int.class);
+			} catch (ReflectiveOperationException e) {
+				throw new ExceptionInInitializerError(e);
+			}
+		}
+
+		private final Flow.Subscriber<? super T> subscriber;
+		private volatile int state;
+		/* Unregisters the action of the subscription from the field, once registered */
+		private volatile Runnable unregister;
+		/* Written before the SET bit, and read after it */
+		private T value;
+
+		Subscription(Flow.Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		/* Keep the means to unregister the action of the subscription, and use it at once if the subscription has been
+		 * terminated in the meantime */
+		void registered(Runnable unregister) {
+			this.unregister = unregister;
+			if ((state & DONE) != 0) {
+				unregister.run();
+			}
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				if (terminate()) {
+					unregister();
+					subscriber.onError(new IllegalArgumentException("non-positive request: " + n));
+				}
+			} else if (signal(REQUESTED)) {
+				emit();
+			}
+		}
+
+		@Override
+		public void cancel() {
+			/* Only drop the value if the subscription was not already done: otherwise, it may be about to be emitted */
+			if (terminate()) {
+				value = null;
+			}
+			unregister();
+		}
+
+		/* Remove the action of the subscription from the field, so that a terminated subscription is not kept reachable
+		 * from an unset field */
+		private void unregister() {
+			Runnable u = unregister;
+			if (u != null) {
+				u.run();
+			}
+		}
+
+		void valueSet(T value) {
+			this.value = value;
+			if (signal(SET)) {
+				emit();
+			}
+		}
+
+		private void emit() {
+			T v = value;
+			value = null;
+			if (v != null) {
+				subscriber.onNext(v);
+			}
+			subscriber.onComplete();
+		}
+
+		/* Add the given event to the state, and return whether it completes the state, which makes the caller
+		 * responsible for emitting the value */
+		private boolean signal(int event) {
+			for (;;) {
+				int s = state;
+				if ((s & (event | DONE)) != 0) {
+					return false;
+				}
+				int next = s | event;
+				if (next == (REQUESTED | SET)) {
+					next |= DONE;
+				}
+				if (STATE.compareAndSet(this, s, next)) {
+					return (next & DONE) != 0;
+				}
+			}
+		}
+
+		/* Mark the subscription as terminated, and return whether it was not already */
+		private boolean terminate() {
+			return ((int) STATE.getAndBitwiseOr(this, DONE) & DONE) == 0;
+		}
+	}
+}
@@ -0,0 +1,399 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A graph of stable fields computed from each other, initialized in parallel.
+ *
+ * Each field is declared with the supplier computing its value and the fields that the supplier reads. The graph is
+ * then initialized at once: each supplier is submitted to an executor as soon as the fields it depends on are set,
+ * so that independent fields are computed in parallel and the whole initialization takes as long as the longest chain
+ * of dependencies, given enough threads. The values are set with {@link StableField#orElseSet(Supplier)}: a field
+ * already set keeps its value, and the suppliers are only called when the graph is initialized.
+ *
+ * The declarations are not thread-safe: a graph is meant to be declared by a single thread, then initialized once.
+ */
+public class StableGraph {
+
+	/* The nodes, in declaration order, and indexed by their field. The fields are compared by identity, since they
+	 * compare by value */
+	private final List<Node<?>> nodes = new ArrayList<>();
+	private final Map<StableField<?>, Node<?>> index = new IdentityHashMap<>();
+	private boolean initialized;
+
+
+	/**
+	 * Create a graph without any field.
+	 */
+	public StableGraph() {}
+
+	/**
+	 * Declare a field of the graph.
+	 *
+	 * @param <T>          The type of the field
+	 * @param field        The field to initialize
+	 * @param supplier     The function computing the value of the field, which may read the dependencies
+	 * @param dependencies The fields that must be set before the supplier is called
+	 *
+	 * @return this graph
+	 *
+	 * @throws NullPointerException     if any parameter or dependency is {@code null}
+	 * @throws IllegalArgumentException if the field is already declared
+	 * @throws IllegalStateException    if the graph has been initialized
+	 */
+	public <T> StableGraph declare(StableField<T> field, Supplier<? extends T> supplier,
+	                               StableField<?>... dependencies) {
+		Objects.requireNonNull(field);
+		Objects.requireNonNull(supplier);
+		for (StableField<?> dependency : dependencies) {
+			Objects.requireNonNull(dependency);
+		}
+		if (initialized) {
+			throw new IllegalStateException("the graph has already been initialized");
+		}
+		if (index.containsKey(field)) {
+			throw new IllegalArgumentException(field.name() + " is already declared");
+		}
+		Node<T> node = new Node<>(field, supplier, List.of(dependencies));
+		nodes.add(node);
+		index.put(field, node);
+		return this;
+	}
+
+	/**
+	 * Initialize the fields of the graph, running the suppliers on the given executor in topological order.
+	 *
+	 * The dependencies are checked before any supplier is called: a cycle, or a dependency on a field that is neither
+	 * declared in the graph nor set, is reported by an exception and leaves all the fields unset.
+	 *
+	 * The future returned is completed with a report of the initialization once all the fields are set. If a supplier
+	 * fails, the fields depending on it, directly or not, are left unset, the others being initialized anyway; the
+	 * future is then completed exceptionally with an {@link IllegalStateException}, to which the failures are attached
+	 * as suppressed exceptions, in declaration order.
+	 *
+	 * @param executor The executor running the suppliers
+	 *
+	 * @return a future of the report of the initialization
+	 *
+	 * @throws NullPointerException  if executor is {@code null}
+	 * @throws IllegalStateException if the graph has a cycle or a dependency neither declared nor set, or if it has
+	 *                               already been initialized
+	 */
+	public CompletableFuture<Report> initialize(Executor executor) {
+		Objects.requireNonNull(executor);
+		if (initialized) {
+			throw new IllegalStateException("the graph has already been initialized");
+		}
+		List<Node<?>> order = sort();
+		initialized = true;
+		Run run = new Run(executor, order);
+		List<Node<?>> ready = new ArrayList<>();
+		for (Node<?> node : order) {
+			if (node.pending.get() == 0) {
+				ready.add(node);
+			}
+		}
+		if (nodes.isEmpty()) {
+			run.complete();
+		}
+		for (Node<?> node : ready) {
+			run.submit(node);
+		}
+		return run.result;
+	}
+
+	/* Resolve the dependencies into edges, and sort the nodes topologically, with Kahn's algorithm */
+	private List<Node<?>> sort() {
+		for (Node<?> node : nodes) {
+			node.dependents.clear();
+		}
+		int[] inDegrees = new int[nodes.size()];
+		for (int i = 0; i < nodes.size(); ++i) {
+			Node<?> node = nodes.get(i);
+			for (StableField<?> field : node.dependencies) {
+				Node<?> dependency = index.get(field);
+				if (dependency != null) {
+					dependency.dependents.add(node);
+					++inDegrees[i];
+				} else if (!field.isSet()) {
+					throw new IllegalStateException(node.field.name() + " depends on " + field.name()
+					                                + ", which is neither declared nor set");
+				}
+			}
+		}
+		Map<Node<?>, Integer> positions = new IdentityHashMap<>();
+		for (int i = 0; i < nodes.size(); ++i) {
+			positions.put(nodes.get(i), i);
+		}
+		int[] remaining = inDegrees.clone();
+		Deque<Node<?>> queue = new ArrayDeque<>();
+		for (int i = 0; i < nodes.size(); ++i) {
+			if (remaining[i] == 0) {
+				queue.add(nodes.get(i));
+			}
+		}
+		List<Node<?>> order = new ArrayList<>(nodes.size());
+		while (!queue.isEmpty()) {
+			Node<?> node = queue.remove();
+			order.add(node);
+			for (Node<?> dependent : node.dependents) {
+				if (--remaining[positions.get(dependent)] == 0) {
+					queue.add(dependent);
+				}
+			}
+		}
+		if (order.size() < nodes.size()) {
+			throw new IllegalStateException("cycle in the dependencies: " + findCycle(remaining, positions));
+		}
+		for (int i = 0; i < nodes.size(); ++i) {
+			nodes.get(i).pending.set(inDegrees[i]);
+		}
+		return order;
+	}
+
+	/* Describe a cycle among the nodes left unsorted, by following their dependencies until a node is met again */
+	private String findCycle(int[] remaining, Map<Node<?>, Integer> positions) {
+		Node<?> node = null;
+		for (int i = 0; node == null; ++i) {
+			if (remaining[i] > 0) {
+				node = nodes.get(i);
+			}
+		}
+		List<Node<?>> path = new ArrayList<>();
+		while (!path.contains(node)) {
+			path.add(node);
+			for (StableField<?> field : node.dependencies) {
+				Node<?> dependency = index.get(field);
+				if (dependency != null && remaining[positions.get(dependency)] > 0) {
+					node = dependency;
+					break;
+				}
+			}
+		}
+		/* The path was followed from the dependents to their dependencies: report it in the other direction */
+		List<Node<?>> cycle = new ArrayList<>(path.subList(path.indexOf(node), path.size()));
+		Collections.reverse(cycle);
+		/* Start from the first node declared, for a stable description */
+		int first = 0;
+		for (int i = 1; i < cycle.size(); ++i) {
+			if (positions.get(cycle.get(i)) < positions.get(cycle.get(first))) {
+				first = i;
+			}
+		}
+		Collections.rotate(cycle, -first);
+		StringJoiner description = new StringJoiner(" -> ");
+		for (Node<?> n : cycle) {
+			description.add(n.field.name());
+		}
+		description.add(cycle.get(0).field.name());
+		return description.toString();
+	}
+
+	/* The state of an initialization of the graph */
+	private final class Run {
+
+		final Executor executor;
+		/* The nodes in topological order */
+		final List<Node<?>> order;
+		final CompletableFuture<Report> result = new CompletableFuture<>();
+		final long start = System.nanoTime();
+		/* The nodes not finished yet, successfully or not */
+		final AtomicInteger unfinished = new AtomicInteger(nodes.size());
+
+		Run(Executor executor, List<Node<?>> order) {
+			this.executor = executor;
+			this.order = order;
+		}
+
+		void submit(Node<?> node) {
+			try {
+				executor.execute(() -> execute(node));
+			} catch (RejectedExecutionException e) {
+				node.failure = e;
+				finish(node);
+			}
+		}
+
+		private void execute(Node<?> node) {
+			node.start = System.nanoTime();
+			try {
+				node.compute();
+			} catch (RuntimeException e) {
+				node.failure = e;
+			}
+			node.end = System.nanoTime();
+			finish(node);
+		}
+
+		/* Release the dependents of a finished node, or skip them if it failed */
+		private void finish(Node<?> node) {
+			if (node.failure == null) {
+				for (Node<?> dependent : node.dependents) {
+					if (dependent.pending.decrementAndGet() == 0) {
+						submit(dependent);
+					}
+				}
+			} else {
+				skip(node.dependents);
+			}
+			if (unfinished.decrementAndGet() == 0) {
+				complete();
+			}
+		}
+
+		/* Mark the dependents of a failed node as finished without running them. A dependent reached through several
+		 * paths is only counted once, when its pending count is first made negative */
+		private void skip(List<Node<?>> dependents) {
+			for (Node<?> dependent : dependents) {
+				if (dependent.pending.getAndSet(-1) >= 0) {
+					skip(dependent.dependents);
+					unfinished.decrementAndGet();
+				}
+			}
+		}
+
+		void complete() {
+			IllegalStateException failure = null;
+			for (Node<?> node : nodes) {
+				if (node.failure != null) {
+					if (failure == null) {
+						failure = new IllegalStateException("the graph could not be initialized");
+					}
+					failure.addSuppressed(node.failure);
+				}
+			}
+			if (failure != null) {
+				result.completeExceptionally(failure);
+			} else {
+				result.complete(new Report(System.nanoTime() - start, criticalPath()));
+			}
+		}
+
+		/* Find the chain of dependencies whose computations take the longest in total */
+		private List<Node<?>> criticalPath() {
+			Map<Node<?>, Long> lengths = new IdentityHashMap<>();
+			Map<Node<?>, Node<?>> predecessors = new IdentityHashMap<>();
+			Node<?> last = null;
+			for (Node<?> node : order) {
+				long longest = 0L;
+				for (StableField<?> field : node.dependencies) {
+					Node<?> dependency = index.get(field);
+					if (dependency != null && lengths.get(dependency) > longest) {
+						longest = lengths.get(dependency);
+						predecessors.put(node, dependency);
+					}
+				}
+				long length = longest + node.end - node.start;
+				lengths.put(node, length);
+				if (last == null || length > lengths.get(last)) {
+					last = node;
+				}
+			}
+			List<Node<?>> path = new ArrayList<>();
+			for (Node<?> node = last; node != null; node = predecessors.get(node)) {
+				path.add(node);
+			}
+			Collections.reverse(path);
+			return path;
+		}
+	}
+
+	/* A declared field, with its dependencies and the measures of its computation */
+	private static final class Node<T> {
+
+		final StableField<T> field;
+		final Supplier<? extends T> supplier;
+		final List<StableField<?>> dependencies;
+		/* Resolved when the graph is initialized */
+		final List<Node<?>> dependents = new ArrayList<>();
+		/* The number of dependencies not set yet, or -1 if one failed */
+		final AtomicInteger pending = new AtomicInteger();
+		/* Written before the node is finished, and read after all the nodes are */
+		long start;
+		long end;
+		volatile RuntimeException failure;
+
+		Node(StableField<T> field, Supplier<? extends T> supplier, List<StableField<?>> dependencies) {
+			this.field = field;
+			this.supplier = supplier;
+			this.dependencies = dependencies;
+		}
+
+		void compute() {
+			field.orElseSet(supplier);
+		}
+	}
+
+	/**
+	 * The report of the initialization of a graph.
+	 */
+	public static final class Report {
+
+		private final Duration elapsed;
+		private final List<String> criticalPath;
+		private final Duration criticalPathDuration;
+
+		private Report(long elapsedNanos, List<Node<?>> path) {
+			elapsed = Duration.ofNanos(elapsedNanos);
+			List<String> names = new ArrayList<>(path.size());
+			long nanos = 0L;
+			for (Node<?> node : path) {
+				names.add(node.field.name());
+				nanos += node.end - node.start;
+			}
+			criticalPath = Collections.unmodifiableList(names);
+			criticalPathDuration = Duration.ofNanos(nanos);
+		}
+
+		/**
+		 * Return the time taken by the initialization, from its start to the setting of the last field.
+		 *
+		 * @return the duration of the initialization
+		 */
+		public Duration elapsed() {
+			return elapsed;
+		}
+
+		/**
+		 * Return the names of the fields of the critical path: the chain of dependencies whose suppliers took the
+		 * longest in total, from the first computed to the last. No initialization of the graph can take less time
+		 * than this chain, whatever the number of threads.
+		 *
+		 * @return the names of the fields on the critical path, empty if the graph has no fields
+		 */
+		public List<String> criticalPath() {
+			return criticalPath;
+		}
+
+		/**
+		 * Return the total time taken by the suppliers of the critical path.
+		 *
+		 * @return the duration of the critical path
+		 */
+		public Duration criticalPathDuration() {
+			return criticalPathDuration;
+		}
+
+		@Override
+		public String toString() {
+			return "initialized in " + elapsed + ", critical path " + String.join(" -> ", criticalPath) + " in "
+			       + criticalPathDuration;
+		}
+	}
+}
@@ -0,0 +1,311 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A group of values that can only be set once, all together.
+ *
+ * The values are held by the {@linkplain Member members} of the group, declared with their name and requirements
+ * like stable fields. They are set at once, by a {@link Values} batch: every value is checked against the
+ * requirements of its member first, then the batch is published by a single compare-and-set of an array holding all
+ * the values. Readers therefore see either none of the values, or all of them; reading a member is a single memory
+ * read with acquire semantics, followed by an array access.
+ *
+ * The members are declared before any batch is created: the first batch seals the group, and a member declared
+ * concurrently is either part of it, or rejected. The group is thread-safe.
+ */
+public class StableGroup {
+
+	private static final VarHandle VALUES;
+
+	static {
+		try {
+			VALUES = MethodHandles.lookup().findVarHandle(StableGroup.class, "values", Object[].class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	/* The name of the group. Used in error messages and toString representation */
+	private final String name;
+	/* The members declared, guarded by the group until it is sealed */
+	private final List<Member<?>> members = new ArrayList<>();
+	/* The members, by index, copied when the first batch is created, or null until then: they can no longer change */
+	private volatile Member<?>[] sealed;
+	/* The values of the members, by index, or null if unset. Only ever written once, by a CAS from null */
+	private Object[] values;
+
+
+	/**
+	 * Create a group of given name, without any member.
+	 *
+	 * @param name The name of the group
+	 *
+	 * @throws NullPointerException     if name is {@code null}
+	 * @throws IllegalArgumentException if name is empty
+	 */
+	public StableGroup(String name) {
+		if (name == null) {
+			throw new NullPointerException("Cannot have a null name");
+		}
+		if (name.isEmpty()) {
+			throw new IllegalArgumentException("Cannot have an empty name");
+		}
+		this.name = name;
+	}
+
+	/**
+	 * Declare a member of the group.
+	 *
+	 * @param <T>          The type of the value of the member
+	 * @param name         The name of the member
+	 * @param requirements The requirements that the value must meet before being set
+	 *
+	 * @return the member declared
+	 *
+	 * @throws NullPointerException     if any parameter is {@code null}
+	 * @throws IllegalArgumentException if name is empty, or the requirements cannot all be met by any value
+	 * @throws IllegalStateException    if a batch of values has already been created
+	 */
+	@SafeVarargs
+	public final <T> Member<T> member(String name, Requirement<? super T>... requirements) {
+		if (name == null) {
+			throw new NullPointerException("Cannot have a null name");
+		}
+		if (name.isEmpty()) {
+			throw new IllegalArgumentException("Cannot have an empty name");
+		}
+		for (Requirement<? super T> r : requirements) {
+			if (r == null) {
+				throw new NullPointerException(name + " cannot have a null requirement");
+			}
+		}
+		RequirementSet set = RequirementSet.of(requirements);
+		synchronized (this) {
+			if (sealed != null) {
+				throw new IllegalStateException(this.name + " cannot have members added once its values are being set");
+			}
+			Member<T> member = new Member<>(this, name, members.size(), set);
+			members.add(member);
+			return member;
+		}
+	}
+
+	/**
+	 * Create a batch of values to set, for all the members of the group.
+	 *
+	 * @return an empty batch
+	 */
+	public Values values() {
+		return new Values(seal());
+	}
+
+	/* Fix the members of the group, if not already done, and return them */
+	private Member<?>[] seal() {
+		Member<?>[] m = sealed;
+		if (m == null) {
+			synchronized (this) {
+				m = sealed;
+				if (m == null) {
+					m = members.toArray(new Member<?>[0]);
+					sealed = m;
+				}
+			}
+		}
+		return m;
+	}
+
+	/**
+	 * Indicate whether the values of the group are set.
+	 *
+	 * @return {@code true} if the values are set
+	 */
+	public boolean isSet() {
+		return VALUES.getAcquire(this) != null;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(getClass().getName());
+		sb.append(' ');
+		sb.append('"');
+		sb.append(name);
+		sb.append('"');
+		sb.append(' ');
+		Object[] v = (Object[]) VALUES.getAcquire(this);
+		if (v == null) {
+			sb.append("(not set)");
+		} else {
+			/* Sealed before the values were set */
+			Member<?>[] m = sealed;
+			sb.append('{');
+			for (int i = 0; i < v.length; ++i) {
+				if (i > 0) {
+					sb.append(", ");
+				}
+				sb.append(m[i].name);
+				sb.append('=');
+				sb.append(v[i]);
+			}
+			sb.append('}');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * A member of a {@link StableGroup}, holding one of its values.
+	 *
+	 * @param <T> The type of the value
+	 */
+	public static final class Member<T> {
+
+		private final StableGroup group;
+		private final String name;
+		private final int index;
+		/* Shared with all the fields and members declared with the same requirements */
+		private final RequirementSet requirements;
+
+		private Member(StableGroup group, String name, int index, RequirementSet requirements) {
+			this.group = group;
+			this.name = name;
+			this.index = index;
+			this.requirements = requirements;
+		}
+
+		/* Ensure that the given value is eligible for being held by this member */
+		private void checkValueToSet(T value) {
+			if (value == null) {
+				if (!requirements.allowsNull()) {
+					throw new NullPointerException(name + " cannot be set to null");
+				}
+			} else {
+				requirements.check(value);
+			}
+		}
+
+		/**
+		 * Retrieve the value of the member, or fail if the values of the group have not been set.
+		 *
+		 * @return the value set
+		 *
+		 * @throws NoSuchElementException if the values were not set
+		 */
+		@SuppressWarnings("unchecked")
+		public T get() {
+			Object[] v = (Object[]) VALUES.getAcquire(group);
+			if (v == null) {
+				throw new NoSuchElementException(name + " has not been set");
+			}
+			return (T) v[index];
+		}
+
+		/**
+		 * Retrieve the value of the member, or return the provided default if the values of the group are unset.
+		 *
+		 * @param defaultValue The default value, {@code null} accepted
+		 *
+		 * @return the value set, or the default one if unset
+		 */
+		@SuppressWarnings("unchecked")
+		public T get(T defaultValue) {
+			Object[] v = (Object[]) VALUES.getAcquire(group);
+			return v == null ? defaultValue : (T) v[index];
+		}
+
+		@Override
+		public String toString() {
+			return group.name + "." + name;
+		}
+	}
+
+	/**
+	 * A batch of values for the members of a {@link StableGroup}, set all at once.
+	 *
+	 * A batch is meant to be filled and set by a single thread.
+	 */
+	public final class Values {
+
+		private final Member<?>[] members;
+		private final Object[] batch;
+		private final boolean[] given;
+
+		private Values(Member<?>[] members) {
+			this.members = members;
+			batch = new Object[members.length];
+			given = new boolean[members.length];
+		}
+
+		/**
+		 * Give the value of a member.
+		 *
+		 * @param <T>    The type of the value
+		 * @param member The member of the group
+		 * @param value  The value of the member
+		 *
+		 * @return this batch
+		 *
+		 * @throws NullPointerException     if member is {@code null}
+		 * @throws IllegalArgumentException if the member does not belong to the group, or has already been given a
+		 *                                  value in this batch
+		 */
+		public <T> Values with(Member<T> member, T value) {
+			Objects.requireNonNull(member);
+			if (member.group != StableGroup.this) {
+				throw new IllegalArgumentException(member + " is not a member of " + name);
+			}
+			if (given[member.index]) {
+				throw new IllegalArgumentException(member.name + " is already given a value");
+			}
+			batch[member.index] = value;
+			given[member.index] = true;
+			return this;
+		}
+
+		/**
+		 * Set the values of the group, or fail if they have already been set.
+		 *
+		 * @throws IllegalStateException    if a member has not been given a value, or if the values of the group have
+		 *                                  already been set
+		 * @throws IllegalArgumentException if a value does not meet a requirement of its member
+		 * @throws NullPointerException     if a value is {@code null} and its member does not
+		 *                                  {@linkplain Requirements#ALLOW_NULL allow nulls}
+		 */
+		public void set() {
+			if (!trySet()) {
+				throw new IllegalStateException(name + " is already set");
+			}
+		}
+
+		/**
+		 * Set the values of the group and return whether the operation succeeded.
+		 *
+		 * @return {@code true} if the values were actually set, {@code false} if they were already set
+		 *
+		 * @throws IllegalStateException    if a member has not been given a value
+		 * @throws IllegalArgumentException if a value does not meet a requirement of its member
+		 * @throws NullPointerException     if a value is {@code null} and its member does not
+		 *                                  {@linkplain Requirements#ALLOW_NULL allow nulls}
+		 */
+		@SuppressWarnings("unchecked")
+		public boolean trySet() {
+			for (int i = 0; i < batch.length; ++i) {
+				Member<Object> member = (Member<Object>) members[i];
+				if (!given[i]) {
+					throw new IllegalStateException(member.name + " has not been given a value");
+				}
+				member.checkValueToSet(batch[i]);
+			}
+			/* A copy, so that the batch cannot alter the values published */
+			return VALUES.getAcquire(StableGroup.this) == null
+			       && VALUES.compareAndSet(StableGroup.this, null, batch.clone());
+		}
+	}
+}
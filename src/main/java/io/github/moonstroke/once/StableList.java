@@ -0,0 +1,333 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * A fixed-size sequence of slots, each of which can be initialized only once.
+ *
+ * Each slot behaves as a {@link StableField} of its own, but all the values are held in a single array, without a
+ * container object per slot.
+ *
+ * @param <T> The type of the elements
+ */
+public class StableList<T> {
+
+	/* Stands for a null element that has been set, the null reference itself meaning that the slot is unset */
+	private static final Object NULL = new Object();
+
+	private static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle(Object[].class);
+	private static final VarHandle COMPUTATION = MethodHandles.arrayElementVarHandle(Computation[].class);
+	private static final VarHandle COMPUTATIONS;
+
+	static {
+		try {
+			COMPUTATIONS = MethodHandles.lookup().findVarHandle(StableList.class, "computations", Computation[].class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	/* The name of the list. Used in error messages and toString representation */
+	private final String name;
+	/* The elements set, NULL for those set to null, and null for those unset. Each slot is only ever written once, by
+	 * a CAS from null, and read with acquire semantics */
+	private final Object[] elements;
+	/* The computations of the elements in progress in orElseSet, by index. Only allocated on the first call to that
+	 * method */
+	private volatile Computation[] computations;
+	/* Shared with all the instances declared with the same requirements */
+	private final RequirementSet requirements;
+
+
+	/**
+	 * Create a list of given name and size, whose elements can only be set once.
+	 *
+	 * @param name         The name of the list
+	 * @param size         The number of elements of the list
+	 * @param requirements The requirements that each element must meet before being set
+	 *
+	 * @throws NullPointerException     if name, requirements or any requirement is {@code null}
+	 * @throws IllegalArgumentException if name is empty, size is negative, or the requirements cannot all be met by any
+	 *                                  value
+	 */
+	@SafeVarargs
+	public StableList(String name, int size, Requirement<? super T>... requirements) {
+		if (name == null) {
+			throw new NullPointerException("Cannot have a null name");
+		}
+		if (name.isEmpty()) {
+			throw new IllegalArgumentException("Cannot have an empty name");
+		}
+		if (size < 0) {
+			throw new IllegalArgumentException("Cannot have a negative size");
+		}
+		this.name = name;
+		for (Requirement<? super T> r : requirements) {
+			if (r == null) {
+				throw new NullPointerException(name + " cannot have a null requirement");
+			}
+		}
+		elements = new Object[size];
+		this.requirements = RequirementSet.of(requirements);
+	}
+
+	/* Ensure that the given value is eligible for being contained by this instance. Does not check whether the slot
+	 * already contains a value. */
+	private void checkElementToSet(int index, T element) {
+		if (element == null) {
+			if (!requirements.allowsNull()) {
+				throw new NullPointerException(name + "[" + index + "] cannot be set to null");
+			}
+		} else if (element == this) {
+			throw new IllegalArgumentException(name + "[" + index + "] cannot be set to its list");
+		} else {
+			requirements.check(element);
+		}
+	}
+
+	/**
+	 * Return the number of elements of the list, set or not.
+	 *
+	 * @return the size of the list
+	 */
+	public int size() {
+		return elements.length;
+	}
+
+	/**
+	 * Initialize the element at the given index, or fail if it has already been set.
+	 *
+	 * @param index   The index of the element to set
+	 * @param element The value to set
+	 *
+	 * @throws IndexOutOfBoundsException if index is negative, or not less than the size of the list
+	 * @throws IllegalStateException     if the element has already been initialized, or if called from the function
+	 *                                   of {@link #orElseSet(int, IntFunction)} for the same index
+	 * @throws IllegalArgumentException  if element is {@code this}, or does not meet a requirement
+	 * @throws NullPointerException      if element is {@code null} and this instance does not
+	 *                                   {@linkplain Requirements#ALLOW_NULL allow nulls}
+	 */
+	public void set(int index, T element) {
+		Objects.checkIndex(index, elements.length);
+		checkElementToSet(index, element);
+		if (isComputedByCurrentThread(index)) {
+			throw new IllegalStateException(name + "[" + index + "] is being computed");
+		}
+		if (!publish(index, element)) {
+			throw new IllegalStateException(name + "[" + index + "] is already set");
+		}
+	}
+
+	/**
+	 * Initialize the element at the given index and return whether the operation succeeded.
+	 *
+	 * @param index   The index of the element to set
+	 * @param element The value to set
+	 *
+	 * @return {@code true} if the element was actually set, {@code false} if it was already set, or if called from the
+	 *         function of {@link #orElseSet(int, IntFunction)} for the same index
+	 *
+	 * @throws IndexOutOfBoundsException if index is negative, or not less than the size of the list
+	 * @throws IllegalArgumentException  if element is {@code this}, or does not meet a requirement
+	 * @throws NullPointerException      if element is {@code null} and this instance does not
+	 *                                   {@linkplain Requirements#ALLOW_NULL allow nulls}
+	 */
+	public boolean trySet(int index, T element) {
+		Objects.checkIndex(index, elements.length);
+		checkElementToSet(index, element);
+		return !isComputedByCurrentThread(index) && publish(index, element);
+	}
+
+	/* Store the element and make it visible to other threads, if no other value has been, then wake up the threads
+	 * waiting for a computation of the element in progress. The slot is read before the CAS so that losers fail
+	 * without requesting the ownership of the cache line */
+	private boolean publish(int index, T element) {
+		if (ELEMENT.getAcquire(elements, index) == null
+		    && ELEMENT.compareAndSet(elements, index, null, element == null ? NULL : element)) {
+			Computation c = computationOf(index);
+			if (c != null) {
+				c.release();
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/* Read the raw content of the slot at the given index: null if unset, NULL if set to null */
+	private Object peek(int index) {
+		return ELEMENT.getAcquire(elements, index);
+	}
+
+	/* Convert a raw, non-null content of a slot to the element set */
+	@SuppressWarnings("unchecked")
+	private static <T> T unwrap(Object element) {
+		return element == NULL ? null : (T) element;
+	}
+
+	/* Retrieve the computation of the element at the given index in progress, if any */
+	private Computation computationOf(int index) {
+		Computation[] comps = computations;
+		return comps == null ? null : (Computation) COMPUTATION.getVolatile(comps, index);
+	}
+
+	private boolean isComputedByCurrentThread(int index) {
+		Computation c = computationOf(index);
+		return c != null && c.owner == Thread.currentThread();
+	}
+
+	/* Retrieve the array of computations, allocating it if needed */
+	private Computation[] getComputations() {
+		Computation[] comps = computations;
+		if (comps == null) {
+			COMPUTATIONS.compareAndSet(this, null, new Computation[elements.length]);
+			comps = computations;
+		}
+		return comps;
+	}
+
+	/**
+	 * Retrieve the element at the given index, computing and setting it first if it has not been set.
+	 *
+	 * The function is called at most once per index and per successful initialization: threads calling this method
+	 * for an index whose element is being computed wait for the computation to end, and then return the element
+	 * computed; computations of distinct indices run independently. The computed element must meet the same
+	 * requirements as an element passed to {@link #set(int, Object)}. If a setter succeeds while the element is being
+	 * computed, the computed element is discarded and the one set is returned instead.
+	 *
+	 * If the function throws an exception, or returns an element that does not meet the requirements, the exception is
+	 * propagated to the caller and the element is left unset; a later call will invoke its function again.
+	 *
+	 * @param index    The index of the element to retrieve
+	 * @param function The function computing the element to set from its index, called only if it is not set
+	 *
+	 * @return the element at the given index, either set beforehand or by this call
+	 *
+	 * @throws IndexOutOfBoundsException if index is negative, or not less than the size of the list
+	 * @throws NullPointerException      if function is {@code null}, or if it returns {@code null} and this instance
+	 *                                   does not {@linkplain Requirements#ALLOW_NULL allow nulls}
+	 * @throws IllegalArgumentException  if the function returns {@code this}, or an element that does not meet a
+	 *                                   requirement
+	 * @throws IllegalStateException     if the function calls this method for the same index
+	 */
+	public T orElseSet(int index, IntFunction<? extends T> function) {
+		Objects.checkIndex(index, elements.length);
+		Objects.requireNonNull(function);
+		Object e = peek(index);
+		if (e != null) {
+			return unwrap(e);
+		}
+		Computation[] comps = getComputations();
+		Thread current = Thread.currentThread();
+		Computation mine = null;
+		for (;;) {
+			e = peek(index);
+			if (e != null) {
+				return unwrap(e);
+			}
+			Computation c = (Computation) COMPUTATION.getVolatile(comps, index);
+			if (c == null) {
+				if (mine == null) {
+					mine = new Computation();
+				}
+				if (COMPUTATION.compareAndSet(comps, index, null, mine)) {
+					try {
+						return compute(index, function);
+					} finally {
+						COMPUTATION.setVolatile(comps, index, null);
+						mine.release();
+					}
+				}
+			} else if (c.owner == current) {
+				throw new IllegalStateException(name + "[" + index + "] is already being computed");
+			} else {
+				c.await(this);
+			}
+		}
+	}
+
+	/* Call the function and publish its result, unless an element has been set in the meantime. Must only be called
+	 * by the thread that won the computation slot. In case of a race with a setter, the element that won is
+	 * returned */
+	private T compute(int index, IntFunction<? extends T> function) {
+		Object e = peek(index);
+		if (e == null) {
+			T element = function.apply(index);
+			checkElementToSet(index, element);
+			if (publish(index, element)) {
+				return element;
+			}
+			e = peek(index);
+		}
+		return unwrap(e);
+	}
+
+	/**
+	 * Retrieve the element at the given index, or fail if it has not been set.
+	 *
+	 * @param index The index of the element to retrieve
+	 *
+	 * @return the element set
+	 *
+	 * @throws IndexOutOfBoundsException if index is negative, or not less than the size of the list
+	 * @throws NoSuchElementException    if the element was not initialized
+	 */
+	public T get(int index) {
+		Object e = peek(index);
+		if (e == null) {
+			throw new NoSuchElementException(name + "[" + index + "] has not been set");
+		}
+		return unwrap(e);
+	}
+
+	/**
+	 * Retrieve the element at the given index, or return the provided default if unset.
+	 *
+	 * @param index        The index of the element to retrieve
+	 * @param defaultValue The default value, {@code null} accepted
+	 *
+	 * @return the element set, or the default value if unset
+	 *
+	 * @throws IndexOutOfBoundsException if index is negative, or not less than the size of the list
+	 */
+	public T get(int index, T defaultValue) {
+		Object e = peek(index);
+		return e == null ? defaultValue : unwrap(e);
+	}
+
+	/**
+	 * Return a string representation of this object.
+	 *
+	 * @return a String representation of this object
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(getClass().getName());
+		sb.append(' ');
+		sb.append('"');
+		sb.append(name);
+		sb.append('"');
+		sb.append(' ');
+		sb.append('[');
+		for (int i = 0; i < elements.length; ++i) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			Object e = peek(i);
+			if (e == null) {
+				sb.append("not set");
+			} else {
+				Object element = unwrap(e);
+				sb.append(element);
+			}
+		}
+		sb.append(']');
+		return sb.toString();
+	}
+}
@@ -0,0 +1,317 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * A concurrent mapping of keys to values that can each be initialized only once.
+ *
+ * Each key behaves as a {@link StableField} of its own, but the values are held directly in a concurrent hash table,
+ * without a container object per key: reading the value of a key that has been set takes a single, lock-free lookup
+ * that does not allocate.
+ *
+ * The keys accepted can be any non-null object, or be restricted to a fixed domain, given at construction.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+public class StableMap<K, V> {
+
+	/* Stands for a null value that has been set, since the hash tables do not accept null values */
+	private static final Object NULL = new Object();
+
+	/* The name of the map. Used in error messages and toString representation */
+	private final String name;
+	/* The keys accepted, or null if all keys are */
+	private final Set<K> domain;
+	/* The values set, NULL for those set to null. A mapping is only ever added, never replaced nor removed */
+	private final ConcurrentMap<K, Object> values;
+	/* The computations of the values in progress in orElseSet, by key */
+	private final ConcurrentMap<K, Computation> computations = new ConcurrentHashMap<>();
+	/* Shared with all the instances declared with the same requirements */
+	private final RequirementSet requirements;
+
+
+	/**
+	 * Create a map of given name, accepting any key, whose values can only be set once.
+	 *
+	 * @param name         The name of the map
+	 * @param requirements The requirements that each value must meet before being set
+	 *
+	 * @throws NullPointerException     if name, requirements or any requirement is {@code null}
+	 * @throws IllegalArgumentException if name is empty, or the requirements cannot all be met by any value
+	 */
+	@SafeVarargs
+	public StableMap(String name, Requirement<? super V>... requirements) {
+		this(name, null, new ConcurrentHashMap<>(), requirements);
+	}
+
+	/**
+	 * Create a map of given name, accepting only the given keys, whose values can only be set once.
+	 *
+	 * @param name         The name of the map
+	 * @param keys         The keys accepted by the map
+	 * @param requirements The requirements that each value must meet before being set
+	 *
+	 * @throws NullPointerException     if name, keys, any key, requirements or any requirement is {@code null}
+	 * @throws IllegalArgumentException if name is empty, or the requirements cannot all be met by any value
+	 */
+	@SafeVarargs
+	public StableMap(String name, Set<? extends K> keys, Requirement<? super V>... requirements) {
+		this(name, Set.copyOf(keys), new ConcurrentHashMap<>(keys.size()), requirements);
+	}
+
+	private StableMap(String name, Set<K> domain, ConcurrentMap<K, Object> values,
+	                  Requirement<? super V>[] requirements) {
+		if (name == null) {
+			throw new NullPointerException("Cannot have a null name");
+		}
+		if (name.isEmpty()) {
+			throw new IllegalArgumentException("Cannot have an empty name");
+		}
+		this.name = name;
+		for (Requirement<? super V> r : requirements) {
+			if (r == null) {
+				throw new NullPointerException(name + " cannot have a null requirement");
+			}
+		}
+		this.domain = domain;
+		this.values = values;
+		this.requirements = RequirementSet.of(requirements);
+	}
+
+	/* Ensure that the given key and value are eligible for being contained by this instance. Does not check whether
+	 * the key is already mapped. */
+	private void checkEntryToSet(K key, V value) {
+		Objects.requireNonNull(key);
+		if (domain != null && !domain.contains(key)) {
+			throw new IllegalArgumentException(name + " does not accept the key " + key);
+		}
+		if (value == null) {
+			if (!requirements.allowsNull()) {
+				throw new NullPointerException(name + "[" + key + "] cannot be set to null");
+			}
+		} else if (value == this) {
+			throw new IllegalArgumentException(name + "[" + key + "] cannot be set to its map");
+		} else {
+			requirements.check(value);
+		}
+	}
+
+	/* Convert a raw, non-null mapped value to the value set */
+	@SuppressWarnings("unchecked")
+	private static <V> V unwrap(Object value) {
+		return value == NULL ? null : (V) value;
+	}
+
+	/* Store the value and make it visible to other threads, if no other value has been, then wake up the threads
+	 * waiting for a computation of the value in progress. The table is read before the insertion, which locks the bin
+	 * of the key */
+	private boolean publish(K key, V value) {
+		if (!values.containsKey(key) && values.putIfAbsent(key, value == null ? NULL : value) == null) {
+			Computation c = computations.get(key);
+			if (c != null) {
+				c.release();
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Initialize the value of the given key, or fail if it has already been set.
+	 *
+	 * @param key   The key whose value to set
+	 * @param value The value to set
+	 *
+	 * @throws IllegalStateException    if the value of the key has already been initialized, or if called from the
+	 *                                  function of {@link #orElseSet(Object, Function)} for the same key
+	 * @throws IllegalArgumentException if the key is not accepted by this instance, or if value is {@code this} or
+	 *                                  does not meet a requirement
+	 * @throws NullPointerException     if key is {@code null}, or value is {@code null} and this instance does not
+	 *                                  {@linkplain Requirements#ALLOW_NULL allow nulls}
+	 */
+	public void set(K key, V value) {
+		checkEntryToSet(key, value);
+		if (isComputedByCurrentThread(key)) {
+			throw new IllegalStateException(name + "[" + key + "] is being computed");
+		}
+		if (!publish(key, value)) {
+			throw new IllegalStateException(name + "[" + key + "] is already set");
+		}
+	}
+
+	/**
+	 * Initialize the value of the given key and return whether the operation succeeded.
+	 *
+	 * @param key   The key whose value to set
+	 * @param value The value to set
+	 *
+	 * @return {@code true} if the value was actually set, {@code false} if it was already set, or if called from the
+	 *         function of {@link #orElseSet(Object, Function)} for the same key
+	 *
+	 * @throws IllegalArgumentException if the key is not accepted by this instance, or if value is {@code this} or
+	 *                                  does not meet a requirement
+	 * @throws NullPointerException     if key is {@code null}, or value is {@code null} and this instance does not
+	 *                                  {@linkplain Requirements#ALLOW_NULL allow nulls}
+	 */
+	public boolean trySet(K key, V value) {
+		checkEntryToSet(key, value);
+		return !isComputedByCurrentThread(key) && publish(key, value);
+	}
+
+	private boolean isComputedByCurrentThread(K key) {
+		Computation c = computations.get(key);
+		return c != null && c.owner == Thread.currentThread();
+	}
+
+	/**
+	 * Retrieve the value of the given key, computing and setting it first if it has not been set.
+	 *
+	 * The function is called at most once per key and per successful initialization: threads calling this method for
+	 * a key whose value is being computed wait for the computation to end, and then return the value computed;
+	 * computations for distinct keys run independently. The computed value must meet the same requirements as a value
+	 * passed to {@link #set(Object, Object)}. If a setter succeeds while the value is being computed, the computed
+	 * value is discarded and the one set is returned instead.
+	 *
+	 * If the function throws an exception, or returns a value that does not meet the requirements, the exception is
+	 * propagated to the caller and the key is left unset; a later call will invoke its function again.
+	 *
+	 * @param key      The key whose value to retrieve
+	 * @param function The function computing the value to set from the key, called only if it is not set
+	 *
+	 * @return the value of the key, either set beforehand or by this call
+	 *
+	 * @throws NullPointerException     if key or function is {@code null}, or if the function returns {@code null} and
+	 *                                  this instance does not {@linkplain Requirements#ALLOW_NULL allow nulls}
+	 * @throws IllegalArgumentException if the key is not accepted by this instance, or if the function returns
+	 *                                  {@code this} or a value that does not meet a requirement
+	 * @throws IllegalStateException    if the function calls this method for the same key
+	 */
+	public V orElseSet(K key, Function<? super K, ? extends V> function) {
+		Objects.requireNonNull(key);
+		Objects.requireNonNull(function);
+		Object v = values.get(key);
+		if (v != null) {
+			return unwrap(v);
+		}
+		if (domain != null && !domain.contains(key)) {
+			throw new IllegalArgumentException(name + " does not accept the key " + key);
+		}
+		Computation mine = new Computation();
+		for (;;) {
+			Computation c = computations.putIfAbsent(key, mine);
+			if (c == null) {
+				try {
+					return compute(key, function);
+				} finally {
+					computations.remove(key, mine);
+					mine.release();
+				}
+			}
+			if (c.owner == mine.owner) {
+				throw new IllegalStateException(name + "[" + key + "] is already being computed");
+			}
+			c.await(this);
+			v = values.get(key);
+			if (v != null) {
+				return unwrap(v);
+			}
+		}
+	}
+
+	/* Call the function and publish its result, unless a value has been set in the meantime. Must only be called by
+	 * the thread whose computation is registered for the key. In case of a race with a setter, the value that won is
+	 * returned */
+	private V compute(K key, Function<? super K, ? extends V> function) {
+		Object v = values.get(key);
+		if (v == null) {
+			V value = function.apply(key);
+			checkEntryToSet(key, value);
+			if (publish(key, value)) {
+				return value;
+			}
+			v = values.get(key);
+		}
+		return unwrap(v);
+	}
+
+	/**
+	 * Retrieve the value of the given key, or fail if it has not been set.
+	 *
+	 * @param key The key whose value to retrieve
+	 *
+	 * @return the value set
+	 *
+	 * @throws NullPointerException   if key is {@code null}
+	 * @throws NoSuchElementException if the value of the key was not initialized
+	 */
+	public V get(K key) {
+		Object v = values.get(key);
+		if (v == null) {
+			throw new NoSuchElementException(name + "[" + key + "] has not been set");
+		}
+		return unwrap(v);
+	}
+
+	/**
+	 * Retrieve the value of the given key, or return the provided default if unset.
+	 *
+	 * @param key          The key whose value to retrieve
+	 * @param defaultValue The default value, {@code null} accepted
+	 *
+	 * @return the value set, or the default value if unset
+	 *
+	 * @throws NullPointerException if key is {@code null}
+	 */
+	public V get(K key, V defaultValue) {
+		Object v = values.get(key);
+		return v == null ? defaultValue : unwrap(v);
+	}
+
+	/**
+	 * Return the number of keys whose value has been set.
+	 *
+	 * @return the number of values set
+	 */
+	public int size() {
+		return values.size();
+	}
+
+	/**
+	 * Return a string representation of this object.
+	 *
+	 * @return a String representation of this object
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(getClass().getName());
+		sb.append(' ');
+		sb.append('"');
+		sb.append(name);
+		sb.append('"');
+		sb.append(' ');
+		sb.append('{');
+		boolean first = true;
+		for (Map.Entry<K, Object> entry : values.entrySet()) {
+			if (!first) {
+				sb.append(", ");
+			}
+			first = false;
+			Object value = unwrap(entry.getValue());
+			sb.append(entry.getKey());
+			sb.append('=');
+			sb.append(value);
+		}
+		sb.append('}');
+		return sb.toString();
+	}
+}
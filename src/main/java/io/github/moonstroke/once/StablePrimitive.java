@@ -0,0 +1,226 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * The state management shared by the containers of a single primitive value.
+ *
+ * A primitive has no spare value to stand for the unset state, so the state is held in a separate member, which
+ * guards the value: the value is written only by the thread that moved the state from {@code UNSET} to
+ * {@code PENDING}, and published by the release write that moves the state to {@code SET}. Reading the state with
+ * acquire semantics and finding it {@code SET} then guarantees that a plain read of the value sees it as published.
+ *
+ * The state only covers the write of the value, never its computation: the computation in progress, if any, is held
+ * in a member of its own, which only the other computations wait for. Like for {@link StableField}, a setter called
+ * during a computation therefore sets its value, and the computed value is discarded; the threads waiting for the
+ * computation are then woken up at once.
+ *
+ * Once the state has left {@code UNSET}, the value is set as far as the other writers are concerned: a setter that
+ * loses reports the value as already set, after waiting for its publication, which is a single write away and never
+ * waits for user code.
+ */
+abstract class StablePrimitive {
+
+	/* The possible values of the state member */
+	private static final int UNSET = 0;
+	private static final int PENDING = 1;
+	private static final int SET = 2;
+
+	private static final VarHandle STATE;
+	private static final VarHandle COMPUTATION;
+
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			STATE = lookup.findVarHandle(StablePrimitive.class, "state", int.class);
+			COMPUTATION = lookup.findVarHandle(StablePrimitive.class, "computation", Computation.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	/* The name of the field. Used in error messages and toString representation */
+	final String name;
+	/* Only ever moves forward, from UNSET to PENDING to SET */
+	private int state;
+	/* The computation of the value in progress, if any, whose owner has the exclusive right to compute the value, but
+	 * not to write it. Its owner is compared against the current thread, which can never see itself there unless it
+	 * is actually computing the value */
+	private volatile Computation computation;
+
+
+	StablePrimitive(String name) {
+		if (name == null) {
+			throw new NullPointerException("Cannot have a null name");
+		}
+		if (name.isEmpty()) {
+			throw new IllegalArgumentException("Cannot have an empty name");
+		}
+		this.name = name;
+	}
+
+	/**
+	 * Indicate whether the value has been published. When this method returns {@code true}, the value can be read.
+	 *
+	 * @return {@code true} if the value is set
+	 */
+	final boolean isSet() {
+		return (int) STATE.getAcquire(this) == SET;
+	}
+
+	/* Gain the exclusive right to write the value, if nobody else has. The state is read before the CAS so that losers
+	 * fail without requesting the ownership of the cache line */
+	private boolean acquire() {
+		return (int) STATE.getAcquire(this) == UNSET && STATE.compareAndSet(this, UNSET, PENDING);
+	}
+
+	/* Wait for the winner of the right to write the value to publish it. It does so right after writing it, so the
+	 * wait only lasts for a write, unless the winner is descheduled meanwhile */
+	private void awaitPublication() {
+		while (!isSet()) {
+			Thread.yield();
+		}
+	}
+
+	/* Indicate whether the current thread is computing the value */
+	private boolean isComputing() {
+		Computation c = computation;
+		return c != null && c.owner == Thread.currentThread();
+	}
+
+	/**
+	 * Gain the exclusive right to write the value for a setter, unless the current thread is computing the value, or
+	 * the value is already set.
+	 *
+	 * @return {@code true} if the current thread must now write the value and {@link #publish() publish} it,
+	 *         {@code false} if the value is set and can be read, or the current thread is computing it
+	 */
+	final boolean acquireForSet() {
+		if (isComputing()) {
+			return false;
+		}
+		if (acquire()) {
+			return true;
+		}
+		awaitPublication();
+		return false;
+	}
+
+	/**
+	 * Gain the exclusive right to write the value for a setter, or fail.
+	 *
+	 * @throws IllegalStateException if the value is already set, or the current thread is computing it
+	 */
+	final void acquireOrFail() {
+		if (isComputing()) {
+			throw new IllegalStateException(name + " is being computed");
+		}
+		if (!acquire()) {
+			awaitPublication();
+			throw new IllegalStateException(name + " is already set");
+		}
+	}
+
+	/**
+	 * Gain the exclusive right to compute the value, or wait for the value to be set by another thread.
+	 *
+	 * @return {@code true} if the current thread must now compute the value, then write it if
+	 *         {@link #acquireComputed()} allows it, and finally {@link #endComputation() end} the computation;
+	 *         {@code false} if the value is set and can be read
+	 *
+	 * @throws IllegalStateException if the current thread is already computing the value
+	 */
+	final boolean acquireForComputation() {
+		Thread current = Thread.currentThread();
+		Computation mine = null;
+		for (;;) {
+			if (isSet()) {
+				return false;
+			}
+			Computation c = computation;
+			if (c == null) {
+				if (mine == null) {
+					mine = new Computation();
+				}
+				if (COMPUTATION.compareAndSet(this, null, mine)) {
+					return true;
+				}
+			} else if (c.owner == current) {
+				throw new IllegalStateException(name + " is already being computed");
+			} else {
+				c.await(this);
+			}
+		}
+	}
+
+	/**
+	 * Gain the exclusive right to write the value computed, or wait for the value of a setter that won against the
+	 * computation to be published.
+	 *
+	 * @return {@code true} if the current thread must now write the value and {@link #publish() publish} it,
+	 *         {@code false} if the value is set and can be read
+	 */
+	final boolean acquireComputed() {
+		if (acquire()) {
+			return true;
+		}
+		awaitPublication();
+		return false;
+	}
+
+	/**
+	 * Make the value written visible to other threads, and wake up the threads waiting for a computation of the value
+	 * in progress. Must only be called after gaining the right to write it.
+	 */
+	final void publish() {
+		STATE.setRelease(this, SET);
+		Computation c = computation;
+		if (c != null) {
+			c.release();
+		}
+	}
+
+	/**
+	 * Give up the right to compute the value, once the computation has ended, whether it succeeded or not, and wake up
+	 * the threads waiting for it.
+	 */
+	final void endComputation() {
+		Computation c = computation;
+		computation = null;
+		c.release();
+	}
+
+	/**
+	 * Return the value as a string. Only called when the value is set.
+	 *
+	 * @return a String representation of the value
+	 */
+	abstract String valueToString();
+
+	/**
+	 * Return a string representation of this object.
+	 *
+	 * @return a String representation of this object
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(getClass().getName());
+		sb.append(' ');
+		sb.append('"');
+		sb.append(name);
+		sb.append('"');
+		sb.append(' ');
+		sb.append('(');
+		if (!isSet()) {
+			sb.append("not set");
+		} else {
+			sb.append(valueToString());
+		}
+		sb.append(')');
+		return sb.toString();
+	}
+}
@@ -0,0 +1,22 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once;
+
+/**
+ * An {@link IllegalArgumentException} that does not record its stack trace, making it as cheap to throw as to
+ * allocate.
+ */
+final class StacklessIllegalArgumentException extends IllegalArgumentException {
+
+	private static final long serialVersionUID = 1L;
+
+
+	StacklessIllegalArgumentException(String message) {
+		super(message);
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+}
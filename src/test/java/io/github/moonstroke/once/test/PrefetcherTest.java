@@ -0,0 +1,137 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.moonstroke.once.Prefetcher;
+import io.github.moonstroke.once.StableField;
+
+class PrefetcherTest {
+
+	@Test
+	void testStartComputesFieldsInBackgroundThread() {
+		StableField<String> sf = new StableField<>("field");
+		Thread[] computingThread = new Thread[1];
+		new Prefetcher().add(sf, () -> {
+			computingThread[0] = Thread.currentThread();
+			return "value";
+		}).start().join();
+		assertEquals("value", sf.get());
+		assertTrue(computingThread[0].isDaemon());
+		assertEquals(Thread.MIN_PRIORITY, computingThread[0].getPriority());
+	}
+
+	@Test
+	void testReaderWaitsForComputationInFlight() throws InterruptedException {
+		StableField<Object> sf = new StableField<>("field");
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Supplier<Object> supplier = () -> {
+			calls.incrementAndGet();
+			computing.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return new Object();
+		};
+		CompletableFuture<Void> prefetch = new Prefetcher().add(sf, supplier).start();
+		computing.await();
+		Object[] read = new Object[1];
+		Thread reader = new Thread(() -> read[0] = sf.orElseSet(supplier));
+		reader.start();
+		release.countDown();
+		reader.join();
+		prefetch.join();
+		assertEquals(1, calls.get());
+		assertSame(sf.get(), read[0]);
+	}
+
+	@Test
+	void testReaderTakesOverPrefetchNotStarted() {
+		StableField<Object> sf = new StableField<>("field");
+		AtomicInteger calls = new AtomicInteger();
+		Supplier<Object> supplier = () -> {
+			calls.incrementAndGet();
+			return new Object();
+		};
+		List<Runnable> queued = new ArrayList<>();
+		CompletableFuture<Void> prefetch = new Prefetcher(queued::add).add(sf, supplier).start();
+		Object read = sf.orElseSet(supplier);
+		queued.forEach(Runnable::run);
+		prefetch.join();
+		assertEquals(1, calls.get());
+		assertSame(read, sf.get());
+	}
+
+	@Test
+	void testFailedPrefetchLeavesFieldUnset() {
+		StableField<Object> sf = new StableField<>("field");
+		StableField<Object> other = new StableField<>("other");
+		CompletableFuture<Void> prefetch = new Prefetcher(Runnable::run).add(sf, () -> {
+			throw new IllegalStateException("unavailable");
+		}).add(other, Object::new).start();
+		CompletionException e = assertThrows(CompletionException.class, prefetch::join);
+		assertEquals("unavailable", e.getCause().getSuppressed()[0].getMessage());
+		assertNull(sf.get(null));
+		assertNotNull(other.get(null));
+	}
+
+	@Test
+	void testStartWithoutFieldsCompletes() {
+		assertNull(new Prefetcher().start().join());
+	}
+
+	@Test
+	void testAddRacingStartIsPrefetchedOrRejected() throws InterruptedException {
+		Prefetcher prefetcher = new Prefetcher(Runnable::run);
+		List<StableField<Object>> added = new ArrayList<>();
+		CountDownLatch adding = new CountDownLatch(1);
+		Thread adder = new Thread(() -> {
+			for (int i = 0;; ++i) {
+				StableField<Object> field = new StableField<>("field" + i);
+				try {
+					prefetcher.add(field, Object::new);
+				} catch (IllegalStateException e) {
+					return;
+				}
+				added.add(field);
+				adding.countDown();
+			}
+		});
+		adder.start();
+		adding.await();
+		CompletableFuture<Void> prefetch = prefetcher.start();
+		adder.join();
+		prefetch.join();
+		for (StableField<Object> field : added) {
+			assertNotNull(field.get(null), field.toString());
+		}
+	}
+
+	@Test
+	void testAddAfterStartFails() {
+		Prefetcher prefetcher = new Prefetcher();
+		prefetcher.start();
+		assertThrows(IllegalStateException.class, () -> prefetcher.add(new StableField<>("field"), Object::new));
+		assertThrows(IllegalStateException.class, prefetcher::start);
+	}
+}
@@ -1,10 +1,25 @@
 package io.github.moonstroke.once.test;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
 
 import org.junit.jupiter.api.Test;
 
+import io.github.moonstroke.once.DoubleRequirement;
+import io.github.moonstroke.once.IntRequirement;
+import io.github.moonstroke.once.LongRequirement;
 import io.github.moonstroke.once.Requirement;
+import io.github.moonstroke.once.Requirements;
+import io.github.moonstroke.once.StableField;
 
 class RequirementTest {
 
@@ -27,4 +42,283 @@ class RequirementTest {
 	void testRequirementFromPredicateMsgRejectsEmptyMessage() {
 		assertThrows(IllegalArgumentException.class, () -> Requirement.fromPredicate(o -> true, ""));
 	}
+
+	@Test
+	void testRequirementFromPredicateStacklessRejectsNullPredicate() {
+		assertThrows(NullPointerException.class, () -> Requirement.fromPredicate(null, "error message", false));
+	}
+
+	@Test
+	void testRequirementFromPredicateStacklessThrowsWithoutStackTrace() {
+		Requirement<Object> r = Requirement.fromPredicate(o -> false, "error message", false);
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> r.check(new Object()));
+		assertEquals("error message", e.getMessage());
+		assertEquals(0, e.getStackTrace().length);
+	}
+
+	@Test
+	void testRequirementFromPredicateThrowsWithStackTrace() {
+		Requirement<Object> r = Requirement.fromPredicate(o -> false, "error message");
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> r.check(new Object()));
+		assertNotEquals(0, e.getStackTrace().length);
+	}
+
+	@Test
+	void testRequirementFromPredicateTestReturnsPredicateResult() {
+		Requirement<String> r = Requirement.fromPredicate(String::isEmpty);
+		assertTrue(r.test(""));
+		assertFalse(r.test("value"));
+	}
+
+	@Test
+	void testRequirementTestReturnsFalseWhenCheckThrows() {
+		Requirement<Object> r = value -> {
+			throw new IllegalArgumentException();
+		};
+		assertFalse(r.test(new Object()));
+	}
+
+	@Test
+	void testRequirementTestReturnsTrueWhenCheckPasses() {
+		Requirement<Object> r = value -> {};
+		assertTrue(r.test(new Object()));
+	}
+
+	@Test
+	void testIntRequirementFromPredicateMsgRejectsNullPredicate() {
+		assertThrows(NullPointerException.class, () -> IntRequirement.fromPredicate(null, "error message"));
+	}
+
+	@Test
+	void testIntRequirementFromPredicateMsgRejectsEmptyMessage() {
+		assertThrows(IllegalArgumentException.class, () -> IntRequirement.fromPredicate(i -> true, ""));
+	}
+
+	@Test
+	void testLongRequirementFromPredicateMsgRejectsNullPredicate() {
+		assertThrows(NullPointerException.class, () -> LongRequirement.fromPredicate(null, "error message"));
+	}
+
+	@Test
+	void testDoubleRequirementFromPredicateMsgRejectsNullMessage() {
+		assertThrows(NullPointerException.class, () -> DoubleRequirement.fromPredicate(d -> true, null));
+	}
+
+	@Test
+	void testIntRequirementPositiveRejectsZero() {
+		assertThrows(IllegalArgumentException.class, () -> IntRequirement.POSITIVE.check(0));
+	}
+
+	@Test
+	void testLongRequirementNotNegativeAcceptsZero() {
+		assertDoesNotThrow(() -> LongRequirement.NOT_NEGATIVE.check(0L));
+	}
+
+	@Test
+	void testDoubleRequirementNotZeroRejectsNegativeZero() {
+		assertThrows(IllegalArgumentException.class, () -> DoubleRequirement.NOT_ZERO.check(-0D));
+	}
+
+	@Test
+	void testDoubleRequirementFiniteRejectsInfinity() {
+		assertThrows(IllegalArgumentException.class, () -> DoubleRequirement.FINITE.check(Double.NEGATIVE_INFINITY));
+	}
+
+	@Test
+	void testDoubleRequirementNotNanRejectsNan() {
+		assertThrows(IllegalArgumentException.class, () -> DoubleRequirement.NOT_NAN.check(Double.NaN));
+	}
+
+	@Test
+	void testIntRequirementInRangeAcceptsBoundaries() {
+		IntRequirement r = IntRequirement.inRange(-1, 1);
+		assertDoesNotThrow(() -> r.check(-1));
+		assertDoesNotThrow(() -> r.check(1));
+	}
+
+	@Test
+	void testLongRequirementInRangeRejectsOutOfRange() {
+		assertThrows(IllegalArgumentException.class, () -> LongRequirement.inRange(0L, 10L).check(11L));
+	}
+
+	@Test
+	void testDoubleRequirementInRangeRejectsInvalidRange() {
+		assertThrows(IllegalArgumentException.class, () -> DoubleRequirement.inRange(1D, 0D));
+	}
+
+	@Test
+	void testIntRequirementBoxedChecksUnboxedValue() {
+		Requirement<Integer> r = IntRequirement.NOT_ZERO.boxed();
+		assertThrows(IllegalArgumentException.class, () -> r.check(0));
+	}
+
+	@Test
+	void testLongRequirementFromRequirementChecksBoxedValue() {
+		LongRequirement r = LongRequirement.fromRequirement(Requirements.POSITIVE);
+		assertThrows(IllegalArgumentException.class, () -> r.check(-1L));
+	}
+
+	@Test
+	void testDoubleRequirementFromRequirementRejectsNull() {
+		assertThrows(NullPointerException.class, () -> DoubleRequirement.fromRequirement(null));
+	}
+
+	@Test
+	void testRequirementAndRequiresBoth() {
+		Requirement<String> r = Requirements.STRING_NOT_EMPTY.and(Requirement.fromPredicate(s -> s.length() < 4));
+		assertTrue(r.test("abc"));
+		assertFalse(r.test(""));
+		assertFalse(r.test("abcd"));
+	}
+
+	@Test
+	void testRequirementAndNullFails() {
+		assertThrows(NullPointerException.class, () -> Requirements.STRING_NOT_EMPTY.and(null));
+	}
+
+	@Test
+	void testRequirementOrRequiresEither() {
+		Requirement<Integer> r = Requirements.inRange(0, 10).or(Requirements.inRange(20, 30));
+		assertDoesNotThrow(() -> r.check(25));
+		assertThrows(IllegalArgumentException.class, () -> r.check(15));
+	}
+
+	@Test
+	void testRequirementOrMessageListsAlternatives() {
+		Requirement<Integer> r = Requirement.anyOf(Requirements.NOT_NEGATIVE, Requirements.inRange(-10, -5));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> r.check(-1));
+		assertEquals("value must meet one of the requirements: value must not be negative, "
+		             + "or value must be between -10 and -5 inclusive", e.getMessage());
+	}
+
+	@Test
+	void testRequirementAnyOfNothingFails() {
+		assertThrows(IllegalArgumentException.class, () -> Requirement.anyOf());
+	}
+
+	@Test
+	void testRequirementNotNegates() {
+		Requirement<String> r = Requirement.not(Requirements.STRING_NOT_BLANK);
+		assertDoesNotThrow(() -> r.check("  "));
+		assertThrows(IllegalArgumentException.class, () -> r.check("value"));
+	}
+
+	@Test
+	void testRequirementAllOfIntersectsRanges() {
+		Requirement<Long> r = Requirement.allOf(Requirements.inRange(0L, 100L), Requirements.inRange(10L, 1000L));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> r.check(5L));
+		assertEquals("value must be between 10 and 100 inclusive", e.getMessage());
+	}
+
+	@Test
+	void testRequirementAllOfUnsatisfiableFails() {
+		assertThrows(IllegalArgumentException.class,
+		             () -> Requirement.allOf(Requirements.inRange(1, 2), Requirements.inRange(3, 4)));
+	}
+
+	@Test
+	void testRequirementAllOfNothingAcceptsAll() {
+		assertTrue(Requirement.allOf().test(new Object()));
+	}
+
+	@Test
+	void testRequirementAllOfIsExpandedInField() {
+		StableField<Integer> sf = new StableField<>("field", Requirement.allOf(Requirements.NOT_NEGATIVE),
+		                                            Requirements.NOT_ZERO);
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sf.set(0));
+		assertEquals("value must be positive", e.getMessage());
+	}
+
+	@Test
+	void testFusedRequirementsAreCheckedInOrder() {
+		/* Past the cap on generated classes, and past the number of requirements fused, as well as before */
+		for (int count : new int[] { 2, 3, 10, 100, 1024, 1025, 2000 }) {
+			checkFusedRequirements(count);
+		}
+		for (int count = 4; count < 300; ++count) {
+			checkFusedRequirements(count);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void checkFusedRequirements(int count) {
+		Requirement<String>[] requirements = new Requirement[count];
+		for (int i = 0; i < count; ++i) {
+			String rejected = "rejected by " + i;
+			requirements[i] = Requirement.fromPredicate(v -> !v.equals(rejected), rejected);
+		}
+		StableField<String> sf = new StableField<>("field", requirements);
+		assertTrue(sf.isAcceptable("value"));
+		for (int i : new int[] { 0, count / 2, count - 1 }) {
+			assertFalse(sf.isAcceptable("rejected by " + i));
+			IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sf.set("rejected by " + i));
+			assertEquals("rejected by " + i, e.getMessage());
+		}
+	}
+
+	@Test
+	void testFusedRequirementClassLoaderCanBeCollected() throws ReflectiveOperationException, InterruptedException {
+		WeakReference<ClassLoader> loader = declareFieldOfIsolatedRequirements();
+		for (int i = 0; i < 100 && loader.get() != null; ++i) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		if (loader.get() != null) {
+			fail("the class loader of the requirements is still reachable");
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static WeakReference<ClassLoader> declareFieldOfIsolatedRequirements() throws ReflectiveOperationException {
+		ClassLoader loader = new IsolatingClassLoader(NotEmpty.class.getName());
+		Class<?> type = loader.loadClass(NotEmpty.class.getName());
+		assertNotEquals(NotEmpty.class, type);
+		Requirement<String> first = (Requirement<String>) type.getConstructor().newInstance();
+		Requirement<String> second = (Requirement<String>) type.getConstructor().newInstance();
+		StableField<String> sf = new StableField<>("field", first, second);
+		assertThrows(IllegalArgumentException.class, () -> sf.set(""));
+		sf.set("value");
+		return new WeakReference<>(loader);
+	}
+
+	/** A requirement loaded by a class loader of its own */
+	public static final class NotEmpty implements Requirement<String> {
+
+		@Override
+		public void check(String value) {
+			if (value.isEmpty()) {
+				throw new IllegalArgumentException("value cannot be empty");
+			}
+		}
+	}
+
+	/* Loads a single class by itself, as an application server would, and delegates the others */
+	private static final class IsolatingClassLoader extends ClassLoader {
+
+		private final String isolated;
+
+		IsolatingClassLoader(String isolated) {
+			super(RequirementTest.class.getClassLoader());
+			this.isolated = isolated;
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!name.equals(isolated)) {
+				return super.loadClass(name, resolve);
+			}
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> type = findLoadedClass(name);
+				if (type == null) {
+					try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+						byte[] bytes = in.readAllBytes();
+						type = defineClass(name, bytes, 0, bytes.length);
+					} catch (IOException e) {
+						throw new ClassNotFoundException(name, e);
+					}
+				}
+				return type;
+			}
+		}
+	}
 }
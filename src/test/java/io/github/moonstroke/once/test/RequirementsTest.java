@@ -1,18 +1,28 @@
 package io.github.moonstroke.once.test;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.Test;
 
+import io.github.moonstroke.once.Requirement;
 import io.github.moonstroke.once.StableField;
 import io.github.moonstroke.once.Requirements;
 
@@ -37,6 +47,13 @@ class RequirementsTest {
 		assertThrows(NoSuchElementException.class, sf::get);
 	}
 
+	@Test
+	void testRequirementsAllowNullGetReturnsNullSet() {
+		StableField<Object> sf = new StableField<>("optional field", Requirements.ALLOW_NULL);
+		sf.set(null);
+		assertNull(sf.get(new Object()));
+	}
+
 	@Test
 	void testRequirementsStringNotEmptyRejectsEmptyString() {
 		StableField<String> sf = new StableField<>("field", Requirements.STRING_NOT_EMPTY);
@@ -196,6 +213,24 @@ class RequirementsTest {
 		assertDoesNotThrow(() -> sf.set(42D));
 	}
 
+	@Test
+	void testRequirementsNotZeroAcceptsTinyBigDecimal() {
+		StableField<BigDecimal> sf = new StableField<>("field", Requirements.NOT_ZERO);
+		assertDoesNotThrow(() -> sf.set(new BigDecimal("1e-400")));
+	}
+
+	@Test
+	void testRequirementsPositiveRejectsTinyNegativeBigDecimal() {
+		StableField<BigDecimal> sf = new StableField<>("field", Requirements.POSITIVE);
+		assertThrows(IllegalArgumentException.class, () -> sf.set(new BigDecimal("-1e-400")));
+	}
+
+	@Test
+	void testRequirementsNotNegativeRejectsHugeNegativeBigInteger() {
+		StableField<BigInteger> sf = new StableField<>("field", Requirements.NOT_NEGATIVE);
+		assertThrows(IllegalArgumentException.class, () -> sf.set(BigInteger.TEN.pow(400).negate()));
+	}
+
 	@Test
 	void testRequirementsFloatNotNanRejectsFloatNan() {
 		StableField<Float> sf = new StableField<>("field", Requirements.FLOAT_NOT_NAN);
@@ -489,4 +524,372 @@ class RequirementsTest {
 		StableField<Double> sf = new StableField<>("field", Requirements.inRange(1.25, 1.75));
 		assertThrows(IllegalArgumentException.class, () -> sf.set(2D));
 	}
+
+	@Test
+	void testRequirementsMatchesRegexReusesCompiledPattern() {
+		Requirements.matches("cached[0-9]+");
+		long hits = Requirements.getPatternCacheHitCount();
+		long misses = Requirements.getPatternCacheMissCount();
+		Requirements.matches("cached[0-9]+");
+		assertEquals(hits + 1, Requirements.getPatternCacheHitCount());
+		assertEquals(misses, Requirements.getPatternCacheMissCount());
+	}
+
+	@Test
+	void testRequirementsMatchesRegexKeepsRecentlyUsedPattern() {
+		Requirements.matches("recent");
+		long hits = Requirements.getPatternCacheHitCount();
+		int count = 2 * Requirements.PATTERN_CACHE_CAPACITY;
+		for (int i = 0; i < count; ++i) {
+			Requirements.matches("evicted" + i);
+			Requirements.matches("recent");
+		}
+		assertEquals(hits + count, Requirements.getPatternCacheHitCount());
+	}
+
+	@Test
+	void testRequirementsMatchesRegexEvictsUnusedPatterns() {
+		Requirements.matches("unused");
+		for (int i = 0; i < 2 * Requirements.PATTERN_CACHE_CAPACITY; ++i) {
+			Requirements.matches("filler" + i);
+		}
+		long misses = Requirements.getPatternCacheMissCount();
+		Requirements.matches("unused");
+		assertEquals(misses + 1, Requirements.getPatternCacheMissCount());
+	}
+
+	@Test
+	void testRequirementsMatchesSameRegexSharesRequirementSet() {
+		StableField<String> sf = new StableField<>("field", Requirements.matches("a+b"), Requirements.matches("a+b"));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sf.set("b"));
+		assertEquals("value must match the pattern a+b", e.getMessage());
+	}
+
+	@Test
+	void testRequirementsMatchesIsReusableAcrossThreads() throws InterruptedException {
+		Requirement<CharSequence> r = Requirements.matches("[a-z]+");
+		Thread[] threads = new Thread[4];
+		boolean[] failed = new boolean[threads.length];
+		for (int t = 0; t < threads.length; ++t) {
+			int index = t;
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 10000; ++i) {
+					if (!r.test("abc") || r.test("ab1")) {
+						failed[index] = true;
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		for (boolean f : failed) {
+			assertFalse(f);
+		}
+	}
+
+	@Test
+	void testRequirementsMatchesSimplePatternsAgreeWithPattern() {
+		List<String> regexes = List.of("", "abc", "a.c", "[A-Za-z0-9_]+", "\\d+", "\\w*", "\\s?x", "[^a-c]{2,3}",
+		                               "ID-[0-9]{6}", "[A-Z]{3}-\\d{4}", "x\\.y", "[a-]+", "[\\d.]+", "a{2,}b",
+		                               "a+?b", "[a-z]+[0-9]*", "[a-z]*a", "a*+a", ".*", "(ab)+", "a|b", "^abc$",
+		                               "\\bab", "[a-z&&[^b]]+");
+		List<String> inputs = List.of("", "a", "abc", "aXc", "a\nc", "ab1_Z", "123", " x", "x", "de", "def", "defg",
+		                              "ID-123456", "ID-12345", "ABC-1234", "AB-1234", "x.y", "xzy", "a-a-", "1.5",
+		                              "aab", "aaab", "ab", "abc123", "aa", "abab", "b", "\u2028", "\ud83d\ude00",
+		                              "\ud83d\ude00x", "a\u0085c");
+		for (String regex : regexes) {
+			Requirement<CharSequence> r = Requirements.matches(regex);
+			for (String input : inputs) {
+				assertEquals(Pattern.matches(regex, input), r.test(input), () -> regex + " on " + input);
+			}
+		}
+	}
+
+	@Test
+	void testRequirementsMatchesSimplePatternKeepsMessage() {
+		StableField<String> sf = new StableField<>("field", Requirements.matches("[A-Z]{3}-\\d{4}"));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sf.set("ABC-123"));
+		assertEquals("value must match the pattern [A-Z]{3}-\\d{4}", e.getMessage());
+		assertDoesNotThrow(() -> sf.set("ABC-1234"));
+	}
+
+	@Test
+	void testRequirementsMatchesPatternWithFlagsIsHonored() {
+		Requirement<CharSequence> r = Requirements.matches(Pattern.compile("abc", Pattern.CASE_INSENSITIVE));
+		assertTrue(r.test("ABC"));
+	}
+
+	@Test
+	void testRequirementsEachElementAcceptsValidElements() {
+		StableField<List<Integer>> sf = new StableField<>("field", Requirements.eachElement(Requirements.POSITIVE));
+		assertDoesNotThrow(() -> sf.set(List.of(1, 2, 3)));
+	}
+
+	@Test
+	void testRequirementsEachElementReportsFirstInvalidElement() {
+		StableField<List<Integer>> sf = new StableField<>("field", Requirements.eachElement(Requirements.POSITIVE));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sf.set(List.of(1, -2, 0)));
+		assertEquals("element at index 1: value must be positive", e.getMessage());
+	}
+
+	@Test
+	void testRequirementsEachElementInParallelReportsFirstInvalidElement() {
+		Requirement<Collection<? extends Integer>> r = Requirements.eachElement(Requirements.POSITIVE, 0);
+		List<Integer> values = new ArrayList<>(Collections.nCopies(100_000, 1));
+		values.set(99_000, -1);
+		values.set(54_321, 0);
+		values.set(70_000, -1);
+		for (int i = 0; i < 20; ++i) {
+			IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> r.check(values));
+			assertEquals("element at index 54321: value must be positive", e.getMessage());
+			assertFalse(r.test(values));
+		}
+		values.set(99_000, 1);
+		values.set(54_321, 1);
+		values.set(70_000, 1);
+		assertDoesNotThrow(() -> r.check(values));
+		assertTrue(r.test(values));
+	}
+
+	@Test
+	void testRequirementsEachElementRejectsNullElement() {
+		StableField<List<String>> sf = new StableField<>("field",
+		                                                 Requirements.eachElement(Requirements.STRING_NOT_BLANK));
+		List<String> values = Arrays.asList("a", null);
+		assertFalse(sf.isAcceptable(values));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sf.set(values));
+		assertEquals("element at index 1 is null", e.getMessage());
+	}
+
+	@Test
+	void testRequirementsEachElementInParallelRejectsNullElement() {
+		Requirement<Collection<? extends String>> r = Requirements.eachElement(Requirements.STRING_NOT_BLANK, 0);
+		List<String> values = new ArrayList<>(Collections.nCopies(100_000, "a"));
+		values.set(60_000, null);
+		values.set(80_000, " ");
+		assertFalse(r.test(values));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> r.check(values));
+		assertEquals("element at index 60000 is null", e.getMessage());
+	}
+
+	@Test
+	void testRequirementsEachElementUsesCheckSequentiallyAndInParallel() {
+		/* Rejects -1 in test only, and 0 in check only */
+		Requirement<Integer> inconsistent = new Requirement<>() {
+
+			@Override
+			public void check(Integer value) {
+				if (value == 0) {
+					throw new IllegalArgumentException("value cannot be zero");
+				}
+			}
+
+			@Override
+			public boolean test(Integer value) {
+				return value != -1;
+			}
+		};
+		List<Integer> values = new ArrayList<>(Collections.nCopies(100_000, 1));
+		values.set(30_000, -1);
+		values.set(50_000, 0);
+		for (int threshold : new int[] { Integer.MAX_VALUE, 0 }) {
+			Requirement<Collection<? extends Integer>> r = Requirements.eachElement(inconsistent, threshold);
+			IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> r.check(values));
+			assertEquals("element at index 50000: value cannot be zero", e.getMessage());
+			assertFalse(r.test(values));
+		}
+	}
+
+	@Test
+	void testRequirementsEachElementRejectsNegativeThreshold() {
+		assertThrows(IllegalArgumentException.class, () -> Requirements.eachElement(Requirements.POSITIVE, -1));
+	}
+
+	@Test
+	void testRequirementsEachKeyReportsInvalidKey() {
+		StableField<Map<String, Integer>> sf = new StableField<>("field",
+		                                                         Requirements.eachKey(Requirements.STRING_NOT_EMPTY));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sf.set(Map.of("", 1)));
+		assertEquals("key at index 0: value cannot be an empty string", e.getMessage());
+		assertDoesNotThrow(() -> sf.set(Map.of("a", 1)));
+	}
+
+	@Test
+	void testRequirementsEachValueReportsInvalidValue() {
+		Requirement<Map<?, ? extends Integer>> r = Requirements.eachValue(Requirements.POSITIVE, 0);
+		Map<Integer, Integer> map = new TreeMap<>();
+		for (int i = 0; i < 10_000; ++i) {
+			map.put(i, i == 5000 || i == 9000 ? -i : i + 1);
+		}
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> r.check(map));
+		assertEquals("value at index 5000: value must be positive", e.getMessage());
+	}
+
+	@Test
+	void testRequirementsSizeInRange() {
+		Requirement<Collection<?>> r = Requirements.sizeInRange(1, 2);
+		assertFalse(r.test(List.of()));
+		assertTrue(r.test(List.of(1, 2)));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> r.check(Set.of(1, 2, 3)));
+		assertEquals("size must be between 1 and 2 inclusive", e.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> Requirements.sizeInRange(-1, 2));
+		assertThrows(IllegalArgumentException.class, () -> Requirements.sizeInRange(3, 2));
+	}
+
+	@Test
+	void testRequirementsMapSizeInRange() {
+		Requirement<Map<?, ?>> r = Requirements.mapSizeInRange(0, 1);
+		assertTrue(r.test(Map.of()));
+		assertFalse(r.test(Map.of(1, 1, 2, 2)));
+	}
+
+	@Test
+	void testRequirementsOverlappingRangesAreIntersected() {
+		StableField<Integer> sf = new StableField<>("field", Requirements.inRange(0, 100),
+		                                            Requirements.inRange(10, 1000));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sf.set(5));
+		assertEquals("value must be between 10 and 100 inclusive", e.getMessage());
+		assertDoesNotThrow(() -> sf.set(100));
+	}
+
+	@Test
+	void testRequirementsDisjointRangesAreUnsatisfiable() {
+		assertThrows(IllegalArgumentException.class,
+		             () -> new StableField<>("field", Requirements.inRange(0L, 10L), Requirements.inRange(20L, 30L)));
+	}
+
+	@Test
+	void testRequirementsNotNegativeAndNotZeroAreFoldedIntoPositive() {
+		StableField<Integer> sf = new StableField<>("field", Requirements.NOT_NEGATIVE, Requirements.NOT_ZERO);
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sf.set(0));
+		assertEquals("value must be positive", e.getMessage());
+	}
+
+	@Test
+	void testRequirementsSignIsFoldedIntoIntegralRange() {
+		StableField<Short> sf = new StableField<>("field", Requirements.inRange((short) -10, (short) 10),
+		                                          Requirements.POSITIVE);
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sf.set((short) 0));
+		assertEquals("value must be between 1 and 10 inclusive", e.getMessage());
+	}
+
+	@Test
+	void testRequirementsNotZeroKeptWhenInsideRange() {
+		StableField<Integer> sf = new StableField<>("field", Requirements.inRange(-10, 10), Requirements.NOT_ZERO);
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sf.set(0));
+		assertEquals("value cannot be zero", e.getMessage());
+		assertDoesNotThrow(() -> sf.set(-1));
+	}
+
+	@Test
+	void testRequirementsZeroRangeAndNotZeroAreUnsatisfiable() {
+		assertThrows(IllegalArgumentException.class,
+		             () -> new StableField<>("field", Requirements.inRange(0, 0), Requirements.NOT_ZERO));
+	}
+
+	@Test
+	void testRequirementsPositiveAndFloatingRangeRejectZero() {
+		StableField<Double> sf = new StableField<>("field", Requirements.POSITIVE, Requirements.inRange(-1.0, 1.0));
+		assertThrows(IllegalArgumentException.class, () -> sf.set(0.0));
+		assertThrows(IllegalArgumentException.class, () -> sf.set(-0.5));
+		assertDoesNotThrow(() -> sf.set(0.5));
+	}
+
+	@Test
+	void testRequirementsNegativeFloatRangeAndPositiveAreUnsatisfiable() {
+		assertThrows(IllegalArgumentException.class,
+		             () -> new StableField<>("field", Requirements.inRange(-1F, 0F), Requirements.POSITIVE));
+	}
+
+	@Test
+	void testRequirementsFloatRangeMessageUsesFloatDigits() {
+		StableField<Float> sf = new StableField<>("field", Requirements.inRange(0.1F, 0.2F));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sf.set(0.3F));
+		assertEquals("value must be between 0.1 and 0.2 inclusive", e.getMessage());
+	}
+
+	@Test
+	void testRequirementsStringNotBlankImpliesNotEmpty() {
+		StableField<String> sf = new StableField<>("field", Requirements.STRING_NOT_EMPTY,
+		                                           Requirements.STRING_NOT_BLANK);
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sf.set(""));
+		assertEquals("value cannot be a blank string", e.getMessage());
+	}
+
+	/* Check enough values for the adaptive order to be updated many times: one value out of 100 is rejected by the
+	 * first requirement, all of them by the second */
+	private static void trainRequirements(StableField<Integer> sf) {
+		for (int n = 0; n < 2000; ++n) {
+			for (int i = 0; i < 100; ++i) {
+				sf.isAcceptable(i);
+			}
+		}
+	}
+
+	@Test
+	void testRequirementsAdaptiveOrderChecksAllRequirements() {
+		StableField<Integer> sf = new StableField<>("field", Requirements.ADAPTIVE_ORDER, Requirements.NOT_ZERO,
+		                                            Requirement.fromPredicate(i -> i % 2 == 0));
+		for (int n = 0; n < 10000; ++n) {
+			assertFalse(sf.isAcceptable(0));
+			assertFalse(sf.isAcceptable(1));
+		}
+		assertThrows(IllegalArgumentException.class, () -> sf.set(0));
+		assertThrows(IllegalArgumentException.class, () -> sf.set(1));
+		assertDoesNotThrow(() -> sf.set(2));
+	}
+
+	@Test
+	void testRequirementsAdaptiveOrderChecksFrequentRejectionFirst() {
+		StableField<Integer> sf = new StableField<>("field", Requirements.ADAPTIVE_ORDER,
+		                                            Requirement.fromPredicate(i -> i != 42, "first"),
+		                                            Requirement.fromPredicate(i -> i >= 100, "second"));
+		trainRequirements(sf);
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sf.set(42));
+		assertEquals("second", e.getMessage());
+	}
+
+	@Test
+	void testRequirementsAdaptiveOrderIgnoresFailures() {
+		Requirement<Integer> failing = new Requirement<>() {
+
+			@Override
+			public void check(Integer value) {
+				if (value == 42) {
+					throw new IllegalArgumentException("second");
+				}
+				throw new UnsupportedOperationException();
+			}
+		};
+		StableField<Integer> sf = new StableField<>("field", Requirements.ADAPTIVE_ORDER,
+		                                            Requirement.fromPredicate(i -> i != 42, "first"), failing);
+		for (int n = 0; n < 2000; ++n) {
+			for (int i = 0; i < 100; ++i) {
+				int value = i == 42 ? -1 : i;
+				assertThrows(UnsupportedOperationException.class, () -> sf.set(value));
+			}
+		}
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sf.set(42));
+		assertEquals("first", e.getMessage());
+	}
+
+	@Test
+	void testRequirementsDeclarationOrderIsKeptByDefault() {
+		StableField<Integer> sf = new StableField<>("field", Requirement.fromPredicate(i -> i != 42, "first"),
+		                                            Requirement.fromPredicate(i -> i >= 100, "second"));
+		trainRequirements(sf);
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sf.set(42));
+		assertEquals("first", e.getMessage());
+	}
+
+	@Test
+	void testRequirementsAdaptiveOrderInAllOf() {
+		Requirement<Integer> r = Requirement.allOf(Requirements.ADAPTIVE_ORDER, Requirements.NOT_ZERO,
+		                                           Requirement.fromPredicate(i -> i % 2 == 0));
+		assertTrue(r.test(2));
+		assertFalse(r.test(0));
+		assertFalse(r.test(3));
+	}
 }
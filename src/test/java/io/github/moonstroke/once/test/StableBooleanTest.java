@@ -0,0 +1,280 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once.test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.moonstroke.once.StableBoolean;
+
+class StableBooleanTest {
+
+	@Test
+	void testConstructorCallNullNameFails() {
+		assertThrows(NullPointerException.class, () -> new StableBoolean(null));
+	}
+
+	@Test
+	void testConstructorCallEmptyNameFails() {
+		assertThrows(IllegalArgumentException.class, () -> new StableBoolean(""));
+	}
+
+	@Test
+	void testFirstCallToSetDoesNotFail() {
+		StableBoolean sf = new StableBoolean("field");
+		assertDoesNotThrow(() -> sf.set(true));
+	}
+
+	@Test
+	void testSecondCallToSetFails() {
+		StableBoolean sf = new StableBoolean("field");
+		sf.set(true);
+		assertThrows(IllegalStateException.class, () -> sf.set(true));
+	}
+
+	@Test
+	void testTrySetReturnsTrueWhenDidSet() {
+		StableBoolean sf = new StableBoolean("field");
+		assertTrue(sf.trySet(true));
+	}
+
+	@Test
+	void testTrySetReturnsFalseWhenDidNotSet() {
+		StableBoolean sf = new StableBoolean("field");
+		sf.set(true);
+		assertFalse(sf.trySet(false));
+	}
+
+	@Test
+	void testCallToGetWithoutSetFails() {
+		StableBoolean sf = new StableBoolean("field");
+		assertThrows(NoSuchElementException.class, sf::getAsBoolean);
+	}
+
+	@Test
+	void testGetReturnsValuePassedToSet() {
+		StableBoolean sf = new StableBoolean("field");
+		sf.set(true);
+		assertEquals(true, sf.getAsBoolean());
+	}
+
+	@Test
+	void testGetDefaultReturnsStoredValueIfSet() {
+		StableBoolean sf = new StableBoolean("field");
+		sf.set(true);
+		assertEquals(true, sf.getAsBoolean(false));
+	}
+
+	@Test
+	void testGetDefaultReturnsDefaultValueIfNotSet() {
+		StableBoolean sf = new StableBoolean("field");
+		assertEquals(false, sf.getAsBoolean(false));
+	}
+
+	@Test
+	void testOrElseSetReturnsComputedValue() {
+		StableBoolean sf = new StableBoolean("field");
+		assertEquals(true, sf.orElseSet(() -> true));
+	}
+
+	@Test
+	void testOrElseSetDoesNotCallSupplierWhenSet() {
+		StableBoolean sf = new StableBoolean("field");
+		sf.set(true);
+		assertEquals(true, sf.orElseSet(() -> {
+			fail("supplier called");
+			return false;
+		}));
+	}
+
+	@Test
+	void testOrElseSetLeavesUnsetWhenSupplierFails() {
+		StableBoolean sf = new StableBoolean("field");
+		assertThrows(UnsupportedOperationException.class, () -> sf.orElseSet(() -> {
+			throw new UnsupportedOperationException();
+		}));
+		assertThrows(NoSuchElementException.class, sf::getAsBoolean);
+	}
+
+	@Test
+	void testOrElseSetRecursiveCallFails() {
+		StableBoolean sf = new StableBoolean("field");
+		assertThrows(IllegalStateException.class, () -> sf.orElseSet(() -> sf.orElseSet(() -> true)));
+	}
+
+	@Test
+	void testSetFromSupplierFails() {
+		StableBoolean sf = new StableBoolean("field");
+		assertThrows(IllegalStateException.class, () -> sf.orElseSet(() -> {
+			sf.set(false);
+			return true;
+		}));
+		assertEquals(true, sf.orElseSet(() -> {
+			assertFalse(sf.trySet(false));
+			return true;
+		}));
+	}
+
+	@Test
+	void testSetDuringComputationWins() throws InterruptedException {
+		StableBoolean sf = new StableBoolean("field");
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch set = new CountDownLatch(1);
+		boolean[] result = new boolean[1];
+		Thread computer = new Thread(() -> result[0] = sf.orElseSet(() -> {
+			computing.countDown();
+			awaitUninterruptibly(set);
+			return true;
+		}));
+		computer.start();
+		computing.await();
+		sf.set(false);
+		set.countDown();
+		computer.join();
+		assertEquals(false, result[0]);
+		assertEquals(false, sf.getAsBoolean());
+	}
+
+	@Test
+	void testSetDuringFailingComputationWins() throws InterruptedException {
+		StableBoolean sf = new StableBoolean("field");
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch set = new CountDownLatch(1);
+		Thread computer = new Thread(() -> assertThrows(UnsupportedOperationException.class, () -> sf.orElseSet(() -> {
+			computing.countDown();
+			awaitUninterruptibly(set);
+			throw new UnsupportedOperationException();
+		})));
+		computer.start();
+		computing.await();
+		assertTrue(sf.trySet(false));
+		set.countDown();
+		computer.join();
+		assertEquals(false, sf.getAsBoolean());
+	}
+
+	@Test
+	void testSetDuringComputationWakesUpWaiters() throws InterruptedException {
+		StableBoolean sf = new StableBoolean("field");
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch set = new CountDownLatch(1);
+		Thread computer = new Thread(() -> sf.orElseSet(() -> {
+			computing.countDown();
+			awaitUninterruptibly(set);
+			return true;
+		}));
+		computer.start();
+		computing.await();
+		boolean[] result = new boolean[1];
+		Thread waiter = new Thread(() -> result[0] = sf.orElseSet(() -> {
+			throw new AssertionError("the value is being computed");
+		}));
+		waiter.start();
+		/* Parked without a timeout, until woken up by the setter */
+		while (waiter.getState() != Thread.State.WAITING) {
+			Thread.onSpinWait();
+		}
+		sf.set(false);
+		waiter.join();
+		assertEquals(false, result[0]);
+		set.countDown();
+		computer.join();
+	}
+
+	@Test
+	void testSetLosingToComputationFailsAsAlreadySet() throws InterruptedException {
+		for (int i = 0; i < 1_000; ++i) {
+			StableBoolean sf = new StableBoolean("field");
+			Thread computer = new Thread(() -> sf.orElseSet(() -> true));
+			computer.start();
+			try {
+				sf.set(false);
+			} catch (IllegalStateException e) {
+				/* The computed value won, and is visible once the setter has failed */
+				assertEquals("field is already set", e.getMessage());
+				assertEquals(true, sf.getAsBoolean());
+			}
+			computer.join();
+		}
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			fail(e);
+		}
+	}
+
+	@Test
+	void testOrElseSetCalledInParallelCallsSupplierOnce() {
+		StableBoolean sf = new StableBoolean("field");
+		AtomicInteger callsCount = new AtomicInteger();
+		Thread thread1 = new Thread(() -> sf.orElseSet(() -> {
+			callsCount.incrementAndGet();
+			return true;
+		}));
+		Thread thread2 = new Thread(() -> sf.orElseSet(() -> {
+			callsCount.incrementAndGet();
+			return false;
+		}));
+		thread1.start();
+		thread2.start();
+		try {
+			thread1.join();
+			thread2.join();
+		} catch (InterruptedException e) {
+			fail(e);
+		}
+		assertEquals(1, callsCount.get());
+	}
+
+	@Test
+	void testEqualsInstSetSameValueSameNameReturnsTrue() {
+		StableBoolean sf = new StableBoolean("field");
+		sf.set(true);
+		StableBoolean other = new StableBoolean("field");
+		other.set(true);
+		assertTrue(sf.equals(other));
+	}
+
+	@Test
+	void testEqualsInstSetOtherValueSameNameReturnsFalse() {
+		StableBoolean sf = new StableBoolean("field");
+		sf.set(true);
+		StableBoolean other = new StableBoolean("field");
+		other.set(false);
+		assertFalse(sf.equals(other));
+	}
+
+	@Test
+	void testEqualsUnsetInstReturnsFalseWhenSetSameName() {
+		StableBoolean sf = new StableBoolean("field");
+		sf.set(true);
+		assertFalse(sf.equals(new StableBoolean("field")));
+	}
+
+	@Test
+	void testHashCodeReturnsNonZeroIfNotSet() {
+		StableBoolean sf = new StableBoolean("field");
+		assertNotEquals(0, sf.hashCode());
+	}
+
+	@Test
+	void testToStringSucceedsWhenSet() {
+		StableBoolean sf = new StableBoolean("field");
+		sf.set(true);
+		assertDoesNotThrow(sf::toString);
+	}
+}
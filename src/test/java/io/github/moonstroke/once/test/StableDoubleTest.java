@@ -0,0 +1,298 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once.test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.moonstroke.once.DoubleRequirement;
+import io.github.moonstroke.once.StableDouble;
+
+class StableDoubleTest {
+
+	@Test
+	void testConstructorCallNullNameFails() {
+		assertThrows(NullPointerException.class, () -> new StableDouble(null));
+	}
+
+	@Test
+	void testConstructorCallEmptyNameFails() {
+		assertThrows(IllegalArgumentException.class, () -> new StableDouble(""));
+	}
+
+	@Test
+	void testConstructorCallNullRequirementFails() {
+		assertThrows(NullPointerException.class, () -> new StableDouble("field", (DoubleRequirement) null));
+	}
+
+	@Test
+	void testFirstCallToSetDoesNotFail() {
+		StableDouble sf = new StableDouble("field");
+		assertDoesNotThrow(() -> sf.set(4.2));
+	}
+
+	@Test
+	void testSecondCallToSetFails() {
+		StableDouble sf = new StableDouble("field");
+		sf.set(4.2);
+		assertThrows(IllegalStateException.class, () -> sf.set(4.2));
+	}
+
+	@Test
+	void testCallToSetAppliesRequirements() {
+		StableDouble sf = new StableDouble("field", DoubleRequirement.fromPredicate(v -> v > 0));
+		assertThrows(IllegalArgumentException.class, () -> sf.set(-1D));
+	}
+
+	@Test
+	void testOrElseSetAppliesRequirements() {
+		StableDouble sf = new StableDouble("field", DoubleRequirement.fromPredicate(v -> v > 0));
+		assertThrows(IllegalArgumentException.class, () -> sf.orElseSet(() -> -1D));
+	}
+
+	@Test
+	void testTrySetReturnsTrueWhenDidSet() {
+		StableDouble sf = new StableDouble("field");
+		assertTrue(sf.trySet(4.2));
+	}
+
+	@Test
+	void testTrySetReturnsFalseWhenDidNotSet() {
+		StableDouble sf = new StableDouble("field");
+		sf.set(4.2);
+		assertFalse(sf.trySet(0.7));
+	}
+
+	@Test
+	void testCallToGetWithoutSetFails() {
+		StableDouble sf = new StableDouble("field");
+		assertThrows(NoSuchElementException.class, sf::getAsDouble);
+	}
+
+	@Test
+	void testGetReturnsValuePassedToSet() {
+		StableDouble sf = new StableDouble("field");
+		sf.set(4.2);
+		assertEquals(4.2, sf.getAsDouble());
+	}
+
+	@Test
+	void testGetDefaultReturnsStoredValueIfSet() {
+		StableDouble sf = new StableDouble("field");
+		sf.set(4.2);
+		assertEquals(4.2, sf.getAsDouble(0.7));
+	}
+
+	@Test
+	void testGetDefaultReturnsDefaultValueIfNotSet() {
+		StableDouble sf = new StableDouble("field");
+		assertEquals(0.7, sf.getAsDouble(0.7));
+	}
+
+	@Test
+	void testOrElseSetReturnsComputedValue() {
+		StableDouble sf = new StableDouble("field");
+		assertEquals(4.2, sf.orElseSet(() -> 4.2));
+	}
+
+	@Test
+	void testOrElseSetDoesNotCallSupplierWhenSet() {
+		StableDouble sf = new StableDouble("field");
+		sf.set(4.2);
+		assertEquals(4.2, sf.orElseSet(() -> {
+			fail("supplier called");
+			return 0.7;
+		}));
+	}
+
+	@Test
+	void testOrElseSetLeavesUnsetWhenSupplierFails() {
+		StableDouble sf = new StableDouble("field");
+		assertThrows(UnsupportedOperationException.class, () -> sf.orElseSet(() -> {
+			throw new UnsupportedOperationException();
+		}));
+		assertThrows(NoSuchElementException.class, sf::getAsDouble);
+	}
+
+	@Test
+	void testOrElseSetRecursiveCallFails() {
+		StableDouble sf = new StableDouble("field");
+		assertThrows(IllegalStateException.class, () -> sf.orElseSet(() -> sf.orElseSet(() -> 4.2)));
+	}
+
+	@Test
+	void testSetFromSupplierFails() {
+		StableDouble sf = new StableDouble("field");
+		assertThrows(IllegalStateException.class, () -> sf.orElseSet(() -> {
+			sf.set(0.7);
+			return 4.2;
+		}));
+		assertEquals(4.2, sf.orElseSet(() -> {
+			assertFalse(sf.trySet(0.7));
+			return 4.2;
+		}));
+	}
+
+	@Test
+	void testSetDuringComputationWins() throws InterruptedException {
+		StableDouble sf = new StableDouble("field");
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch set = new CountDownLatch(1);
+		double[] result = new double[1];
+		Thread computer = new Thread(() -> result[0] = sf.orElseSet(() -> {
+			computing.countDown();
+			awaitUninterruptibly(set);
+			return 4.2;
+		}));
+		computer.start();
+		computing.await();
+		sf.set(0.7);
+		set.countDown();
+		computer.join();
+		assertEquals(0.7, result[0]);
+		assertEquals(0.7, sf.getAsDouble());
+	}
+
+	@Test
+	void testSetDuringFailingComputationWins() throws InterruptedException {
+		StableDouble sf = new StableDouble("field");
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch set = new CountDownLatch(1);
+		Thread computer = new Thread(() -> assertThrows(UnsupportedOperationException.class, () -> sf.orElseSet(() -> {
+			computing.countDown();
+			awaitUninterruptibly(set);
+			throw new UnsupportedOperationException();
+		})));
+		computer.start();
+		computing.await();
+		assertTrue(sf.trySet(0.7));
+		set.countDown();
+		computer.join();
+		assertEquals(0.7, sf.getAsDouble());
+	}
+
+	@Test
+	void testSetDuringComputationWakesUpWaiters() throws InterruptedException {
+		StableDouble sf = new StableDouble("field");
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch set = new CountDownLatch(1);
+		Thread computer = new Thread(() -> sf.orElseSet(() -> {
+			computing.countDown();
+			awaitUninterruptibly(set);
+			return 4.2;
+		}));
+		computer.start();
+		computing.await();
+		double[] result = new double[1];
+		Thread waiter = new Thread(() -> result[0] = sf.orElseSet(() -> {
+			throw new AssertionError("the value is being computed");
+		}));
+		waiter.start();
+		/* Parked without a timeout, until woken up by the setter */
+		while (waiter.getState() != Thread.State.WAITING) {
+			Thread.onSpinWait();
+		}
+		sf.set(0.7);
+		waiter.join();
+		assertEquals(0.7, result[0]);
+		set.countDown();
+		computer.join();
+	}
+
+	@Test
+	void testSetLosingToComputationFailsAsAlreadySet() throws InterruptedException {
+		for (int i = 0; i < 1_000; ++i) {
+			StableDouble sf = new StableDouble("field");
+			Thread computer = new Thread(() -> sf.orElseSet(() -> 4.2));
+			computer.start();
+			try {
+				sf.set(0.7);
+			} catch (IllegalStateException e) {
+				/* The computed value won, and is visible once the setter has failed */
+				assertEquals("field is already set", e.getMessage());
+				assertEquals(4.2, sf.getAsDouble());
+			}
+			computer.join();
+		}
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			fail(e);
+		}
+	}
+
+	@Test
+	void testOrElseSetCalledInParallelCallsSupplierOnce() {
+		StableDouble sf = new StableDouble("field");
+		AtomicInteger callsCount = new AtomicInteger();
+		Thread thread1 = new Thread(() -> sf.orElseSet(() -> {
+			callsCount.incrementAndGet();
+			return 4.2;
+		}));
+		Thread thread2 = new Thread(() -> sf.orElseSet(() -> {
+			callsCount.incrementAndGet();
+			return 0.7;
+		}));
+		thread1.start();
+		thread2.start();
+		try {
+			thread1.join();
+			thread2.join();
+		} catch (InterruptedException e) {
+			fail(e);
+		}
+		assertEquals(1, callsCount.get());
+	}
+
+	@Test
+	void testEqualsInstSetSameValueSameNameReturnsTrue() {
+		StableDouble sf = new StableDouble("field");
+		sf.set(4.2);
+		StableDouble other = new StableDouble("field");
+		other.set(4.2);
+		assertTrue(sf.equals(other));
+	}
+
+	@Test
+	void testEqualsInstSetOtherValueSameNameReturnsFalse() {
+		StableDouble sf = new StableDouble("field");
+		sf.set(4.2);
+		StableDouble other = new StableDouble("field");
+		other.set(0.7);
+		assertFalse(sf.equals(other));
+	}
+
+	@Test
+	void testEqualsUnsetInstReturnsFalseWhenSetSameName() {
+		StableDouble sf = new StableDouble("field");
+		sf.set(4.2);
+		assertFalse(sf.equals(new StableDouble("field")));
+	}
+
+	@Test
+	void testHashCodeReturnsNonZeroIfNotSet() {
+		StableDouble sf = new StableDouble("field");
+		assertNotEquals(0, sf.hashCode());
+	}
+
+	@Test
+	void testToStringSucceedsWhenSet() {
+		StableDouble sf = new StableDouble("field");
+		sf.set(4.2);
+		assertDoesNotThrow(sf::toString);
+	}
+}
@@ -0,0 +1,58 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+import org.openjdk.jol.vm.VirtualMachine;
+
+import io.github.moonstroke.once.Requirement;
+import io.github.moonstroke.once.Requirements;
+import io.github.moonstroke.once.StableField;
+
+class StableFieldFootprintTest {
+
+	/* The members of StableField: name, value, initializer thread, waiters and requirements */
+	private static final int REFERENCE_MEMBERS_COUNT = 5;
+
+	private static long getInstanceSize() {
+		return ClassLayout.parseClass(StableField.class).instanceSize();
+	}
+
+	@Test
+	void testInstanceSizeIsHeaderAndReferenceMembers() {
+		VirtualMachine vm = VM.current();
+		long size = vm.objectHeaderSize() + REFERENCE_MEMBERS_COUNT * vm.sizeOfField("java.lang.Object");
+		int alignment = vm.objectAlignment();
+		long alignedSize = (size + alignment - 1) / alignment * alignment;
+		assertEquals(alignedSize, getInstanceSize());
+	}
+
+	@Test
+	void testInstancesWithoutRequirementsShareEverythingElse() {
+		StableField<Object> sf1 = new StableField<>("field");
+		StableField<Object> sf2 = new StableField<>("field");
+		assertEquals(getInstanceSize(), GraphLayout.parseInstance(sf1, sf2).totalSize()
+		                                - GraphLayout.parseInstance(sf1).totalSize());
+	}
+
+	@Test
+	void testInstancesWithSameRequirementsShareThem() {
+		/* Not a lambda expression: JOL cannot walk through the hidden classes implementing those */
+		Requirement<Object> requirement = new Requirement<>() {
+
+			@Override
+			public void check(Object value) {
+				/* Accept anything */
+			}
+		};
+		StableField<Object> sf1 = new StableField<>("field", requirement, Requirements.ALLOW_NULL);
+		StableField<Object> sf2 = new StableField<>("field", requirement, Requirements.ALLOW_NULL);
+		assertEquals(getInstanceSize(), GraphLayout.parseInstance(sf1, sf2).totalSize()
+		                                - GraphLayout.parseInstance(sf1).totalSize());
+	}
+}
@@ -6,11 +6,29 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
@@ -158,6 +176,720 @@ class StableFieldTest {
 		assertFalse(sf.trySet(new Object()));
 	}
 
+	@Test
+	void testSetChecksRequirementsInOrder() {
+		StableField<String> sf = new StableField<>("field", Requirements.STRING_NOT_EMPTY,
+		                                           Requirement.fromPredicate(s -> false, "second"),
+		                                           Requirement.fromPredicate(s -> false, "third"));
+		assertEquals("second", assertThrows(IllegalArgumentException.class, () -> sf.set("value")).getMessage());
+	}
+
+	@Test
+	void testSetChecksAllRequirements() {
+		AtomicInteger count = new AtomicInteger();
+		@SuppressWarnings("unchecked")
+		Requirement<Object>[] requirements = new Requirement[300];
+		for (int i = 0; i < requirements.length; ++i) {
+			requirements[i] = value -> count.incrementAndGet();
+		}
+		StableField<Object> sf = new StableField<>("field", requirements);
+		sf.set(new Object());
+		assertEquals(requirements.length, count.get());
+	}
+
+	@Test
+	void testSetChecksRequirementsOfDistinctClasses() {
+		StableField<Integer> sf = new StableField<>("field", Requirements.NOT_ZERO, Requirements.inRange(0, 10),
+		                                            value -> {});
+		assertThrows(IllegalArgumentException.class, () -> sf.set(11));
+		assertDoesNotThrow(() -> sf.set(10));
+	}
+
+	@Test
+	void testIsAcceptableNullReturnsFalse() {
+		StableField<Object> sf = new StableField<>("field");
+		assertFalse(sf.isAcceptable(null));
+	}
+
+	@Test
+	void testIsAcceptableNullReturnsTrueWhenAllowed() {
+		StableField<Object> sf = new StableField<>("field", Requirements.ALLOW_NULL);
+		assertTrue(sf.isAcceptable(null));
+	}
+
+	@Test
+	void testIsAcceptableSelfReturnsFalse() {
+		StableField<Object> sf = new StableField<>("field");
+		assertFalse(sf.isAcceptable(sf));
+	}
+
+	@Test
+	void testIsAcceptableReturnsTrueWhenSet() {
+		StableField<Object> sf = new StableField<>("field");
+		sf.set(new Object());
+		assertTrue(sf.isAcceptable(new Object()));
+	}
+
+	@Test
+	void testIsAcceptableAppliesAllRequirements() {
+		StableField<Integer> sf = new StableField<>("field", Requirements.NOT_ZERO, Requirements.inRange(-10, 10),
+		                                            value -> {});
+		assertTrue(sf.isAcceptable(10));
+		assertFalse(sf.isAcceptable(0));
+		assertFalse(sf.isAcceptable(11));
+	}
+
+	@Test
+	void testIsAcceptableAppliesManyRequirements() {
+		for (int count : new int[] {4, 300, 2000}) {
+			@SuppressWarnings("unchecked")
+			Requirement<Integer>[] requirements = new Requirement[count];
+			for (int i = 0; i < count; ++i) {
+				int min = i;
+				requirements[i] = Requirement.fromPredicate(value -> value >= min);
+			}
+			StableField<Integer> sf = new StableField<>("field", requirements);
+			assertTrue(sf.isAcceptable(count));
+			assertFalse(sf.isAcceptable(count - 2));
+		}
+	}
+
+	@Test
+	void testOrElseSetNullSupplierFails() {
+		StableField<Object> sf = new StableField<>("field");
+		assertThrows(NullPointerException.class, () -> sf.orElseSet(null));
+	}
+
+	@Test
+	void testOrElseSetReturnsComputedValue() {
+		StableField<Object> sf = new StableField<>("field");
+		Object value = new Object();
+		assertEquals(value, sf.orElseSet(() -> value));
+	}
+
+	@Test
+	void testOrElseSetSetsComputedValue() {
+		StableField<Object> sf = new StableField<>("field");
+		Object value = new Object();
+		sf.orElseSet(() -> value);
+		assertEquals(value, sf.get());
+	}
+
+	@Test
+	void testOrElseSetDoesNotCallSupplierWhenSet() {
+		StableField<Object> sf = new StableField<>("field");
+		Object value = new Object();
+		sf.set(value);
+		assertEquals(value, sf.orElseSet(() -> fail("supplier called")));
+	}
+
+	@Test
+	void testOrElseSetSupplierReturningNullFails() {
+		StableField<Object> sf = new StableField<>("field");
+		assertThrows(NullPointerException.class, () -> sf.orElseSet(() -> null));
+	}
+
+	@Test
+	void testOrElseSetAppliesRequirements() {
+		StableField<Integer> sf = new StableField<>("field", Requirements.POSITIVE);
+		assertThrows(IllegalArgumentException.class, () -> sf.orElseSet(() -> -1));
+	}
+
+	@Test
+	void testOrElseSetLeavesUnsetWhenSupplierFails() {
+		StableField<Object> sf = new StableField<>("field");
+		assertThrows(UnsupportedOperationException.class, () -> sf.orElseSet(() -> {
+			throw new UnsupportedOperationException();
+		}));
+		assertThrows(NoSuchElementException.class, sf::get);
+	}
+
+	@Test
+	void testOrElseSetCallsSupplierAgainAfterFailure() {
+		StableField<Object> sf = new StableField<>("field");
+		assertThrows(UnsupportedOperationException.class, () -> sf.orElseSet(() -> {
+			throw new UnsupportedOperationException();
+		}));
+		Object value = new Object();
+		assertEquals(value, sf.orElseSet(() -> value));
+	}
+
+	@Test
+	void testOrElseSetRecursiveCallFails() {
+		StableField<Object> sf = new StableField<>("field");
+		assertThrows(IllegalStateException.class, () -> sf.orElseSet(() -> sf.orElseSet(Object::new)));
+	}
+
+	@Test
+	void testOrElseSetSupplierCallingSetFails() {
+		StableField<Object> sf = new StableField<>("field");
+		assertThrows(IllegalStateException.class, () -> sf.orElseSet(() -> {
+			sf.set(new Object());
+			return new Object();
+		}));
+	}
+
+	@Test
+	void testOrElseSetCalledInParallelCallsSupplierOnce() {
+		StableField<Object> sf = new StableField<>("field");
+		AtomicInteger callsCount = new AtomicInteger();
+		Object[] results = new Object[2];
+		Thread thread1 = new Thread(() -> results[0] = sf.orElseSet(() -> {
+			callsCount.incrementAndGet();
+			return new Object();
+		}));
+		Thread thread2 = new Thread(() -> results[1] = sf.orElseSet(() -> {
+			callsCount.incrementAndGet();
+			return new Object();
+		}));
+		thread1.start();
+		thread2.start();
+		try {
+			thread1.join();
+			thread2.join();
+		} catch (InterruptedException e) {
+			fail(e);
+		}
+		assertEquals(1, callsCount.get());
+		assertEquals(results[0], results[1]);
+	}
+
+	@Test
+	void testOrElseSetWaiterRetriesAfterFailedComputation() throws InterruptedException {
+		StableField<Object> sf = new StableField<>("field");
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread failing = new Thread(() -> {
+			try {
+				sf.orElseSet(() -> {
+					computing.countDown();
+					awaitUninterruptibly(release);
+					throw new IllegalStateException("failed");
+				});
+			} catch (IllegalStateException e) {
+				/* Expected */
+			}
+		});
+		failing.start();
+		computing.await();
+		Object value = new Object();
+		Object[] result = new Object[1];
+		Thread waiting = new Thread(() -> result[0] = sf.orElseSet(() -> value));
+		waiting.start();
+		release.countDown();
+		failing.join();
+		waiting.join();
+		assertEquals(value, result[0]);
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			fail(e);
+		}
+	}
+
+	@Test
+	void testAwaitReturnsValueAlreadySet() throws InterruptedException {
+		StableField<Object> sf = new StableField<>("field", Requirements.ALLOW_NULL);
+		sf.set(null);
+		assertEquals(null, sf.await());
+	}
+
+	@Test
+	void testAwaitReturnsValueSetLater() throws InterruptedException {
+		StableField<Object> sf = new StableField<>("field");
+		Object value = new Object();
+		Object[] results = new Object[4];
+		Thread[] threads = new Thread[results.length];
+		for (int i = 0; i < threads.length; ++i) {
+			int index = i;
+			threads[i] = new Thread(() -> {
+				try {
+					results[index] = sf.await();
+				} catch (InterruptedException e) {
+					fail(e);
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			awaitState(thread, Thread.State.WAITING);
+		}
+		sf.set(value);
+		for (int i = 0; i < threads.length; ++i) {
+			threads[i].join();
+			assertEquals(value, results[i]);
+		}
+	}
+
+	@Test
+	void testAwaitIsWokenUpByOrElseSet() throws InterruptedException {
+		StableField<Object> sf = new StableField<>("field");
+		Object value = new Object();
+		Object[] result = new Object[1];
+		Thread thread = new Thread(() -> {
+			try {
+				result[0] = sf.await(Duration.ofMinutes(1));
+			} catch (InterruptedException | TimeoutException e) {
+				fail(e);
+			}
+		});
+		thread.start();
+		awaitState(thread, Thread.State.TIMED_WAITING);
+		sf.orElseSet(() -> value);
+		thread.join();
+		assertEquals(value, result[0]);
+	}
+
+	/* Wait until the given thread is blocked in the given state */
+	private static void awaitState(Thread thread, Thread.State state) {
+		while (thread.getState() != state) {
+			Thread.onSpinWait();
+		}
+	}
+
+	@Test
+	void testAwaitTimeoutExpires() {
+		StableField<Object> sf = new StableField<>("field");
+		assertThrows(TimeoutException.class, () -> sf.await(Duration.ofMillis(10)));
+		assertThrows(TimeoutException.class, () -> sf.await(Duration.ZERO));
+	}
+
+	@Test
+	void testAwaitNegativeTimeoutExpiresImmediately() {
+		StableField<Object> sf = new StableField<>("field");
+		assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+			assertThrows(TimeoutException.class, () -> sf.await(Duration.ofNanos(-1)));
+			assertThrows(TimeoutException.class, () -> sf.await(Duration.ofSeconds(Long.MIN_VALUE / 2)));
+		});
+		sf.set("value");
+		assertEquals("value", assertDoesNotThrow(() -> sf.await(Duration.ofSeconds(Long.MIN_VALUE / 2))));
+	}
+
+	@Test
+	void testAwaitExtremeTimeoutReturnsValueSetLater() throws InterruptedException {
+		StableField<Object> sf = new StableField<>("field");
+		Object[] result = new Object[1];
+		Duration forever = Duration.ofSeconds(Long.MAX_VALUE);
+		Thread consumer = new Thread(() -> result[0] = assertDoesNotThrow(() -> sf.await(forever)));
+		consumer.start();
+		sf.set("value");
+		consumer.join();
+		assertEquals("value", result[0]);
+	}
+
+	@Test
+	void testAwaitNullTimeoutFails() {
+		StableField<Object> sf = new StableField<>("field");
+		assertThrows(NullPointerException.class, () -> sf.await(null));
+	}
+
+	@Test
+	void testAwaitInterruptedFails() {
+		StableField<Object> sf = new StableField<>("field");
+		Thread.currentThread().interrupt();
+		assertThrows(InterruptedException.class, sf::await);
+		assertFalse(Thread.interrupted());
+	}
+
+	@Test
+	void testOnSetRunsActionsInRegistrationOrder() {
+		StableField<String> sf = new StableField<>("field");
+		List<String> calls = new ArrayList<>();
+		sf.onSet(v -> calls.add("first " + v));
+		sf.onSet(v -> calls.add("second " + v));
+		assertTrue(calls.isEmpty());
+		sf.set("value");
+		sf.onSet(v -> calls.add("third " + v));
+		assertEquals(List.of("first value", "second value", "third value"), calls);
+	}
+
+	@Test
+	void testOnSetFailingActionDoesNotAffectSetter() throws InterruptedException {
+		StableField<String> sf = new StableField<>("field");
+		List<Object> calls = new ArrayList<>();
+		sf.onSet(v -> {
+			throw new IllegalStateException("action failed");
+		});
+		sf.onSet(calls::add);
+		Thread thread = new Thread(() -> sf.set("value"));
+		thread.setUncaughtExceptionHandler((t, e) -> calls.add(e.getMessage()));
+		thread.start();
+		thread.join();
+		assertEquals(List.of("action failed", "value"), calls);
+		assertEquals("value", sf.get());
+	}
+
+	@Test
+	void testOnSetRunsAfterOrElseSet() {
+		StableField<Object> sf = new StableField<>("field");
+		Object value = new Object();
+		Object[] result = new Object[1];
+		sf.onSet(v -> result[0] = v);
+		sf.orElseSet(() -> value);
+		assertEquals(value, result[0]);
+	}
+
+	@Test
+	void testToCompletableFutureIsCompletedOnSet() {
+		StableField<String> sf = new StableField<>("field");
+		CompletableFuture<String> future = sf.toCompletableFuture();
+		assertFalse(future.isDone());
+		sf.set("value");
+		assertEquals("value", future.getNow(null));
+		assertEquals("value", sf.toCompletableFuture().getNow(null));
+	}
+
+	@Test
+	void testToCompletableFutureCancelDoesNotAffectField() {
+		StableField<String> sf = new StableField<>("field");
+		sf.toCompletableFuture().cancel(false);
+		sf.set("value");
+		assertEquals("value", sf.toCompletableFuture().getNow(null));
+	}
+
+	@Test
+	void testCancelledFuturesAreNotRetained() throws InterruptedException {
+		StableField<String> sf = new StableField<>("field");
+		List<WeakReference<CompletableFuture<String>>> futures = new ArrayList<>();
+		List<CompletableFuture<String>> cancelled = new ArrayList<>();
+		for (int i = 0; i < 1000; ++i) {
+			CompletableFuture<String> future = sf.toCompletableFuture();
+			futures.add(new WeakReference<>(future));
+			cancelled.add(future);
+		}
+		/* Registered above the futures: they can only be removed from the middle of the stack */
+		String[] result = new String[1];
+		sf.onSet(v -> result[0] = v);
+		cancelled.forEach(future -> future.cancel(false));
+		cancelled.clear();
+		awaitCollection(futures);
+		sf.set("value");
+		assertEquals("value", result[0]);
+	}
+
+	@Test
+	void testToPublisherEmitsValueOnceRequested() {
+		StableField<String> sf = new StableField<>("field");
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		sf.toPublisher().subscribe(subscriber);
+		subscriber.subscription.request(1);
+		assertTrue(subscriber.signals.isEmpty());
+		sf.set("value");
+		assertEquals(List.of("next value", "complete"), subscriber.signals);
+		subscriber.subscription.request(1);
+		assertEquals(List.of("next value", "complete"), subscriber.signals);
+	}
+
+	@Test
+	void testToPublisherWaitsForRequest() {
+		StableField<String> sf = new StableField<>("field");
+		sf.set("value");
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		sf.toPublisher().subscribe(subscriber);
+		assertTrue(subscriber.signals.isEmpty());
+		subscriber.subscription.request(Long.MAX_VALUE);
+		assertEquals(List.of("next value", "complete"), subscriber.signals);
+	}
+
+	@Test
+	void testToPublisherCompletesWithoutItemOnNull() {
+		StableField<String> sf = new StableField<>("field", Requirements.ALLOW_NULL);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		sf.toPublisher().subscribe(subscriber);
+		subscriber.subscription.request(1);
+		sf.set(null);
+		assertEquals(List.of("complete"), subscriber.signals);
+	}
+
+	@Test
+	void testToPublisherNonPositiveRequestFails() {
+		StableField<String> sf = new StableField<>("field");
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		sf.toPublisher().subscribe(subscriber);
+		subscriber.subscription.request(0);
+		sf.set("value");
+		assertEquals(List.of("error IllegalArgumentException"), subscriber.signals);
+	}
+
+	@Test
+	void testToPublisherCancelledSubscriptionEmitsNothing() {
+		StableField<String> sf = new StableField<>("field");
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		sf.toPublisher().subscribe(subscriber);
+		subscriber.subscription.request(1);
+		subscriber.subscription.cancel();
+		sf.set("value");
+		assertTrue(subscriber.signals.isEmpty());
+	}
+
+	@Test
+	void testToPublisherCancelRacingSetEmitsValueOrNothing() throws InterruptedException {
+		for (int i = 0; i < 1_000; ++i) {
+			StableField<String> sf = new StableField<>("field");
+			RecordingSubscriber subscriber = new RecordingSubscriber();
+			sf.toPublisher().subscribe(subscriber);
+			subscriber.subscription.request(1);
+			CountDownLatch start = new CountDownLatch(1);
+			Thread canceller = new Thread(() -> {
+				awaitUninterruptibly(start);
+				subscriber.subscription.cancel();
+			});
+			canceller.start();
+			start.countDown();
+			sf.set("value");
+			canceller.join();
+			/* The value is emitted by the setter, so the signals are only written by the current thread */
+			if (!subscriber.signals.isEmpty()) {
+				assertEquals(List.of("next value", "complete"), subscriber.signals, "at iteration " + i);
+			}
+		}
+	}
+
+	@Test
+	void testCancelledSubscriptionIsNotRetained() throws InterruptedException {
+		StableField<String> sf = new StableField<>("field");
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		sf.toPublisher().subscribe(subscriber);
+		subscriber.subscription.cancel();
+		List<WeakReference<RecordingSubscriber>> subscribers = List.of(new WeakReference<>(subscriber));
+		subscriber = null;
+		awaitCollection(subscribers);
+	}
+
+	/* Run the garbage collector until the referents are all collected, or fail after a while */
+	private static void awaitCollection(List<? extends WeakReference<?>> references) throws InterruptedException {
+		for (int i = 0; i < 100; ++i) {
+			if (references.stream().allMatch(r -> r.get() == null)) {
+				return;
+			}
+			System.gc();
+			Thread.sleep(10);
+		}
+		fail("the referents are still reachable");
+	}
+
+	@Test
+	void testGetterReturnsValueOnceSet() throws Throwable {
+		StableField<String> sf = new StableField<>("field");
+		MethodHandle getter = sf.getter();
+		assertThrows(NoSuchElementException.class, () -> {
+			Object unused = (Object) getter.invokeExact();
+		});
+		sf.set("value");
+		assertEquals("value", (Object) getter.invokeExact());
+		assertEquals("value", (Object) sf.getter().invokeExact());
+	}
+
+	@Test
+	void testGetterReturnsNullValue() throws Throwable {
+		StableField<String> sf = new StableField<>("field", Requirements.ALLOW_NULL);
+		MethodHandle getter = sf.getter();
+		sf.set(null);
+		assertNull((Object) getter.invokeExact());
+		assertNull((Object) sf.getter().invokeExact());
+	}
+
+	private static final class RecordingSubscriber implements Flow.Subscriber<String> {
+
+		Flow.Subscription subscription;
+		final List<String> signals = new ArrayList<>();
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(String item) {
+			signals.add("next " + item);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			signals.add("error " + throwable.getClass().getSimpleName());
+		}
+
+		@Override
+		public void onComplete() {
+			signals.add("complete");
+		}
+	}
+
+	@Test
+	void testSetFromFirstSetsFirstValidResult() throws Exception {
+		StableField<Integer> sf = new StableField<>("field", Requirements.POSITIVE);
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			CountDownLatch slow = new CountDownLatch(1);
+			CompletableFuture<Integer> future = sf.setFromFirst(executor, List.of(() -> {
+				awaitUninterruptibly(slow);
+				return 1;
+			}, () -> -2, () -> 3));
+			assertEquals(3, future.get(1, TimeUnit.MINUTES));
+			assertEquals(3, sf.get());
+			slow.countDown();
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testSetFromFirstAllFailing() {
+		StableField<Integer> sf = new StableField<>("field", Requirements.POSITIVE);
+		CompletableFuture<Integer> future = sf.setFromFirst(Runnable::run, List.of(() -> {
+			throw new IllegalStateException("unavailable");
+		}, () -> -2));
+		ExecutionException e = assertThrows(ExecutionException.class, future::get);
+		assertTrue(e.getCause() instanceof IllegalStateException);
+		Throwable[] suppressed = e.getCause().getSuppressed();
+		assertEquals(2, suppressed.length);
+		assertEquals("unavailable", suppressed[0].getMessage());
+		assertTrue(suppressed[1] instanceof IllegalArgumentException);
+		assertNull(sf.get(null));
+	}
+
+	@Test
+	void testSetFromFirstFailingDuringPublicationCompletesWithValue() throws InterruptedException {
+		StableField<Integer> sf = new StableField<>("field");
+		CountDownLatch failing = new CountDownLatch(1);
+		Thread[] worker = new Thread[1];
+		/* Registered before the future: run while the value is published, before the future is completed */
+		sf.onSet(v -> {
+			failing.countDown();
+			assertDoesNotThrow(() -> worker[0].join());
+		});
+		CompletableFuture<Integer> future = sf.setFromFirst(task -> {
+			worker[0] = new Thread(task);
+			worker[0].start();
+		}, List.of(() -> {
+			awaitUninterruptibly(failing);
+			throw new IllegalStateException("unavailable");
+		}));
+		sf.set(1);
+		assertEquals(1, future.getNow(null));
+	}
+
+	@Test
+	void testSetFromFirstFailureIsKeptWhenSetLater() {
+		StableField<Integer> sf = new StableField<>("field");
+		CompletableFuture<Integer> future = sf.setFromFirst(Runnable::run, List.of(() -> {
+			throw new IllegalStateException("unavailable");
+		}));
+		assertTrue(future.isCompletedExceptionally());
+		sf.set(1);
+		assertTrue(future.isCompletedExceptionally());
+		assertEquals(1, sf.get());
+	}
+
+	@Test
+	void testSetFromFirstSkipsSuppliersOnceSet() {
+		StableField<Integer> sf = new StableField<>("field");
+		AtomicInteger callsCount = new AtomicInteger();
+		CompletableFuture<Integer> future = sf.setFromFirst(Runnable::run, List.of(() -> {
+			callsCount.incrementAndGet();
+			return 1;
+		}, () -> {
+			callsCount.incrementAndGet();
+			return 2;
+		}));
+		assertEquals(1, future.join());
+		assertEquals(1, callsCount.get());
+	}
+
+	@Test
+	void testSetFromFirstAlreadySet() {
+		StableField<Integer> sf = new StableField<>("field");
+		sf.set(1);
+		assertEquals(1, sf.setFromFirst(Runnable::run, List.of(() -> 2)).join());
+	}
+
+	@Test
+	void testSetFromFirstRejectedByExecutor() {
+		StableField<Integer> sf = new StableField<>("field");
+		CompletableFuture<Integer> future = sf.setFromFirst(task -> {
+			throw new RejectedExecutionException();
+		}, List.of(() -> 1));
+		assertTrue(future.isCompletedExceptionally());
+	}
+
+	@Test
+	void testSetFromFirstNoSupplierFails() {
+		StableField<Integer> sf = new StableField<>("field");
+		assertThrows(IllegalArgumentException.class, () -> sf.setFromFirst(Runnable::run, List.of()));
+	}
+
+	@Test
+	void testOrElseSetRecursiveCallNamesCycle() {
+		StableField<Object> sf = new StableField<>("field");
+		IllegalStateException e = assertThrows(IllegalStateException.class,
+		                                       () -> sf.orElseSet(() -> sf.orElseSet(Object::new)));
+		assertEquals("cycle in the computation of field: field -> field", e.getMessage());
+	}
+
+	@Test
+	void testOrElseSetIndirectRecursiveCallNamesCycle() {
+		StableField<Object> outer = new StableField<>("outer");
+		StableField<Object> a = new StableField<>("a");
+		StableField<Object> b = new StableField<>("b");
+		IllegalStateException e = assertThrows(IllegalStateException.class, () -> outer.orElseSet(() -> {
+			return a.orElseSet(() -> b.orElseSet(() -> a.orElseSet(Object::new)));
+		}));
+		assertEquals("cycle in the computation of a: a -> b -> a", e.getMessage());
+		/* The chain is unwound: the fields can be computed again */
+		assertDoesNotThrow(() -> a.orElseSet(Object::new));
+	}
+
+	@Test
+	void testAwaitFromOwnSupplierFails() {
+		StableField<Object> sf = new StableField<>("field");
+		assertThrows(IllegalStateException.class, () -> sf.orElseSet(() -> {
+			try {
+				return sf.await();
+			} catch (InterruptedException e) {
+				throw new AssertionError(e);
+			}
+		}));
+	}
+
+	@Test
+	void testOrElseSetDetectsDeadlockBetweenThreads() throws InterruptedException {
+		System.setProperty("io.github.moonstroke.once.detectDeadlocks", "true");
+		try {
+			StableField<Object> a = new StableField<>("a");
+			StableField<Object> b = new StableField<>("b");
+			CountDownLatch computing = new CountDownLatch(2);
+			List<String> failures = Collections.synchronizedList(new ArrayList<>());
+			Thread thread1 = new Thread(() -> computeThenRead(a, b, computing, failures), "thread1");
+			Thread thread2 = new Thread(() -> computeThenRead(b, a, computing, failures), "thread2");
+			thread1.start();
+			thread2.start();
+			thread1.join(60_000);
+			thread2.join(60_000);
+			assertFalse(thread1.isAlive() || thread2.isAlive());
+			assertFalse(failures.isEmpty());
+			assertTrue(failures.get(0).startsWith("deadlock: thread"), failures::toString);
+		} finally {
+			System.clearProperty("io.github.moonstroke.once.detectDeadlocks");
+		}
+	}
+
+	/* Compute a field from another one, computed at the same time by another thread */
+	private static void computeThenRead(StableField<Object> field, StableField<Object> other, CountDownLatch computing,
+	                                    List<String> failures) {
+		try {
+			field.orElseSet(() -> {
+				computing.countDown();
+				awaitUninterruptibly(computing);
+				return other.orElseSet(Object::new);
+			});
+		} catch (IllegalStateException e) {
+			failures.add(e.getMessage());
+		}
+	}
+
 	@Test
 	void testCallToGetWithoutSetFails() {
 		StableField<Object> sf = new StableField<>("field");
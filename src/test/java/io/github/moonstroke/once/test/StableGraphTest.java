@@ -0,0 +1,173 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.moonstroke.once.StableField;
+import io.github.moonstroke.once.StableGraph;
+
+class StableGraphTest {
+
+	/* Wait for the latch, failing the calling supplier if it is not released in time */
+	private static void await(CountDownLatch latch) {
+		try {
+			if (!latch.await(1, TimeUnit.MINUTES)) {
+				throw new IllegalStateException("the latch was not released");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Test
+	void testInitializeComputesFieldsAfterTheirDependencies() {
+		StableField<Integer> a = new StableField<>("a");
+		StableField<Integer> b = new StableField<>("b");
+		StableField<Integer> c = new StableField<>("c");
+		StableField<Integer> d = new StableField<>("d");
+		StableGraph graph = new StableGraph().declare(d, () -> b.get() + c.get(), b, c)
+		                                     .declare(b, () -> a.get() + 1, a)
+		                                     .declare(c, () -> a.get() * 10, a)
+		                                     .declare(a, () -> 1);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			graph.initialize(executor).join();
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(12, d.get());
+	}
+
+	@Test
+	void testInitializeRunsIndependentFieldsInParallel() {
+		StableGraph graph = new StableGraph();
+		StableField<Integer> root = new StableField<>("root");
+		graph.declare(root, () -> 0);
+		/* Each leaf waits for all the others to start: the initialization only ends if they all run at once */
+		CountDownLatch started = new CountDownLatch(4);
+		for (int i = 0; i < 4; ++i) {
+			graph.declare(new StableField<Integer>("leaf" + i), () -> {
+				started.countDown();
+				await(started);
+				return 1;
+			}, root);
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		StableGraph.Report report;
+		try {
+			report = graph.initialize(executor).join();
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(2, report.criticalPath().size());
+		assertEquals("root", report.criticalPath().get(0));
+	}
+
+	@Test
+	void testInitializeReportsCriticalPath() {
+		StableField<Integer> a = new StableField<>("a");
+		StableField<Integer> slow = new StableField<>("slow");
+		StableField<Integer> fast = new StableField<>("fast");
+		StableField<Integer> end = new StableField<>("end");
+		Queue<Runnable> tasks = new ArrayDeque<>();
+		/* The supplier of slow runs the computation of fast, submitted along with it, so that it takes longer */
+		StableGraph graph = new StableGraph().declare(a, () -> 1)
+		                                     .declare(slow, () -> {
+			                                     tasks.remove().run();
+			                                     return 2;
+		                                     }, a)
+		                                     .declare(fast, () -> 3, a)
+		                                     .declare(end, () -> 4, slow, fast);
+		CompletableFuture<StableGraph.Report> result = graph.initialize(tasks::add);
+		while (!tasks.isEmpty()) {
+			tasks.remove().run();
+		}
+		StableGraph.Report report = result.join();
+		assertEquals(List.of("a", "slow", "end"), report.criticalPath());
+		assertTrue(report.criticalPathDuration().compareTo(Duration.ZERO) > 0);
+	}
+
+	@Test
+	void testInitializeDetectsCycleBeforeRunningAnything() {
+		StableField<Integer> a = new StableField<>("a");
+		StableField<Integer> b = new StableField<>("b");
+		StableField<Integer> c = new StableField<>("c");
+		StableField<Integer> free = new StableField<>("free");
+		StableGraph graph = new StableGraph().declare(free, () -> 0)
+		                                     .declare(a, () -> 1, c)
+		                                     .declare(b, () -> 2, a)
+		                                     .declare(c, () -> 3, b);
+		IllegalStateException e = assertThrows(IllegalStateException.class, () -> graph.initialize(Runnable::run));
+		assertEquals("cycle in the dependencies: a -> b -> c -> a", e.getMessage());
+		assertNull(free.get(null));
+	}
+
+	@Test
+	void testInitializeRejectsUndeclaredUnsetDependency() {
+		StableField<Integer> a = new StableField<>("a");
+		StableField<Integer> b = new StableField<>("b");
+		StableGraph graph = new StableGraph().declare(b, () -> a.get() + 1, a);
+		assertThrows(IllegalStateException.class, () -> graph.initialize(Runnable::run));
+		a.set(1);
+		graph.initialize(Runnable::run).join();
+		assertEquals(2, b.get());
+	}
+
+	@Test
+	void testInitializeSkipsDependentsOfFailedField() {
+		StableField<Integer> failing = new StableField<>("failing");
+		StableField<Integer> dependent = new StableField<>("dependent");
+		StableField<Integer> other = new StableField<>("other");
+		AtomicInteger calls = new AtomicInteger();
+		StableGraph graph = new StableGraph().declare(failing, () -> {
+			throw new IllegalStateException("unavailable");
+		}).declare(dependent, () -> calls.incrementAndGet(), failing).declare(other, () -> 5);
+		CompletionException e = assertThrows(CompletionException.class, () -> graph.initialize(Runnable::run).join());
+		assertEquals(1, e.getCause().getSuppressed().length);
+		assertEquals("unavailable", e.getCause().getSuppressed()[0].getMessage());
+		assertEquals(0, calls.get());
+		assertNull(dependent.get(null));
+		assertEquals(5, other.get());
+	}
+
+	@Test
+	void testInitializeKeepsFieldAlreadySet() {
+		StableField<Integer> a = new StableField<>("a");
+		a.set(1);
+		new StableGraph().declare(a, () -> 2).initialize(Runnable::run).join();
+		assertEquals(1, a.get());
+	}
+
+	@Test
+	void testDeclareTwiceFails() {
+		StableField<Integer> a = new StableField<>("a");
+		StableGraph graph = new StableGraph().declare(a, () -> 1);
+		assertThrows(IllegalArgumentException.class, () -> graph.declare(a, () -> 2));
+	}
+
+	@Test
+	void testInitializeTwiceFails() {
+		StableGraph graph = new StableGraph();
+		graph.initialize(Runnable::run).join();
+		assertThrows(IllegalStateException.class, () -> graph.initialize(Runnable::run));
+	}
+}
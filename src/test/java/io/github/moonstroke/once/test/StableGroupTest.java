@@ -0,0 +1,159 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.moonstroke.once.Requirements;
+import io.github.moonstroke.once.StableGroup;
+
+class StableGroupTest {
+
+	@Test
+	void testConstructorCallNullNameFails() {
+		assertThrows(NullPointerException.class, () -> new StableGroup(null));
+	}
+
+	@Test
+	void testConstructorCallEmptyNameFails() {
+		assertThrows(IllegalArgumentException.class, () -> new StableGroup(""));
+	}
+
+	@Test
+	void testSetPublishesAllValues() {
+		StableGroup group = new StableGroup("connection");
+		StableGroup.Member<String> host = group.member("host", Requirements.STRING_NOT_BLANK);
+		StableGroup.Member<Integer> port = group.member("port", Requirements.inRange(1, 65535));
+		assertFalse(group.isSet());
+		assertThrows(NoSuchElementException.class, host::get);
+		group.values().with(host, "example.org").with(port, 443).set();
+		assertTrue(group.isSet());
+		assertEquals("example.org", host.get());
+		assertEquals(443, port.get());
+		assertEquals("io.github.moonstroke.once.StableGroup \"connection\" {host=example.org, port=443}",
+		             group.toString());
+	}
+
+	@Test
+	void testInvalidValueSetsNothing() {
+		StableGroup group = new StableGroup("connection");
+		StableGroup.Member<String> host = group.member("host", Requirements.STRING_NOT_BLANK);
+		StableGroup.Member<Integer> port = group.member("port", Requirements.inRange(1, 65535));
+		StableGroup.Values values = group.values().with(host, "example.org").with(port, 0);
+		assertThrows(IllegalArgumentException.class, values::set);
+		assertFalse(group.isSet());
+		assertNull(host.get(null));
+	}
+
+	@Test
+	void testNullValueRequiresAllowNull() {
+		StableGroup group = new StableGroup("group");
+		StableGroup.Member<String> optional = group.member("optional", Requirements.ALLOW_NULL);
+		StableGroup.Member<String> mandatory = group.member("mandatory");
+		assertThrows(NullPointerException.class, () -> group.values().with(optional, null).with(mandatory, null).set());
+		group.values().with(optional, null).with(mandatory, "value").set();
+		assertNull(optional.get("default"));
+	}
+
+	@Test
+	void testMissingValueFails() {
+		StableGroup group = new StableGroup("group");
+		StableGroup.Member<String> first = group.member("first");
+		group.member("second");
+		assertThrows(IllegalStateException.class, () -> group.values().with(first, "value").set());
+		assertFalse(group.isSet());
+	}
+
+	@Test
+	void testSetTwiceFails() {
+		StableGroup group = new StableGroup("group");
+		StableGroup.Member<String> member = group.member("member");
+		group.values().with(member, "first").set();
+		assertFalse(group.values().with(member, "second").trySet());
+		assertThrows(IllegalStateException.class, () -> group.values().with(member, "second").set());
+		assertEquals("first", member.get());
+	}
+
+	@Test
+	void testValueGivenTwiceFails() {
+		StableGroup group = new StableGroup("group");
+		StableGroup.Member<String> member = group.member("member");
+		StableGroup.Values values = group.values().with(member, "first");
+		assertThrows(IllegalArgumentException.class, () -> values.with(member, "second"));
+	}
+
+	@Test
+	void testMemberOfOtherGroupFails() {
+		StableGroup group = new StableGroup("group");
+		StableGroup.Member<String> foreign = new StableGroup("other").member("member");
+		assertThrows(IllegalArgumentException.class, () -> group.values().with(foreign, "value"));
+	}
+
+	@Test
+	void testMemberAfterValuesFails() {
+		StableGroup group = new StableGroup("group");
+		group.values();
+		assertThrows(IllegalStateException.class, () -> group.member("late"));
+	}
+
+	@Test
+	void testMemberRacingValuesIsPartOfBatchOrFails() throws InterruptedException {
+		StableGroup group = new StableGroup("group");
+		List<StableGroup.Member<Integer>> declared = new ArrayList<>();
+		CountDownLatch declaring = new CountDownLatch(1);
+		Thread declarer = new Thread(() -> {
+			for (int i = 0;; ++i) {
+				try {
+					declared.add(group.member("member" + i));
+				} catch (IllegalStateException e) {
+					return;
+				}
+				declaring.countDown();
+			}
+		});
+		declarer.start();
+		declaring.await();
+		StableGroup.Values values = group.values();
+		declarer.join();
+		for (int i = 0; i < declared.size(); ++i) {
+			values.with(declared.get(i), i);
+		}
+		values.set();
+		for (int i = 0; i < declared.size(); ++i) {
+			assertEquals(i, declared.get(i).get());
+		}
+	}
+
+	@Test
+	void testReadersSeeNoneOrAllValues() throws InterruptedException {
+		for (int round = 0; round < 100; ++round) {
+			StableGroup group = new StableGroup("group");
+			StableGroup.Member<Integer> first = group.member("first");
+			StableGroup.Member<Integer> second = group.member("second");
+			boolean[] torn = new boolean[1];
+			Thread reader = new Thread(() -> {
+				while (!group.isSet()) {
+					Integer a = first.get(null);
+					Integer b = second.get(null);
+					/* Read after the first, the second cannot be unset if the first is set */
+					torn[0] |= a != null && b == null;
+				}
+			});
+			reader.start();
+			group.values().with(first, 1).with(second, 2).set();
+			reader.join();
+			assertFalse(torn[0]);
+		}
+	}
+}
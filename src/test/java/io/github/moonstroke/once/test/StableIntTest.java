@@ -0,0 +1,298 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once.test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.moonstroke.once.IntRequirement;
+import io.github.moonstroke.once.StableInt;
+
+class StableIntTest {
+
+	@Test
+	void testConstructorCallNullNameFails() {
+		assertThrows(NullPointerException.class, () -> new StableInt(null));
+	}
+
+	@Test
+	void testConstructorCallEmptyNameFails() {
+		assertThrows(IllegalArgumentException.class, () -> new StableInt(""));
+	}
+
+	@Test
+	void testConstructorCallNullRequirementFails() {
+		assertThrows(NullPointerException.class, () -> new StableInt("field", (IntRequirement) null));
+	}
+
+	@Test
+	void testFirstCallToSetDoesNotFail() {
+		StableInt sf = new StableInt("field");
+		assertDoesNotThrow(() -> sf.set(42));
+	}
+
+	@Test
+	void testSecondCallToSetFails() {
+		StableInt sf = new StableInt("field");
+		sf.set(42);
+		assertThrows(IllegalStateException.class, () -> sf.set(42));
+	}
+
+	@Test
+	void testCallToSetAppliesRequirements() {
+		StableInt sf = new StableInt("field", IntRequirement.fromPredicate(v -> v > 0));
+		assertThrows(IllegalArgumentException.class, () -> sf.set(-1));
+	}
+
+	@Test
+	void testOrElseSetAppliesRequirements() {
+		StableInt sf = new StableInt("field", IntRequirement.fromPredicate(v -> v > 0));
+		assertThrows(IllegalArgumentException.class, () -> sf.orElseSet(() -> -1));
+	}
+
+	@Test
+	void testTrySetReturnsTrueWhenDidSet() {
+		StableInt sf = new StableInt("field");
+		assertTrue(sf.trySet(42));
+	}
+
+	@Test
+	void testTrySetReturnsFalseWhenDidNotSet() {
+		StableInt sf = new StableInt("field");
+		sf.set(42);
+		assertFalse(sf.trySet(7));
+	}
+
+	@Test
+	void testCallToGetWithoutSetFails() {
+		StableInt sf = new StableInt("field");
+		assertThrows(NoSuchElementException.class, sf::getAsInt);
+	}
+
+	@Test
+	void testGetReturnsValuePassedToSet() {
+		StableInt sf = new StableInt("field");
+		sf.set(42);
+		assertEquals(42, sf.getAsInt());
+	}
+
+	@Test
+	void testGetDefaultReturnsStoredValueIfSet() {
+		StableInt sf = new StableInt("field");
+		sf.set(42);
+		assertEquals(42, sf.getAsInt(7));
+	}
+
+	@Test
+	void testGetDefaultReturnsDefaultValueIfNotSet() {
+		StableInt sf = new StableInt("field");
+		assertEquals(7, sf.getAsInt(7));
+	}
+
+	@Test
+	void testOrElseSetReturnsComputedValue() {
+		StableInt sf = new StableInt("field");
+		assertEquals(42, sf.orElseSet(() -> 42));
+	}
+
+	@Test
+	void testOrElseSetDoesNotCallSupplierWhenSet() {
+		StableInt sf = new StableInt("field");
+		sf.set(42);
+		assertEquals(42, sf.orElseSet(() -> {
+			fail("supplier called");
+			return 7;
+		}));
+	}
+
+	@Test
+	void testOrElseSetLeavesUnsetWhenSupplierFails() {
+		StableInt sf = new StableInt("field");
+		assertThrows(UnsupportedOperationException.class, () -> sf.orElseSet(() -> {
+			throw new UnsupportedOperationException();
+		}));
+		assertThrows(NoSuchElementException.class, sf::getAsInt);
+	}
+
+	@Test
+	void testOrElseSetRecursiveCallFails() {
+		StableInt sf = new StableInt("field");
+		assertThrows(IllegalStateException.class, () -> sf.orElseSet(() -> sf.orElseSet(() -> 42)));
+	}
+
+	@Test
+	void testSetFromSupplierFails() {
+		StableInt sf = new StableInt("field");
+		assertThrows(IllegalStateException.class, () -> sf.orElseSet(() -> {
+			sf.set(7);
+			return 42;
+		}));
+		assertEquals(42, sf.orElseSet(() -> {
+			assertFalse(sf.trySet(7));
+			return 42;
+		}));
+	}
+
+	@Test
+	void testSetDuringComputationWins() throws InterruptedException {
+		StableInt sf = new StableInt("field");
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch set = new CountDownLatch(1);
+		int[] result = new int[1];
+		Thread computer = new Thread(() -> result[0] = sf.orElseSet(() -> {
+			computing.countDown();
+			awaitUninterruptibly(set);
+			return 42;
+		}));
+		computer.start();
+		computing.await();
+		sf.set(7);
+		set.countDown();
+		computer.join();
+		assertEquals(7, result[0]);
+		assertEquals(7, sf.getAsInt());
+	}
+
+	@Test
+	void testSetDuringFailingComputationWins() throws InterruptedException {
+		StableInt sf = new StableInt("field");
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch set = new CountDownLatch(1);
+		Thread computer = new Thread(() -> assertThrows(UnsupportedOperationException.class, () -> sf.orElseSet(() -> {
+			computing.countDown();
+			awaitUninterruptibly(set);
+			throw new UnsupportedOperationException();
+		})));
+		computer.start();
+		computing.await();
+		assertTrue(sf.trySet(7));
+		set.countDown();
+		computer.join();
+		assertEquals(7, sf.getAsInt());
+	}
+
+	@Test
+	void testSetDuringComputationWakesUpWaiters() throws InterruptedException {
+		StableInt sf = new StableInt("field");
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch set = new CountDownLatch(1);
+		Thread computer = new Thread(() -> sf.orElseSet(() -> {
+			computing.countDown();
+			awaitUninterruptibly(set);
+			return 42;
+		}));
+		computer.start();
+		computing.await();
+		int[] result = new int[1];
+		Thread waiter = new Thread(() -> result[0] = sf.orElseSet(() -> {
+			throw new AssertionError("the value is being computed");
+		}));
+		waiter.start();
+		/* Parked without a timeout, until woken up by the setter */
+		while (waiter.getState() != Thread.State.WAITING) {
+			Thread.onSpinWait();
+		}
+		sf.set(7);
+		waiter.join();
+		assertEquals(7, result[0]);
+		set.countDown();
+		computer.join();
+	}
+
+	@Test
+	void testSetLosingToComputationFailsAsAlreadySet() throws InterruptedException {
+		for (int i = 0; i < 1_000; ++i) {
+			StableInt sf = new StableInt("field");
+			Thread computer = new Thread(() -> sf.orElseSet(() -> 42));
+			computer.start();
+			try {
+				sf.set(7);
+			} catch (IllegalStateException e) {
+				/* The computed value won, and is visible once the setter has failed */
+				assertEquals("field is already set", e.getMessage());
+				assertEquals(42, sf.getAsInt());
+			}
+			computer.join();
+		}
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			fail(e);
+		}
+	}
+
+	@Test
+	void testOrElseSetCalledInParallelCallsSupplierOnce() {
+		StableInt sf = new StableInt("field");
+		AtomicInteger callsCount = new AtomicInteger();
+		Thread thread1 = new Thread(() -> sf.orElseSet(() -> {
+			callsCount.incrementAndGet();
+			return 42;
+		}));
+		Thread thread2 = new Thread(() -> sf.orElseSet(() -> {
+			callsCount.incrementAndGet();
+			return 7;
+		}));
+		thread1.start();
+		thread2.start();
+		try {
+			thread1.join();
+			thread2.join();
+		} catch (InterruptedException e) {
+			fail(e);
+		}
+		assertEquals(1, callsCount.get());
+	}
+
+	@Test
+	void testEqualsInstSetSameValueSameNameReturnsTrue() {
+		StableInt sf = new StableInt("field");
+		sf.set(42);
+		StableInt other = new StableInt("field");
+		other.set(42);
+		assertTrue(sf.equals(other));
+	}
+
+	@Test
+	void testEqualsInstSetOtherValueSameNameReturnsFalse() {
+		StableInt sf = new StableInt("field");
+		sf.set(42);
+		StableInt other = new StableInt("field");
+		other.set(7);
+		assertFalse(sf.equals(other));
+	}
+
+	@Test
+	void testEqualsUnsetInstReturnsFalseWhenSetSameName() {
+		StableInt sf = new StableInt("field");
+		sf.set(42);
+		assertFalse(sf.equals(new StableInt("field")));
+	}
+
+	@Test
+	void testHashCodeReturnsNonZeroIfNotSet() {
+		StableInt sf = new StableInt("field");
+		assertNotEquals(0, sf.hashCode());
+	}
+
+	@Test
+	void testToStringSucceedsWhenSet() {
+		StableInt sf = new StableInt("field");
+		sf.set(42);
+		assertDoesNotThrow(sf::toString);
+	}
+}
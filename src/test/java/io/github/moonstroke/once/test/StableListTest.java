@@ -0,0 +1,232 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once.test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.moonstroke.once.Requirement;
+import io.github.moonstroke.once.Requirements;
+import io.github.moonstroke.once.StableList;
+
+class StableListTest {
+
+	@Test
+	void testConstructorCallNullNameFails() {
+		assertThrows(NullPointerException.class, () -> new StableList<>(null, 1));
+	}
+
+	@Test
+	void testConstructorCallEmptyNameFails() {
+		assertThrows(IllegalArgumentException.class, () -> new StableList<>("", 1));
+	}
+
+	@Test
+	void testConstructorCallNegativeSizeFails() {
+		assertThrows(IllegalArgumentException.class, () -> new StableList<>("list", -1));
+	}
+
+	@Test
+	void testConstructorCallNullRequirementFails() {
+		assertThrows(NullPointerException.class, () -> new StableList<>("list", 1, (Requirement<Object>) null));
+	}
+
+	@Test
+	void testSizeReturnsConstructorSize() {
+		assertEquals(3, new StableList<>("list", 3).size());
+	}
+
+	@Test
+	void testSetOutOfBoundsFails() {
+		StableList<Object> sl = new StableList<>("list", 3);
+		assertThrows(IndexOutOfBoundsException.class, () -> sl.set(3, new Object()));
+	}
+
+	@Test
+	void testSecondCallToSetSameIndexFails() {
+		StableList<Object> sl = new StableList<>("list", 3);
+		sl.set(1, new Object());
+		assertThrows(IllegalStateException.class, () -> sl.set(1, new Object()));
+	}
+
+	@Test
+	void testCallToSetOtherIndexDoesNotFail() {
+		StableList<Object> sl = new StableList<>("list", 3);
+		sl.set(1, new Object());
+		assertDoesNotThrow(() -> sl.set(2, new Object()));
+	}
+
+	@Test
+	void testCallToSetNullFails() {
+		StableList<Object> sl = new StableList<>("list", 3);
+		assertThrows(NullPointerException.class, () -> sl.set(0, null));
+	}
+
+	@Test
+	void testCallToSetNullAllowedDoesNotFail() {
+		StableList<Object> sl = new StableList<>("list", 3, Requirements.ALLOW_NULL);
+		sl.set(0, null);
+		assertNull(sl.get(0));
+	}
+
+	@Test
+	void testCallToSetAppliesRequirements() {
+		StableList<Integer> sl = new StableList<>("list", 3, Requirements.POSITIVE);
+		assertThrows(IllegalArgumentException.class, () -> sl.set(0, 0));
+	}
+
+	@Test
+	void testTrySetReturnsTrueWhenDidSet() {
+		StableList<Object> sl = new StableList<>("list", 3);
+		assertTrue(sl.trySet(0, new Object()));
+	}
+
+	@Test
+	void testTrySetReturnsFalseWhenDidNotSet() {
+		StableList<Object> sl = new StableList<>("list", 3);
+		sl.set(0, new Object());
+		assertFalse(sl.trySet(0, new Object()));
+	}
+
+	@Test
+	void testCallToGetWithoutSetFails() {
+		StableList<Object> sl = new StableList<>("list", 3);
+		assertThrows(NoSuchElementException.class, () -> sl.get(0));
+	}
+
+	@Test
+	void testCallToGetOutOfBoundsFails() {
+		StableList<Object> sl = new StableList<>("list", 3);
+		assertThrows(IndexOutOfBoundsException.class, () -> sl.get(-1));
+	}
+
+	@Test
+	void testGetReturnsValuePassedToSet() {
+		StableList<Object> sl = new StableList<>("list", 3);
+		Object value = new Object();
+		sl.set(2, value);
+		assertEquals(value, sl.get(2));
+	}
+
+	@Test
+	void testGetDefaultReturnsDefaultValueIfNotSet() {
+		StableList<Object> sl = new StableList<>("list", 3);
+		Object defaultValue = new Object();
+		assertEquals(defaultValue, sl.get(0, defaultValue));
+	}
+
+	@Test
+	void testOrElseSetPassesIndexToFunction() {
+		StableList<Integer> sl = new StableList<>("list", 3);
+		assertEquals(4, sl.orElseSet(2, i -> i * 2));
+	}
+
+	@Test
+	void testOrElseSetDoesNotCallFunctionWhenSet() {
+		StableList<Object> sl = new StableList<>("list", 3);
+		Object value = new Object();
+		sl.set(1, value);
+		assertEquals(value, sl.orElseSet(1, i -> fail("function called")));
+	}
+
+	@Test
+	void testOrElseSetLeavesUnsetWhenFunctionFails() {
+		StableList<Object> sl = new StableList<>("list", 3);
+		assertThrows(UnsupportedOperationException.class, () -> sl.orElseSet(0, i -> {
+			throw new UnsupportedOperationException();
+		}));
+		assertThrows(NoSuchElementException.class, () -> sl.get(0));
+	}
+
+	@Test
+	void testOrElseSetRecursiveCallSameIndexFails() {
+		StableList<Object> sl = new StableList<>("list", 3);
+		assertThrows(IllegalStateException.class, () -> sl.orElseSet(0, i -> sl.orElseSet(0, j -> new Object())));
+	}
+
+	@Test
+	void testOrElseSetRecursiveCallOtherIndexDoesNotFail() {
+		StableList<Integer> sl = new StableList<>("list", 3);
+		assertEquals(3, sl.orElseSet(0, i -> sl.orElseSet(1, j -> 2) + 1));
+	}
+
+	@Test
+	void testOrElseSetCalledInParallelCallsFunctionOnce() {
+		StableList<Object> sl = new StableList<>("list", 3);
+		AtomicInteger callsCount = new AtomicInteger();
+		Object[] results = new Object[2];
+		Thread thread1 = new Thread(() -> results[0] = sl.orElseSet(1, i -> {
+			callsCount.incrementAndGet();
+			return new Object();
+		}));
+		Thread thread2 = new Thread(() -> results[1] = sl.orElseSet(1, i -> {
+			callsCount.incrementAndGet();
+			return new Object();
+		}));
+		thread1.start();
+		thread2.start();
+		try {
+			thread1.join();
+			thread2.join();
+		} catch (InterruptedException e) {
+			fail(e);
+		}
+		assertEquals(1, callsCount.get());
+		assertEquals(results[0], results[1]);
+	}
+
+	@Test
+	void testSetDuringComputationWakesUpWaiters() throws InterruptedException {
+		StableList<Integer> sl = new StableList<>("list", 3);
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch set = new CountDownLatch(1);
+		Thread computer = new Thread(() -> sl.orElseSet(1, i -> {
+			computing.countDown();
+			awaitUninterruptibly(set);
+			return 42;
+		}));
+		computer.start();
+		computing.await();
+		Object[] result = new Object[1];
+		Thread waiter = new Thread(() -> result[0] = sl.orElseSet(1, i -> {
+			throw new AssertionError("the value is being computed");
+		}));
+		waiter.start();
+		/* Parked without a timeout, until woken up by the setter */
+		while (waiter.getState() != Thread.State.WAITING) {
+			Thread.onSpinWait();
+		}
+		sl.set(1, 7);
+		waiter.join();
+		assertEquals(7, result[0]);
+		set.countDown();
+		computer.join();
+		assertEquals(7, sl.get(1));
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			fail(e);
+		}
+	}
+
+	@Test
+	void testToStringSucceeds() {
+		StableList<Object> sl = new StableList<>("list", 3);
+		sl.set(1, new Object());
+		assertDoesNotThrow(sl::toString);
+	}
+}
@@ -0,0 +1,298 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once.test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.moonstroke.once.LongRequirement;
+import io.github.moonstroke.once.StableLong;
+
+class StableLongTest {
+
+	@Test
+	void testConstructorCallNullNameFails() {
+		assertThrows(NullPointerException.class, () -> new StableLong(null));
+	}
+
+	@Test
+	void testConstructorCallEmptyNameFails() {
+		assertThrows(IllegalArgumentException.class, () -> new StableLong(""));
+	}
+
+	@Test
+	void testConstructorCallNullRequirementFails() {
+		assertThrows(NullPointerException.class, () -> new StableLong("field", (LongRequirement) null));
+	}
+
+	@Test
+	void testFirstCallToSetDoesNotFail() {
+		StableLong sf = new StableLong("field");
+		assertDoesNotThrow(() -> sf.set(42L));
+	}
+
+	@Test
+	void testSecondCallToSetFails() {
+		StableLong sf = new StableLong("field");
+		sf.set(42L);
+		assertThrows(IllegalStateException.class, () -> sf.set(42L));
+	}
+
+	@Test
+	void testCallToSetAppliesRequirements() {
+		StableLong sf = new StableLong("field", LongRequirement.fromPredicate(v -> v > 0));
+		assertThrows(IllegalArgumentException.class, () -> sf.set(-1L));
+	}
+
+	@Test
+	void testOrElseSetAppliesRequirements() {
+		StableLong sf = new StableLong("field", LongRequirement.fromPredicate(v -> v > 0));
+		assertThrows(IllegalArgumentException.class, () -> sf.orElseSet(() -> -1L));
+	}
+
+	@Test
+	void testTrySetReturnsTrueWhenDidSet() {
+		StableLong sf = new StableLong("field");
+		assertTrue(sf.trySet(42L));
+	}
+
+	@Test
+	void testTrySetReturnsFalseWhenDidNotSet() {
+		StableLong sf = new StableLong("field");
+		sf.set(42L);
+		assertFalse(sf.trySet(7L));
+	}
+
+	@Test
+	void testCallToGetWithoutSetFails() {
+		StableLong sf = new StableLong("field");
+		assertThrows(NoSuchElementException.class, sf::getAsLong);
+	}
+
+	@Test
+	void testGetReturnsValuePassedToSet() {
+		StableLong sf = new StableLong("field");
+		sf.set(42L);
+		assertEquals(42L, sf.getAsLong());
+	}
+
+	@Test
+	void testGetDefaultReturnsStoredValueIfSet() {
+		StableLong sf = new StableLong("field");
+		sf.set(42L);
+		assertEquals(42L, sf.getAsLong(7L));
+	}
+
+	@Test
+	void testGetDefaultReturnsDefaultValueIfNotSet() {
+		StableLong sf = new StableLong("field");
+		assertEquals(7L, sf.getAsLong(7L));
+	}
+
+	@Test
+	void testOrElseSetReturnsComputedValue() {
+		StableLong sf = new StableLong("field");
+		assertEquals(42L, sf.orElseSet(() -> 42L));
+	}
+
+	@Test
+	void testOrElseSetDoesNotCallSupplierWhenSet() {
+		StableLong sf = new StableLong("field");
+		sf.set(42L);
+		assertEquals(42L, sf.orElseSet(() -> {
+			fail("supplier called");
+			return 7L;
+		}));
+	}
+
+	@Test
+	void testOrElseSetLeavesUnsetWhenSupplierFails() {
+		StableLong sf = new StableLong("field");
+		assertThrows(UnsupportedOperationException.class, () -> sf.orElseSet(() -> {
+			throw new UnsupportedOperationException();
+		}));
+		assertThrows(NoSuchElementException.class, sf::getAsLong);
+	}
+
+	@Test
+	void testOrElseSetRecursiveCallFails() {
+		StableLong sf = new StableLong("field");
+		assertThrows(IllegalStateException.class, () -> sf.orElseSet(() -> sf.orElseSet(() -> 42L)));
+	}
+
+	@Test
+	void testSetFromSupplierFails() {
+		StableLong sf = new StableLong("field");
+		assertThrows(IllegalStateException.class, () -> sf.orElseSet(() -> {
+			sf.set(7L);
+			return 42L;
+		}));
+		assertEquals(42L, sf.orElseSet(() -> {
+			assertFalse(sf.trySet(7L));
+			return 42L;
+		}));
+	}
+
+	@Test
+	void testSetDuringComputationWins() throws InterruptedException {
+		StableLong sf = new StableLong("field");
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch set = new CountDownLatch(1);
+		long[] result = new long[1];
+		Thread computer = new Thread(() -> result[0] = sf.orElseSet(() -> {
+			computing.countDown();
+			awaitUninterruptibly(set);
+			return 42L;
+		}));
+		computer.start();
+		computing.await();
+		sf.set(7L);
+		set.countDown();
+		computer.join();
+		assertEquals(7L, result[0]);
+		assertEquals(7L, sf.getAsLong());
+	}
+
+	@Test
+	void testSetDuringFailingComputationWins() throws InterruptedException {
+		StableLong sf = new StableLong("field");
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch set = new CountDownLatch(1);
+		Thread computer = new Thread(() -> assertThrows(UnsupportedOperationException.class, () -> sf.orElseSet(() -> {
+			computing.countDown();
+			awaitUninterruptibly(set);
+			throw new UnsupportedOperationException();
+		})));
+		computer.start();
+		computing.await();
+		assertTrue(sf.trySet(7L));
+		set.countDown();
+		computer.join();
+		assertEquals(7L, sf.getAsLong());
+	}
+
+	@Test
+	void testSetDuringComputationWakesUpWaiters() throws InterruptedException {
+		StableLong sf = new StableLong("field");
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch set = new CountDownLatch(1);
+		Thread computer = new Thread(() -> sf.orElseSet(() -> {
+			computing.countDown();
+			awaitUninterruptibly(set);
+			return 42L;
+		}));
+		computer.start();
+		computing.await();
+		long[] result = new long[1];
+		Thread waiter = new Thread(() -> result[0] = sf.orElseSet(() -> {
+			throw new AssertionError("the value is being computed");
+		}));
+		waiter.start();
+		/* Parked without a timeout, until woken up by the setter */
+		while (waiter.getState() != Thread.State.WAITING) {
+			Thread.onSpinWait();
+		}
+		sf.set(7L);
+		waiter.join();
+		assertEquals(7L, result[0]);
+		set.countDown();
+		computer.join();
+	}
+
+	@Test
+	void testSetLosingToComputationFailsAsAlreadySet() throws InterruptedException {
+		for (int i = 0; i < 1_000; ++i) {
+			StableLong sf = new StableLong("field");
+			Thread computer = new Thread(() -> sf.orElseSet(() -> 42L));
+			computer.start();
+			try {
+				sf.set(7L);
+			} catch (IllegalStateException e) {
+				/* The computed value won, and is visible once the setter has failed */
+				assertEquals("field is already set", e.getMessage());
+				assertEquals(42L, sf.getAsLong());
+			}
+			computer.join();
+		}
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			fail(e);
+		}
+	}
+
+	@Test
+	void testOrElseSetCalledInParallelCallsSupplierOnce() {
+		StableLong sf = new StableLong("field");
+		AtomicInteger callsCount = new AtomicInteger();
+		Thread thread1 = new Thread(() -> sf.orElseSet(() -> {
+			callsCount.incrementAndGet();
+			return 42L;
+		}));
+		Thread thread2 = new Thread(() -> sf.orElseSet(() -> {
+			callsCount.incrementAndGet();
+			return 7L;
+		}));
+		thread1.start();
+		thread2.start();
+		try {
+			thread1.join();
+			thread2.join();
+		} catch (InterruptedException e) {
+			fail(e);
+		}
+		assertEquals(1, callsCount.get());
+	}
+
+	@Test
+	void testEqualsInstSetSameValueSameNameReturnsTrue() {
+		StableLong sf = new StableLong("field");
+		sf.set(42L);
+		StableLong other = new StableLong("field");
+		other.set(42L);
+		assertTrue(sf.equals(other));
+	}
+
+	@Test
+	void testEqualsInstSetOtherValueSameNameReturnsFalse() {
+		StableLong sf = new StableLong("field");
+		sf.set(42L);
+		StableLong other = new StableLong("field");
+		other.set(7L);
+		assertFalse(sf.equals(other));
+	}
+
+	@Test
+	void testEqualsUnsetInstReturnsFalseWhenSetSameName() {
+		StableLong sf = new StableLong("field");
+		sf.set(42L);
+		assertFalse(sf.equals(new StableLong("field")));
+	}
+
+	@Test
+	void testHashCodeReturnsNonZeroIfNotSet() {
+		StableLong sf = new StableLong("field");
+		assertNotEquals(0, sf.hashCode());
+	}
+
+	@Test
+	void testToStringSucceedsWhenSet() {
+		StableLong sf = new StableLong("field");
+		sf.set(42L);
+		assertDoesNotThrow(sf::toString);
+	}
+}
@@ -0,0 +1,248 @@
+/* SPDX-FileCopyrightText: 2026 (c) Joachim MARIE <moonstroke+github@live.fr>
+ * SPDX-License-Identifier: MIT */
+package io.github.moonstroke.once.test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.moonstroke.once.Requirement;
+import io.github.moonstroke.once.Requirements;
+import io.github.moonstroke.once.StableMap;
+
+class StableMapTest {
+
+	@Test
+	void testConstructorCallNullNameFails() {
+		assertThrows(NullPointerException.class, () -> new StableMap<>(null));
+	}
+
+	@Test
+	void testConstructorCallEmptyNameFails() {
+		assertThrows(IllegalArgumentException.class, () -> new StableMap<>(""));
+	}
+
+	@Test
+	void testConstructorCallNullKeysFails() {
+		assertThrows(NullPointerException.class, () -> new StableMap<>("map", (Set<Object>) null));
+	}
+
+	@Test
+	void testConstructorCallNullRequirementFails() {
+		assertThrows(NullPointerException.class, () -> new StableMap<>("map", (Requirement<Object>) null));
+	}
+
+	@Test
+	void testSecondCallToSetSameKeyFails() {
+		StableMap<String, Object> sm = new StableMap<>("map");
+		sm.set("key", new Object());
+		assertThrows(IllegalStateException.class, () -> sm.set("key", new Object()));
+	}
+
+	@Test
+	void testCallToSetOtherKeyDoesNotFail() {
+		StableMap<String, Object> sm = new StableMap<>("map");
+		sm.set("key", new Object());
+		assertDoesNotThrow(() -> sm.set("other", new Object()));
+	}
+
+	@Test
+	void testCallToSetNullKeyFails() {
+		StableMap<String, Object> sm = new StableMap<>("map");
+		assertThrows(NullPointerException.class, () -> sm.set(null, new Object()));
+	}
+
+	@Test
+	void testCallToSetNullValueFails() {
+		StableMap<String, Object> sm = new StableMap<>("map");
+		assertThrows(NullPointerException.class, () -> sm.set("key", null));
+	}
+
+	@Test
+	void testCallToSetNullValueAllowedDoesNotFail() {
+		StableMap<String, Object> sm = new StableMap<>("map", Requirements.ALLOW_NULL);
+		sm.set("key", null);
+		assertNull(sm.get("key"));
+	}
+
+	@Test
+	void testCallToSetAppliesRequirements() {
+		StableMap<String, Integer> sm = new StableMap<>("map", Requirements.POSITIVE);
+		assertThrows(IllegalArgumentException.class, () -> sm.set("key", -1));
+	}
+
+	@Test
+	void testCallToSetKeyOutOfDomainFails() {
+		StableMap<String, Object> sm = new StableMap<>("map", Set.of("a", "b"));
+		assertThrows(IllegalArgumentException.class, () -> sm.set("c", new Object()));
+	}
+
+	@Test
+	void testCallToSetKeyInDomainDoesNotFail() {
+		StableMap<String, Object> sm = new StableMap<>("map", Set.of("a", "b"));
+		assertDoesNotThrow(() -> sm.set("b", new Object()));
+	}
+
+	@Test
+	void testTrySetReturnsTrueWhenDidSet() {
+		StableMap<String, Object> sm = new StableMap<>("map");
+		assertTrue(sm.trySet("key", new Object()));
+	}
+
+	@Test
+	void testTrySetReturnsFalseWhenDidNotSet() {
+		StableMap<String, Object> sm = new StableMap<>("map");
+		sm.set("key", new Object());
+		assertFalse(sm.trySet("key", new Object()));
+	}
+
+	@Test
+	void testCallToGetWithoutSetFails() {
+		StableMap<String, Object> sm = new StableMap<>("map");
+		assertThrows(NoSuchElementException.class, () -> sm.get("key"));
+	}
+
+	@Test
+	void testGetReturnsValuePassedToSet() {
+		StableMap<String, Object> sm = new StableMap<>("map");
+		Object value = new Object();
+		sm.set("key", value);
+		assertEquals(value, sm.get("key"));
+	}
+
+	@Test
+	void testGetDefaultReturnsDefaultValueIfNotSet() {
+		StableMap<String, Object> sm = new StableMap<>("map");
+		Object defaultValue = new Object();
+		assertEquals(defaultValue, sm.get("key", defaultValue));
+	}
+
+	@Test
+	void testSizeReturnsNumberOfKeysSet() {
+		StableMap<String, Object> sm = new StableMap<>("map");
+		sm.set("key", new Object());
+		sm.set("other", new Object());
+		assertEquals(2, sm.size());
+	}
+
+	@Test
+	void testOrElseSetPassesKeyToFunction() {
+		StableMap<String, Integer> sm = new StableMap<>("map");
+		assertEquals(3, sm.orElseSet("key", String::length));
+	}
+
+	@Test
+	void testOrElseSetDoesNotCallFunctionWhenSet() {
+		StableMap<String, Object> sm = new StableMap<>("map");
+		Object value = new Object();
+		sm.set("key", value);
+		assertEquals(value, sm.orElseSet("key", k -> fail("function called")));
+	}
+
+	@Test
+	void testOrElseSetKeyOutOfDomainFails() {
+		StableMap<String, Object> sm = new StableMap<>("map", Set.of("a", "b"));
+		assertThrows(IllegalArgumentException.class, () -> sm.orElseSet("c", k -> new Object()));
+	}
+
+	@Test
+	void testOrElseSetLeavesUnsetWhenFunctionFails() {
+		StableMap<String, Object> sm = new StableMap<>("map");
+		assertThrows(UnsupportedOperationException.class, () -> sm.orElseSet("key", k -> {
+			throw new UnsupportedOperationException();
+		}));
+		assertThrows(NoSuchElementException.class, () -> sm.get("key"));
+	}
+
+	@Test
+	void testOrElseSetRecursiveCallSameKeyFails() {
+		StableMap<String, Object> sm = new StableMap<>("map");
+		assertThrows(IllegalStateException.class, () -> sm.orElseSet("key", k -> sm.orElseSet(k, l -> new Object())));
+	}
+
+	@Test
+	void testOrElseSetRecursiveCallOtherKeyDoesNotFail() {
+		StableMap<String, Integer> sm = new StableMap<>("map");
+		assertEquals(6, sm.orElseSet("key", k -> sm.orElseSet("other", String::length) + 1));
+	}
+
+	@Test
+	void testOrElseSetCalledInParallelCallsFunctionOnce() {
+		StableMap<String, Object> sm = new StableMap<>("map");
+		AtomicInteger callsCount = new AtomicInteger();
+		Object[] results = new Object[2];
+		Thread thread1 = new Thread(() -> results[0] = sm.orElseSet("key", k -> {
+			callsCount.incrementAndGet();
+			return new Object();
+		}));
+		Thread thread2 = new Thread(() -> results[1] = sm.orElseSet("key", k -> {
+			callsCount.incrementAndGet();
+			return new Object();
+		}));
+		thread1.start();
+		thread2.start();
+		try {
+			thread1.join();
+			thread2.join();
+		} catch (InterruptedException e) {
+			fail(e);
+		}
+		assertEquals(1, callsCount.get());
+		assertEquals(results[0], results[1]);
+	}
+
+	@Test
+	void testSetDuringComputationWakesUpWaiters() throws InterruptedException {
+		StableMap<String, Integer> sm = new StableMap<>("map");
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch set = new CountDownLatch(1);
+		Thread computer = new Thread(() -> sm.orElseSet("key", k -> {
+			computing.countDown();
+			awaitUninterruptibly(set);
+			return 42;
+		}));
+		computer.start();
+		computing.await();
+		Object[] result = new Object[1];
+		Thread waiter = new Thread(() -> result[0] = sm.orElseSet("key", k -> {
+			throw new AssertionError("the value is being computed");
+		}));
+		waiter.start();
+		/* Parked without a timeout, until woken up by the setter */
+		while (waiter.getState() != Thread.State.WAITING) {
+			Thread.onSpinWait();
+		}
+		sm.set("key", 7);
+		waiter.join();
+		assertEquals(7, result[0]);
+		set.countDown();
+		computer.join();
+		assertEquals(7, sm.get("key"));
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			fail(e);
+		}
+	}
+
+	@Test
+	void testToStringSucceeds() {
+		StableMap<String, Object> sm = new StableMap<>("map");
+		sm.set("key", new Object());
+		assertDoesNotThrow(sm::toString);
+	}
+}